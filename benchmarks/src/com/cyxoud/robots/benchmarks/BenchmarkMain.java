@@ -0,0 +1,38 @@
+package com.cyxoud.robots.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all the benchmarks and writes results to benchmarks-*.json, so runs can be compared to catch regressions.
+ * Charger part contention is measured with 2, 4, 8, 16, 32 and 64 threads
+ */
+public class BenchmarkMain {
+    /** numbers of threads fighting for charger parts */
+    private static final int[] CONTENTION_THREADS = {2, 4, 8, 16, 32, 64};
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : CONTENTION_THREADS) {
+            Options options = new OptionsBuilder()
+                    .include(ChargerPartBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("benchmarks-charger-parts-" + threads + "-threads.json")
+                    .build();
+            new Runner(options).run();
+        }
+
+        Options options = new OptionsBuilder()
+                .include(RobotChargeBenchmark.class.getSimpleName())
+                .include(GentlemanlyDecisionBenchmark.class.getSimpleName())
+                .include(SimulationThroughputBenchmark.class.getSimpleName())
+                .include(PartitionedSimulationBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("benchmarks-robots.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,43 @@
+package com.cyxoud.robots.benchmarks;
+
+import com.cyxoud.robots.StrategySpec;
+import com.cyxoud.robots.TableBuilder;
+import com.cyxoud.robots.entities.Robot;
+import com.cyxoud.robots.entities.Strategy;
+
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Builds tables for the benchmarks
+ */
+final class BenchmarkTables {
+    /** seed of the strategies distributions and random robots, so every fork measures the same tables */
+    static final long SEED = 20160806L;
+
+    private BenchmarkTables() {}
+
+    /**
+     * @param spec compact specification of the strategies
+     * @param size number of seats at the table
+     * @return robots sitting at the table. No state logger is attached and the disconnect message is switched off,
+     * so benchmarks don't measure console output
+     */
+    static List<Robot> ring(String spec, int size) {
+        List<Robot> robots = TableBuilder.ring(strategies(spec, size), new SplittableRandom(SEED));
+        Logger.getGlobal().setLevel(Level.OFF);
+        return robots;
+    }
+
+    /**
+     * @param spec compact specification of the strategies
+     * @param size number of seats at the table
+     * @return strategies of the same table the ring is built of
+     */
+    static Strategy[] strategies(String spec, int size) {
+        return StrategySpec.parse(spec, size, new Random(SEED));
+    }
+}
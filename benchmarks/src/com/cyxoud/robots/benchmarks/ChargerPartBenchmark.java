@@ -0,0 +1,111 @@
+package com.cyxoud.robots.benchmarks;
+
+import com.cyxoud.robots.entities.Cable;
+import com.cyxoud.robots.entities.ChargerPart;
+import com.cyxoud.robots.entities.Robot;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contended taking and freeing of the charger parts. Each thread sits at its own seat and takes and frees both parts
+ * next to it, so neighbouring threads compete for the shared part. Lock-free charger parts are compared with
+ * the former ones that guarded the owner with the part monitor. Run it with 2..64 threads, see {@link BenchmarkMain}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(2)
+@State(Scope.Benchmark)
+public class ChargerPartBenchmark {
+    /** 6 seats make all threads fight for few parts, 1024 seats spread them over the table */
+    @Param({"6", "1024"})
+    public int tableSize;
+
+    private ChargerPart[] chargerParts;
+    private SynchronizedPart[] synchronizedParts;
+    private List<Robot> robots;
+    /** gives each thread its own seat */
+    private final AtomicInteger nextSeat = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        robots = BenchmarkTables.ring("2", tableSize);
+        chargerParts = new ChargerPart[tableSize];
+        synchronizedParts = new SynchronizedPart[tableSize];
+        for (int i = 0; i < tableSize; i++) {
+            chargerParts[i] = (i % 2 == 0 ? new com.cyxoud.robots.entities.Fork() : new Cable());
+            synchronizedParts[i] = new SynchronizedPart();
+        }
+        nextSeat.set(0);
+    }
+
+    @State(Scope.Thread)
+    public static class Seat {
+        private Robot robot;
+        private ChargerPart left;
+        private ChargerPart right;
+        private SynchronizedPart synchronizedLeft;
+        private SynchronizedPart synchronizedRight;
+
+        @Setup(Level.Trial)
+        public void setUp(ChargerPartBenchmark table) {
+            int seat = table.nextSeat.getAndIncrement() % table.tableSize;
+            int rightSeat = (seat + table.tableSize - 1) % table.tableSize;
+            robot = table.robots.get(seat);
+            left = table.chargerParts[seat];
+            right = table.chargerParts[rightSeat];
+            synchronizedLeft = table.synchronizedParts[seat];
+            synchronizedRight = table.synchronizedParts[rightSeat];
+        }
+    }
+
+    /**
+     * Charger part as it was before it became lock-free: ownership guarded by the part monitor
+     */
+    static class SynchronizedPart {
+        private Object owner;
+
+        synchronized boolean tryBeTaken(Object possibleOwner) {
+            if (owner == null) {
+                owner = possibleOwner;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized boolean tryBeFreed(Object possibleOwner) {
+            if (owner == possibleOwner) {
+                owner = null;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    @Benchmark
+    public void takeAndFree(Seat seat, Blackhole blackhole) {
+        blackhole.consume(seat.left.tryBeTaken(seat.robot));
+        blackhole.consume(seat.right.tryBeTaken(seat.robot));
+        blackhole.consume(seat.left.tryBeFreed(seat.robot));
+        blackhole.consume(seat.right.tryBeFreed(seat.robot));
+    }
+
+    @Benchmark
+    public void takeAndFreeSynchronized(Seat seat, Blackhole blackhole) {
+        blackhole.consume(seat.synchronizedLeft.tryBeTaken(seat.robot));
+        blackhole.consume(seat.synchronizedRight.tryBeTaken(seat.robot));
+        blackhole.consume(seat.synchronizedLeft.tryBeFreed(seat.robot));
+        blackhole.consume(seat.synchronizedRight.tryBeFreed(seat.robot));
+    }
+
+    @Benchmark
+    public boolean isFree(Seat seat) {
+        return seat.left.isFree();
+    }
+}
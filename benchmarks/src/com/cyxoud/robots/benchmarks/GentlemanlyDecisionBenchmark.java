@@ -0,0 +1,49 @@
+package com.cyxoud.robots.benchmarks;
+
+import com.cyxoud.robots.entities.GentlemanlyRobot;
+import com.cyxoud.robots.entities.Robot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decision of the gentlemanly robot whether to give one of its charger parts to a neighbour
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class GentlemanlyDecisionBenchmark {
+    /** keep: neighbours have more charge, yield: left neighbour has less charge and gets the part */
+    @Param({"keep", "yield"})
+    public String decision;
+
+    private GentlemanlyRobot gentlemanlyRobot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Robot> robots = BenchmarkTables.ring("232", 3);
+        gentlemanlyRobot = (GentlemanlyRobot) robots.get(1);
+        gentlemanlyRobot.tryTakeLeftChargerPart();
+        gentlemanlyRobot.tryTakeRightChargerPart();
+        if (decision.equals("yield")) {
+            robots.get(2).beDischarged();
+        }
+        else {
+            gentlemanlyRobot.beDischarged();
+        }
+    }
+
+    /**
+     * Robot takes the parts back after yielding, like its strategy does on the next step
+     */
+    @Benchmark
+    public boolean tryFreeChargerPartInFavourOfNeighbour() {
+        boolean freed = gentlemanlyRobot.tryFreeChargerPartInFavourOfNeighbour();
+        gentlemanlyRobot.tryTakeLeftChargerPart();
+        return freed;
+    }
+}
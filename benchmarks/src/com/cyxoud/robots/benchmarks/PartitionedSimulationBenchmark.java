@@ -0,0 +1,48 @@
+package com.cyxoud.robots.benchmarks;
+
+import com.cyxoud.robots.entities.SimulationConfig;
+import com.cyxoud.robots.entities.Strategy;
+import com.cyxoud.robots.simulation.CompactSimulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compact modelling of the table of a million seats split into segments. Time of the modelling with N partitions
+ * compared to 1 partition shows how it scales with cores
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PartitionedSimulationBenchmark {
+    /** virtual time of the modelling. Twenty seconds */
+    private static final long TIME_LIMIT = 20 * 1000;
+
+    @Param({"mix:1,1,1", "23"})
+    public String strategies;
+
+    @Param({"1000000"})
+    public int tableSize;
+
+    @Param({"1", "2", "4", "8"})
+    public int partitions;
+
+    private Strategy[] table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        table = BenchmarkTables.strategies(strategies, tableSize);
+    }
+
+    @Benchmark
+    public long partitionedSimulation() {
+        CompactSimulation simulation = new CompactSimulation(table, new SplittableRandom(BenchmarkTables.SEED),
+                SimulationConfig.DEFAULT, null, partitions);
+        simulation.runUntil(TIME_LIMIT);
+        return simulation.getProcessedEvents();
+    }
+}
@@ -0,0 +1,54 @@
+package com.cyxoud.robots.benchmarks;
+
+import com.cyxoud.robots.entities.Robot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of charging and discharging of one robot, alone and while many threads read its charge the way
+ * gentlemanly neighbours and the completion tracker do
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Group)
+public class RobotChargeBenchmark {
+    private Robot robot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        robot = BenchmarkTables.ring("1", 2).get(0);
+        robot.tryTakeLeftChargerPart();
+        robot.tryTakeRightChargerPart();
+    }
+
+    /**
+     * Charge stays at 50% because each charge is followed by the discharge of the same amount
+     */
+    @Benchmark
+    @Group("alone")
+    public int chargeAndDischarge() {
+        robot.beCharged();
+        robot.beDischarged();
+        return robot.getCharge();
+    }
+
+    @Benchmark
+    @Group("withReaders")
+    @GroupThreads(1)
+    public int chargeAndDischargeWhileRead() {
+        robot.beCharged();
+        robot.beDischarged();
+        return robot.getCharge();
+    }
+
+    @Benchmark
+    @Group("withReaders")
+    @GroupThreads(7)
+    public boolean readCharge() {
+        return robot.isActive() && robot.getCharge() < 100;
+    }
+}
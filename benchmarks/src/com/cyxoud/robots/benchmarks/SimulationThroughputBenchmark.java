@@ -0,0 +1,48 @@
+package com.cyxoud.robots.benchmarks;
+
+import com.cyxoud.robots.entities.Robot;
+import com.cyxoud.robots.entities.SimulationConfig;
+import com.cyxoud.robots.entities.Strategy;
+import com.cyxoud.robots.simulation.CompactSimulation;
+import com.cyxoud.robots.simulation.CompletionTracker;
+import com.cyxoud.robots.simulation.DiscreteEventSimulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole modellings per second in virtual time for different mixes of strategies, by the modelling of the robots
+ * and by the compact modelling
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SimulationThroughputBenchmark {
+    /** virtual time limit for the modellings that never finish. Ten minutes */
+    private static final long TIME_LIMIT = 10 * 60 * 1000;
+
+    @Param({"111111", "222222", "333333", "123321", "mix:1,1,1"})
+    public String strategies;
+
+    @Param({"6", "10000"})
+    public int tableSize;
+
+    @Benchmark
+    public boolean simulation() {
+        List<Robot> robots = BenchmarkTables.ring(strategies, tableSize);
+        CompletionTracker completionTracker = new CompletionTracker(robots);
+        return new DiscreteEventSimulation(robots, completionTracker).runUntil(TIME_LIMIT);
+    }
+
+    @Benchmark
+    public boolean compactSimulation() {
+        Strategy[] table = BenchmarkTables.strategies(strategies, tableSize);
+        return new CompactSimulation(table, new SplittableRandom(BenchmarkTables.SEED), SimulationConfig.DEFAULT)
+                .runUntil(TIME_LIMIT);
+    }
+}
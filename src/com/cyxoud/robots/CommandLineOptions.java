@@ -0,0 +1,197 @@
+package com.cyxoud.robots;
+
+import com.cyxoud.robots.entities.PartAcquisition;
+import com.cyxoud.robots.entities.RetryPolicy;
+import com.cyxoud.robots.entities.SimulationConfig;
+import com.cyxoud.robots.entities.Strategy;
+import com.cyxoud.robots.execution.ExecutionBackend;
+import com.cyxoud.robots.execution.ThreadPerRobotBackend;
+import com.cyxoud.robots.simulation.SimulationMode;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Represents options of the modelling passed in command line
+ */
+class CommandLineOptions {
+    /** command line option that switches modelling to virtual time */
+    private static final String VIRTUAL_TIME_OPTION = "--virtual-time";
+    /** command line option that chooses execution backend of the real time modelling */
+    private static final String BACKEND_OPTION = "--backend";
+    /** command line option that sets number of seats at the table */
+    private static final String SIZE_OPTION = "--size";
+    /** command line option that sets compact specification of the strategies */
+    private static final String STRATEGIES_OPTION = "--strategies";
+    /** command line option that sets path of the binary trace of the modelling */
+    private static final String TRACE_OPTION = "--trace";
+    /** command line option that sets seed of the random strategies and strategies mix */
+    private static final String SEED_OPTION = "--seed";
+    /** command line option that sets how many times real time modelling runs faster than the wall clock */
+    private static final String TIME_SCALE_OPTION = "--time-scale";
+    /** command line option that exposes metrics of the modelling in JMX and logs them when it finishes */
+    private static final String METRICS_OPTION = "--metrics";
+    /** command line option that sets how robots take the two charger parts */
+    private static final String PART_ACQUISITION_OPTION = "--part-acquisition";
+    /** command line option that gives charger parts to the robots in the order of their attempts */
+    private static final String FAIR_PARTS_OPTION = "--fair-parts";
+    /** command line option that sets how blocked robots retry in real time */
+    private static final String RETRY_POLICY_OPTION = "--retry-policy";
+    /** command line option that finishes real time modelling when the table settles into a steady state */
+    private static final String STEADY_STATE_OPTION = "--steady-state";
+    /** options that change only the real time modelling or its output, so they have no effect on the server */
+    static final List<String> REAL_TIME_OPTIONS = Collections.unmodifiableList(Arrays.asList(VIRTUAL_TIME_OPTION,
+            BACKEND_OPTION, TRACE_OPTION, TIME_SCALE_OPTION, RETRY_POLICY_OPTION,
+            STEADY_STATE_OPTION));
+
+    private SimulationMode mode = SimulationMode.REAL_TIME;
+    private ExecutionBackend executionBackend;
+    /** strategies parsed from the specification or null if strategies are passed as separate arguments */
+    private Strategy[] strategies;
+    /** path of the binary trace or null if trace isn't written */
+    private Path tracePath;
+    /** seed of the modelling or null if modelling isn't reproducible */
+    private Long seed;
+    /** timing and charge constants of the modelling */
+    private SimulationConfig config = SimulationConfig.DEFAULT;
+    private boolean metricsExposed;
+    /** arguments left after the options */
+    private String[] arguments;
+
+    private CommandLineOptions() {}
+
+    /**
+     * @param args command line arguments
+     * @return parsed options
+     */
+    static CommandLineOptions parse(String[] args) {
+        CommandLineOptions options = new CommandLineOptions();
+        int size = -1;
+        String strategiesSpec = null;
+        int i = 0;
+        for (; i < args.length && args[i].startsWith("--"); i++) {
+            if (args[i].equals(VIRTUAL_TIME_OPTION)) {
+                options.mode = SimulationMode.VIRTUAL_TIME;
+            }
+            else if (args[i].equals(BACKEND_OPTION) && i + 1 < args.length) {
+                options.executionBackend = ExecutionBackend.forName(args[++i]);
+            }
+            else if (args[i].equals(SIZE_OPTION) && i + 1 < args.length) {
+                size = parseSize(args[++i]);
+            }
+            else if (args[i].equals(STRATEGIES_OPTION) && i + 1 < args.length) {
+                strategiesSpec = args[++i];
+            }
+            else if (args[i].equals(TRACE_OPTION) && i + 1 < args.length) {
+                options.tracePath = Paths.get(args[++i]);
+            }
+            else if (args[i].equals(SEED_OPTION) && i + 1 < args.length) {
+                options.seed = parseSeed(args[++i]);
+            }
+            else if (args[i].equals(METRICS_OPTION)) {
+                options.metricsExposed = true;
+            }
+            else if (args[i].equals(TIME_SCALE_OPTION) && i + 1 < args.length) {
+                options.config = options.config.withTimeScale(parseTimeScale(args[++i]));
+            }
+            else if (args[i].equals(RETRY_POLICY_OPTION) && i + 1 < args.length) {
+                options.config = options.config.withRetryPolicy(RetryPolicy.parse(args[++i]));
+            }
+            else if (args[i].equals(STEADY_STATE_OPTION)) {
+                options.config = options.config.withSteadyStateSampling(true);
+            }
+            else if (args[i].equals(FAIR_PARTS_OPTION)) {
+                options.config = options.config.withFairChargerParts(true);
+            }
+            else if (args[i].equals(PART_ACQUISITION_OPTION) && i + 1 < args.length) {
+                options.config = options.config.withPartAcquisition(PartAcquisition.forName(args[++i]));
+            }
+            else {
+                throw new IllegalArgumentException("Illegal option: " + args[i]);
+            }
+        }
+        options.arguments = Arrays.copyOfRange(args, i, args.length);
+
+        if (strategiesSpec != null) {
+            Random random = options.seed == null ? new Random() : new Random(options.seed);
+            options.strategies = StrategySpec.parse(strategiesSpec, size, random);
+        }
+        else if (size >= 0) {
+            throw new IllegalArgumentException("Illegal option: " + SIZE_OPTION + " needs " + STRATEGIES_OPTION);
+        }
+        if (options.executionBackend == null) {
+            options.executionBackend = new ThreadPerRobotBackend();
+        }
+        return options;
+    }
+
+    private static int parseSize(String size) {
+        try {
+            int value = Integer.parseInt(size);
+            if (value < 1) throw new NumberFormatException(size);
+            return value;
+        }
+        catch (NumberFormatException numberFormatException) {
+            throw (IllegalArgumentException)
+                    new IllegalArgumentException("Illegal size of the table: " + size).initCause(numberFormatException);
+        }
+    }
+
+    private static long parseSeed(String seed) {
+        try {
+            return Long.parseLong(seed);
+        }
+        catch (NumberFormatException numberFormatException) {
+            throw (IllegalArgumentException)
+                    new IllegalArgumentException("Illegal seed: " + seed).initCause(numberFormatException);
+        }
+    }
+
+    private static double parseTimeScale(String timeScale) {
+        try {
+            double value = Double.parseDouble(timeScale);
+            if (!(value > 0) || Double.isInfinite(value)) throw new NumberFormatException(timeScale);
+            return value;
+        }
+        catch (NumberFormatException numberFormatException) {
+            throw (IllegalArgumentException)
+                    new IllegalArgumentException("Illegal time scale: " + timeScale).initCause(numberFormatException);
+        }
+    }
+
+    SimulationMode getMode() {
+        return mode;
+    }
+
+    ExecutionBackend getExecutionBackend() {
+        return executionBackend;
+    }
+
+    Strategy[] getStrategies() {
+        return strategies;
+    }
+
+    Path getTracePath() {
+        return tracePath;
+    }
+
+    Long getSeed() {
+        return seed;
+    }
+
+    SimulationConfig getConfig() {
+        return config;
+    }
+
+    boolean isMetricsExposed() {
+        return metricsExposed;
+    }
+
+    String[] getArguments() {
+        return arguments;
+    }
+}
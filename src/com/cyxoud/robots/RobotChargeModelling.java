@@ -2,22 +2,220 @@ package com.cyxoud.robots;
 
 import com.cyxoud.robots.entities.*;
 import com.cyxoud.robots.exceptions.IllegalArgumentsNumberException;
+import com.cyxoud.robots.execution.ExecutionBackend;
+import com.cyxoud.robots.execution.ThreadPerRobotBackend;
+import com.cyxoud.robots.logging.AsyncStateLogger;
+import com.cyxoud.robots.metrics.MetricsSnapshot;
+import com.cyxoud.robots.metrics.TableMetrics;
+import com.cyxoud.robots.simulation.Clock;
+import com.cyxoud.robots.simulation.CompactSimulation;
+import com.cyxoud.robots.simulation.CompletionTracker;
+import com.cyxoud.robots.simulation.DiscreteEventSimulation;
+import com.cyxoud.robots.simulation.SimulationMode;
+import com.cyxoud.robots.simulation.SimulationResult;
+import com.cyxoud.robots.simulation.SteadyState;
+import com.cyxoud.robots.simulation.SteadyStateDetector;
+import com.cyxoud.robots.simulation.SteadyStateSampler;
+import com.cyxoud.robots.trace.TraceWriter;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
 
 /**
  * Represents modelling of the robot fight against each other to get the charger
  */
 public class RobotChargeModelling {
-    /** list of robot threads(strategies and discharges */
-    private List<Thread> robotsThreads;
-    /** list of robots that participate in modelling */
-    private List<Robot> robots = new ArrayList<>(6);
+    /** period in seconds of the wall clock between the progress reports of the modelling in real time */
+    private static final long PROGRESS_PERIOD_SECONDS = 5;
+
+    /** runs strategies and discharges of the robots in real time */
+    private final ExecutionBackend executionBackend;
+    /** list of robots that participate in modelling in the order of their seats */
+    private List<Robot> robots;
+    /** tracks the terminate condition of the modelling */
+    private CompletionTracker completionTracker;
+    /** cycle the table settled into or null if modelling met terminate condition */
+    private SteadyState steadyState;
+
+    /** mode in which the modelling is run */
+    private final SimulationMode mode;
+    /** path of the binary trace of the modelling or null if trace isn't written */
+    private final Path tracePath;
+    /** seed of the random streams of the robots or null if modelling isn't reproducible */
+    private final Long seed;
+    /** timing and charge constants of the modelling */
+    private final SimulationConfig config;
+    /** shows if metrics are registered in JMX while the modelling runs and logged when it finishes */
+    private final boolean metricsExposed;
+    /** destination of the log of the robots state changes or null if state changes aren't logged */
+    private final Writer stateLog;
+    /** metrics of the modelling */
+    private TableMetrics metrics;
+    /** result of the modelling */
+    private SimulationResult result;
 
     public RobotChargeModelling(String[] arguments) {
+        this(arguments, SimulationMode.REAL_TIME);
+    }
+
+    /**
+     * @param arguments arguments of the modelling
+     * @param mode mode in which the modelling is run
+     */
+    public RobotChargeModelling(String[] arguments, SimulationMode mode) {
+        this(arguments, mode, new ThreadPerRobotBackend());
+    }
+
+    /**
+     * @param arguments arguments of the modelling
+     * @param mode mode in which the modelling is run
+     * @param executionBackend runs strategies and discharges of the robots in real time mode
+     */
+    public RobotChargeModelling(String[] arguments, SimulationMode mode, ExecutionBackend executionBackend) {
+        this(arguments, mode, executionBackend, null, null);
+    }
+
+    /**
+     * @param arguments arguments of the modelling
+     * @param mode mode in which the modelling is run
+     * @param executionBackend runs strategies and discharges of the robots in real time mode
+     * @param tracePath path of the binary trace of the modelling or null if trace isn't written
+     * @param seed seed of the random streams of the robots or null if modelling isn't reproducible
+     */
+    public RobotChargeModelling(String[] arguments, SimulationMode mode, ExecutionBackend executionBackend,
+                                Path tracePath, Long seed) {
+        this(arguments, mode, executionBackend, tracePath, seed, SimulationConfig.DEFAULT);
+    }
+
+    /**
+     * @param arguments arguments of the modelling
+     * @param mode mode in which the modelling is run
+     * @param executionBackend runs strategies and discharges of the robots in real time mode
+     * @param tracePath path of the binary trace of the modelling or null if trace isn't written
+     * @param seed seed of the random streams of the robots or null if modelling isn't reproducible
+     * @param config timing and charge constants of the modelling
+     */
+    public RobotChargeModelling(String[] arguments, SimulationMode mode, ExecutionBackend executionBackend,
+                                Path tracePath, Long seed, SimulationConfig config) {
+        this(arguments, mode, executionBackend, tracePath, seed, config, false);
+    }
+
+    /**
+     * @param arguments arguments of the modelling
+     * @param mode mode in which the modelling is run
+     * @param executionBackend runs strategies and discharges of the robots in real time mode
+     * @param tracePath path of the binary trace of the modelling or null if trace isn't written
+     * @param seed seed of the random streams of the robots or null if modelling isn't reproducible
+     * @param config timing and charge constants of the modelling
+     * @param metricsExposed true if metrics are registered in JMX while the modelling runs in real time
+     *                       and logged when it finishes
+     */
+    public RobotChargeModelling(String[] arguments, SimulationMode mode, ExecutionBackend executionBackend,
+                                Path tracePath, Long seed, SimulationConfig config, boolean metricsExposed) {
+        this.metricsExposed = metricsExposed;
+        this.mode = mode;
+        this.executionBackend = executionBackend;
+        this.tracePath = tracePath;
+        this.seed = seed;
+        this.config = config;
+        this.stateLog = new OutputStreamWriter(System.err);
         checkInput(arguments);
-        init(arguments);
+        init(toStrategies(arguments));
+    }
+
+    /**
+     * Constructs the modelling of the table of any size
+     * @param strategies strategies of the robots in the order of their seats
+     * @param mode mode in which the modelling is run
+     * @param executionBackend runs strategies and discharges of the robots in real time mode
+     */
+    public RobotChargeModelling(RobotStrategy[] strategies, SimulationMode mode, ExecutionBackend executionBackend) {
+        this(strategies, mode, executionBackend, null, null);
+    }
+
+    /**
+     * Constructs the modelling of the table of any size
+     * @param strategies strategies of the robots in the order of their seats
+     * @param mode mode in which the modelling is run
+     * @param executionBackend runs strategies and discharges of the robots in real time mode
+     * @param tracePath path of the binary trace of the modelling or null if trace isn't written
+     * @param seed seed of the random streams of the robots or null if modelling isn't reproducible.
+     *             In virtual time the same seed gives the same modelling
+     */
+    public RobotChargeModelling(RobotStrategy[] strategies, SimulationMode mode, ExecutionBackend executionBackend,
+                                Path tracePath, Long seed) {
+        this(strategies, mode, executionBackend, tracePath, seed, SimulationConfig.DEFAULT);
+    }
+
+    /**
+     * Constructs the modelling of the table of any size
+     * @param strategies strategies of the robots in the order of their seats
+     * @param mode mode in which the modelling is run
+     * @param executionBackend runs strategies and discharges of the robots in real time mode
+     * @param tracePath path of the binary trace of the modelling or null if trace isn't written
+     * @param seed seed of the random streams of the robots or null if modelling isn't reproducible.
+     *             In virtual time the same seed gives the same modelling
+     * @param config timing and charge constants of the modelling. Its time scale speeds up real time modelling
+     */
+    public RobotChargeModelling(RobotStrategy[] strategies, SimulationMode mode, ExecutionBackend executionBackend,
+                                Path tracePath, Long seed, SimulationConfig config) {
+        this(strategies, mode, executionBackend, tracePath, seed, config, false);
+    }
+
+    /**
+     * Constructs the modelling of the table of any size
+     * @param strategies strategies of the robots in the order of their seats
+     * @param mode mode in which the modelling is run
+     * @param executionBackend runs strategies and discharges of the robots in real time mode
+     * @param tracePath path of the binary trace of the modelling or null if trace isn't written
+     * @param seed seed of the random streams of the robots or null if modelling isn't reproducible.
+     *             In virtual time the same seed gives the same modelling
+     * @param config timing and charge constants of the modelling. Its time scale speeds up real time modelling
+     * @param metricsExposed true if metrics are registered in JMX while the modelling runs in real time
+     *                       and logged when it finishes
+     */
+    public RobotChargeModelling(RobotStrategy[] strategies, SimulationMode mode, ExecutionBackend executionBackend,
+                                Path tracePath, Long seed, SimulationConfig config, boolean metricsExposed) {
+        this(strategies, mode, executionBackend, tracePath, seed, config, metricsExposed,
+                new OutputStreamWriter(System.err));
+    }
+
+    /**
+     * Constructs the modelling of the table of any size
+     * @param strategies strategies of the robots in the order of their seats
+     * @param mode mode in which the modelling is run
+     * @param executionBackend runs strategies and discharges of the robots in real time mode
+     * @param tracePath path of the binary trace of the modelling or null if trace isn't written
+     * @param seed seed of the random streams of the robots or null if modelling isn't reproducible.
+     *             In virtual time the same seed gives the same modelling
+     * @param config timing and charge constants of the modelling. Its time scale speeds up real time modelling
+     * @param metricsExposed true if metrics are registered in JMX while the modelling runs in real time
+     *                       and logged when it finishes
+     * @param stateLog destination of the log of the robots state changes or null if state changes aren't logged.
+     *                 It is flushed but not closed when the modelling finishes
+     */
+    public RobotChargeModelling(RobotStrategy[] strategies, SimulationMode mode, ExecutionBackend executionBackend,
+                                Path tracePath, Long seed, SimulationConfig config, boolean metricsExposed,
+                                Writer stateLog) {
+        this.metricsExposed = metricsExposed;
+        this.stateLog = stateLog;
+        this.mode = mode;
+        this.executionBackend = executionBackend;
+        this.tracePath = tracePath;
+        this.seed = seed;
+        this.config = config;
+        if (strategies.length == 0) {
+            throw new IllegalArgumentsNumberException("Illegal number of robots: table needs at least one robot");
+        }
+        init(strategies);
     }
 
     /**
@@ -25,11 +223,11 @@ public class RobotChargeModelling {
      * @param args arguments of the modelling
      */
     public void checkInput(String[] args) {
-        if (args.length != 6) {
+        if (args.length == 0) {
             throw new IllegalArgumentsNumberException("Illegal number of arguments:" +
-                    " you need to pass 6 numbers(1/2/3) according to chosen strategy");
+                    " you need to pass a number(1/2/3) according to chosen strategy for each robot");
         }
-        for (int i = 0; i < 6; i++) {
+        for (int i = 0; i < args.length; i++) {
             try {
                 if (Integer.parseInt(args[i]) < 1 || Integer.parseInt(args[i]) > 3) {
                     throw new IllegalArgumentException("Illegal argument: you need to pass a number(1/2/3)" +
@@ -45,145 +243,265 @@ public class RobotChargeModelling {
     }
 
     /**
-     *  Construct robots due to the strategies and continue modelling while all robot are not discharged
-     *  and all alive robots are not full charged
+     * @param args checked arguments of the modelling
+     * @return strategies of the robots in the order of their seats
      */
-    private void init(String[] args) {
-        java.util.List<Robot> robots = initRobots(args);
-        setGentlemanRobotNeighbours(robots);
-
-        initThreads(robots);
-
-        while (!isAllRobotsDischarged() && !isAllAliveRobotsFullCharged()) {}
-        stopThreads();
+    private static Strategy[] toStrategies(String[] args) {
+        Strategy[] strategies = new Strategy[args.length];
+        for (int i = 0; i < args.length; i++) {
+            strategies[i] = Strategy.values()[Integer.parseInt(args[i]) - 1];
+        }
+        return strategies;
     }
 
     /**
-     * Constructs robots and put them in list
-     * @param args input modelling arguments
-     * @return constructed list of robots
+     *  Construct robots due to the strategies and continue modelling while all robot are not discharged
+     *  and all alive robots are not full charged, or until the table settles into a steady state
      */
-    private java.util.List<Robot> initRobots(String[] args) {
-        java.util.List<ChargerPart> chargerParts = new ArrayList(6) {
-            {
-                add(new Fork("Fork1"));
-                add(new Cable("Cable1"));
-                add(new Fork("Fork2"));
-                add(new Cable("Cable2"));
-                add(new Fork("Fork3"));
-                add(new Cable("Cable3"));
-            }
-        };
+    private void init(RobotStrategy[] strategies) {
+        robots = TableBuilder.ring(strategies, seed == null ? new SplittableRandom() : new SplittableRandom(seed),
+                config);
 
-        for (int i = 0; i < 6; i++) {
-            Strategy strategy = Strategy.values()[Integer.parseInt(args[i]) - 1];
+        if (mode == SimulationMode.VIRTUAL_TIME) {
+            completionTracker = new CompletionTracker(robots);
+            DiscreteEventSimulation simulation = new DiscreteEventSimulation(robots, completionTracker,
+                    new SteadyStateDetector());
+            metrics = new TableMetrics(simulation.getClock(), robots);
+            try (AsyncStateLogger stateLogger = openStateLogger(simulation.getClock());
+                 TraceWriter traceWriter = openTrace(simulation.getClock())) {
+                simulation.run();
+                reportOutputs(stateLogger, traceWriter);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can't write trace of the modelling", e);
+            }
+            reportSteadyState(simulation.getSteadyState());
+            keepResult(simulation.getClock().millis(), simulation.getProcessedEvents());
+            reportMetrics();
+            return;
+        }
 
-            if (i == 0) {
-                if (strategy.equals(Strategy.GENTLEMANLY)) {
-                    robots.add(new GentlemanlyRobot(chargerParts.get(i), chargerParts.get(5)));
-                }
-                else if (strategy.equals(Strategy.RANDOM)){
-                    robots.add(new RandomRobot(chargerParts.get(i), chargerParts.get(5)));
-                }
-                else {
-                    robots.add(new GreedyRobot(chargerParts.get(i), chargerParts.get(5)));
-                }
+        Clock clock = Clock.startingNow(config);
+        metrics = new TableMetrics(clock, robots);
+        if (metricsExposed) {
+            metrics.register();
+        }
+        SteadyStateSampler sampler = null;
+        long durationMillis = -1;
+        try (AsyncStateLogger stateLogger = openStateLogger(clock);
+             TraceWriter traceWriter = openTrace(clock)) {
+            // tracker listens after the outputs, so they get the state change that finishes the modelling before
+            // they are closed
+            completionTracker = new CompletionTracker(robots);
+            if (config.isSteadyStateSampled()) {
+                sampler = new SteadyStateSampler(robots, completionTracker, new SteadyStateDetector(), clock);
             }
-            else {
-                if (strategy.equals(Strategy.GENTLEMANLY)) {
-                    robots.add(new GentlemanlyRobot(chargerParts.get(i), chargerParts.get(i - 1)));
-                }
-                else if (strategy.equals(Strategy.RANDOM)){
-                    robots.add(new RandomRobot(chargerParts.get(i), chargerParts.get(i - 1)));
-                }
-                else {
-                    robots.add(new GreedyRobot(chargerParts.get(i), chargerParts.get(i - 1)));
-                }
+            executionBackend.start(robots);
+            if (sampler != null) {
+                sampler.start();
+            }
+            awaitCompletion();
+            durationMillis = clock.millis();
+            reportOutputs(stateLogger, traceWriter);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't write trace of the modelling", e);
+        } finally {
+            if (sampler != null) {
+                sampler.close();
             }
+            stopThreads();
+            metrics.close();
         }
-
-        return robots;
+        reportSteadyState(sampler == null ? null : sampler.getSteadyState());
+        keepResult(durationMillis < 0 ? clock.millis() : durationMillis, -1);
+        reportMetrics();
     }
 
     /**
-     * Sets neighbours of robots with gentleman strategy
-     * @param robots list of constructed robots
+     * Blocks until the terminate condition is met and reports progress of the modelling meanwhile
+     * @throws InterruptedException if current thread was interrupted while waiting
      */
-    private void setGentlemanRobotNeighbours(List<Robot> robots) {
-        for (int i = 0; i < 6; i ++) {
-            Robot robot = robots.get(i);
-            if (robot instanceof GentlemanlyRobot) {
-                GentlemanlyRobot gentlemanlyRobot = (GentlemanlyRobot) robot;
-                if (i == 0) {
-                    gentlemanlyRobot.setLeftNeighbour(robots.get(i + 1));
-                    gentlemanlyRobot.setRightNeighbour(robots.get(5));
-                }
-                else if (i == 5) {
-                    gentlemanlyRobot.setLeftNeighbour(robots.get(0));
-                    gentlemanlyRobot.setRightNeighbour(robots.get(i - 1));
-                }
-                else {
-                    gentlemanlyRobot.setLeftNeighbour(robots.get(i + 1));
-                    gentlemanlyRobot.setRightNeighbour(robots.get(i - 1));
-                }
+    private void awaitCompletion() throws InterruptedException {
+        while (true) {
+            try {
+                completionTracker.await(PROGRESS_PERIOD_SECONDS, TimeUnit.SECONDS);
+                return;
+            } catch (TimeoutException e) {
+                Logger.getGlobal().info("Progress: " + completionTracker.describeProgress());
             }
         }
     }
 
     /**
-     * Starts discharge and strategy threads and put them in thread list
-     * @param robots list of constructed robots
+     * @param steadyState cycle the table settled into or null if modelling met terminate condition
      */
-    private void initThreads(List<Robot> robots) {
-        robotsThreads = new ArrayList<>(12);
-        for (Robot robot : robots) {
-            Thread robotThread;
-            robotThread = new Thread(robot.strategy());
-            robotsThreads.add(robotThread);
-            robotsThreads.add(new Thread(robot.discharge(robotThread)));
+    private void reportSteadyState(SteadyState steadyState) {
+        this.steadyState = steadyState;
+        if (steadyState != null) {
+            Logger.getGlobal().info("Modelling never terminates, table settled into " + steadyState);
         }
+    }
+
+    /**
+     * Keeps charges of the robots and the contention for the charger parts when the modelling is over. Charges are
+     * the ones measured when robots were full charged or disconnected, not after their threads were stopped
+     * @param durationMillis time of the modelling in milliseconds
+     * @param processedEvents number of events processed in virtual time or -1 in real time
+     */
+    private void keepResult(long durationMillis, long processedEvents) {
+        MetricsSnapshot snapshot = metrics.snapshot();
+        int[] charges = completionTracker.getFinalCharges();
+        result = (charges == null ? SimulationResult.of(robots, null, durationMillis, steadyState)
+                : new SimulationResult(completionTracker.getOutcome(), durationMillis, charges, steadyState,
+                        config.getFullCharge()))
+                .withCounts(processedEvents, snapshot.getTotalTakeAttempts(), snapshot.getTotalTakeFailures());
+    }
 
-        for (Thread thread : robotsThreads) {
-            thread.start();
+    private void reportMetrics() {
+        if (metricsExposed) {
+            Logger.getGlobal().info(metrics.snapshot().toString());
         }
     }
 
     /**
-     * Check if all robots are discharged
-     * @return true if all robots are discharged and false otherwise
+     * Warns about state changes the logger dropped and tells how many state changes the trace has
+     * @param stateLogger logger of the state changes of the robots or null if state changes aren't logged
+     * @param traceWriter writer of the binary trace or null if trace isn't written
      */
-    private boolean isAllRobotsDischarged() {
-        for (Robot robot : robots) {
-            if (robot.isActive()) return false;
+    private void reportOutputs(AsyncStateLogger stateLogger, TraceWriter traceWriter) {
+        if (stateLogger != null && stateLogger.getDroppedCount() > 0) {
+            Logger.getGlobal().warning(stateLogger.getDroppedCount() + " state changes of the robots weren't logged");
+        }
+        if (traceWriter != null) {
+            Logger.getGlobal().info("Trace of " + traceWriter.getRecordCount() + " state changes is written to "
+                    + tracePath);
         }
-        return true;
     }
 
     /**
-     * Check if all alive robots are fullchargedd
-     * @return true if all alive robots are full charged and false otherwise
+     * @param clock source of the modelling time
+     * @return logger of the state changes subscribed to the robots or null if state changes aren't logged
      */
-    private boolean isAllAliveRobotsFullCharged() {
-        for (Robot robot : robots) {
-            if (robot.isActive()) {
-                if (!robot.isFullCharged()) return false;
-            }
+    private AsyncStateLogger openStateLogger(Clock clock) {
+        return stateLog == null ? null : new AsyncStateLogger(clock, stateLog, AsyncStateLogger.DEFAULT_CAPACITY,
+                AsyncStateLogger.OverflowPolicy.BLOCK).attachTo(robots);
+    }
+
+    /**
+     * @param clock source of the modelling time
+     * @return writer of the binary trace subscribed to the robots or null if trace isn't written
+     * @throws IOException if trace file can't be created
+     */
+    private TraceWriter openTrace(Clock clock) throws IOException {
+        return tracePath == null ? null : new TraceWriter(tracePath, clock, robots);
+    }
+
+    /**
+     * Runs the modelling in virtual time without logging. The same strategies, seed and time limit always give
+     * the same result
+     * @param strategies strategies of the robots in the order of their seats
+     * @param seed seed of the random streams of the robots
+     * @param timeLimit virtual time in milliseconds after which the modelling is stopped unfinished
+     * @return result of the modelling. Modelling that settles into a steady state is finished as non terminating
+     */
+    public static SimulationResult simulate(RobotStrategy[] strategies, long seed, long timeLimit) {
+        return simulate(strategies, seed, timeLimit, SimulationConfig.DEFAULT);
+    }
+
+    /**
+     * Runs the modelling in virtual time without logging. The same strategies, seed, time limit and constants always
+     * give the same result. Tables of the built-in strategies are modelled by the compact modelling,
+     * which gives the same result as the modelling of the robots
+     * @param strategies strategies of the robots in the order of their seats
+     * @param seed seed of the random streams of the robots
+     * @param timeLimit virtual time in milliseconds after which the modelling is stopped unfinished
+     * @param config timing and charge constants of the modelling
+     * @return result of the modelling. Modelling that settles into a steady state is finished as non terminating
+     */
+    public static SimulationResult simulate(RobotStrategy[] strategies, long seed, long timeLimit,
+                                            SimulationConfig config) {
+        if (strategies.length == 0) {
+            throw new IllegalArgumentsNumberException("Illegal number of robots: table needs at least one robot");
         }
-        return true;
+        Strategy[] builtInStrategies = toBuiltInStrategies(strategies);
+        if (builtInStrategies != null) {
+            CompactSimulation simulation = new CompactSimulation(builtInStrategies, new SplittableRandom(seed), config,
+                    new SteadyStateDetector());
+            simulation.runUntil(timeLimit);
+            return simulation.getResult();
+        }
+        List<Robot> robots = TableBuilder.ring(strategies, new SplittableRandom(seed), config);
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(robots, new CompletionTracker(robots),
+                new SteadyStateDetector());
+        simulation.runUntil(timeLimit);
+        return simulation.getResult();
     }
 
     /**
-     * Interrupts all the threads due to modelling terminate condition
+     * @param strategies strategies of the robots in the order of their seats
+     * @return the same strategies or null if some of them isn't built-in
      */
-    public void stopThreads() {
-        for (Thread thread : robotsThreads) {
-            thread.interrupt();
+    private static Strategy[] toBuiltInStrategies(RobotStrategy[] strategies) {
+        Strategy[] builtInStrategies = new Strategy[strategies.length];
+        for (int seat = 0; seat < strategies.length; seat++) {
+            if (!(strategies[seat] instanceof Strategy)) return null;
+            builtInStrategies[seat] = (Strategy) strategies[seat];
         }
+        return builtInStrategies;
     }
 
-    public static void main(String[] args) {
-        new RobotChargeModelling(args);
+    /**
+     * Stops strategies and discharges of the robots due to modelling terminate condition
+     */
+    public void stopThreads() {
+        executionBackend.shutdown();
+    }
+
+    /**
+     * @return tracker of the terminate condition of the modelling
+     */
+    public CompletionTracker getCompletionTracker() {
+        return completionTracker;
     }
 
+    /**
+     * @return cycle the table settled into or null if modelling met terminate condition
+     */
+    public SteadyState getSteadyState() {
+        return steadyState;
+    }
 
+    /**
+     * @return metrics of the modelling
+     */
+    public TableMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return charges and outcomes of the robots, time of the modelling and the contention for the charger parts.
+     * Outcome is null if the modelling in real time was interrupted
+     */
+    public SimulationResult getResult() {
+        return result;
+    }
+
+    /**
+     * @param args numbers(1/2/3) according to chosen strategies, one per robot, or --strategies spec with optional --size N,
+     *             optionally preceded by --virtual-time, --backend platform/virtual/scheduler, --trace file,
+     *             --seed N, --time-scale X, --part-acquisition one-at-a-time/ordered/all-or-nothing, --fair-parts,
+     *             --retry-policy spins,yields,minPark,maxPark[,jitter], --steady-state and --metrics
+     */
+    public static void main(String[] args) {
+        CommandLineOptions options = CommandLineOptions.parse(args);
+        if (options.getStrategies() != null) {
+            new RobotChargeModelling(options.getStrategies(), options.getMode(), options.getExecutionBackend(),
+                    options.getTracePath(), options.getSeed(), options.getConfig(), options.isMetricsExposed());
+        }
+        else {
+            new RobotChargeModelling(options.getArguments(), options.getMode(), options.getExecutionBackend(),
+                    options.getTracePath(), options.getSeed(), options.getConfig(), options.isMetricsExposed());
+        }
+    }
 }
@@ -0,0 +1,132 @@
+package com.cyxoud.robots;
+
+import com.cyxoud.robots.entities.RobotStrategy;
+import com.cyxoud.robots.entities.SimulationConfig;
+import com.cyxoud.robots.exceptions.IllegalArgumentsNumberException;
+import com.cyxoud.robots.simulation.SimulationMode;
+
+import java.util.Arrays;
+
+/**
+ * Immutable description of one modelling run by {@link Simulator}: strategies of the robots, the mode, the seed,
+ * the time limit and the constants. Each {@code with} method returns a copy with one setting changed, e.g.
+ * {@code SimulationRequest.of(strategies).withSeed(7).withMeasured(true)}
+ */
+public final class SimulationRequest {
+    /** default virtual time limit of the modelling. Ten minutes */
+    public static final long DEFAULT_TIME_LIMIT = 10 * 60 * 1000;
+
+    /** strategies of the robots in the order of their seats */
+    private final RobotStrategy[] strategies;
+    /** mode in which the modelling is run */
+    private final SimulationMode mode;
+    /** seed of the random streams of the robots or null if modelling isn't reproducible */
+    private final Long seed;
+    /** virtual time in milliseconds after which the modelling is stopped unfinished */
+    private final long timeLimit;
+    /** timing and charge constants of the modelling */
+    private final SimulationConfig config;
+    /** shows if events and the contention for the charger parts are counted */
+    private final boolean measured;
+
+    private SimulationRequest(RobotStrategy[] strategies, SimulationMode mode, Long seed, long timeLimit,
+                              SimulationConfig config, boolean measured) {
+        this.strategies = strategies;
+        this.mode = mode;
+        this.seed = seed;
+        this.timeLimit = timeLimit;
+        this.config = config;
+        this.measured = measured;
+    }
+
+    /**
+     * @param strategies strategies of the robots in the order of their seats
+     * @return request of the unmeasured modelling in virtual time with a random seed, the default time limit and
+     * the default constants
+     * @throws IllegalArgumentsNumberException if there are no strategies
+     */
+    public static SimulationRequest of(RobotStrategy... strategies) {
+        if (strategies.length == 0) {
+            throw new IllegalArgumentsNumberException("Illegal number of robots: table needs at least one robot");
+        }
+        return new SimulationRequest(strategies.clone(), SimulationMode.VIRTUAL_TIME, null, DEFAULT_TIME_LIMIT,
+                SimulationConfig.DEFAULT, false);
+    }
+
+    public SimulationRequest withMode(SimulationMode mode) {
+        return new SimulationRequest(strategies, mode, seed, timeLimit, config, measured);
+    }
+
+    /**
+     * @param seed seed of the random streams of the robots. In virtual time the same seed gives the same result
+     */
+    public SimulationRequest withSeed(long seed) {
+        return new SimulationRequest(strategies, mode, seed, timeLimit, config, measured);
+    }
+
+    /**
+     * @param timeLimit virtual time in milliseconds after which the modelling is stopped unfinished.
+     *                  Real time modelling runs until it's over
+     */
+    public SimulationRequest withTimeLimit(long timeLimit) {
+        if (timeLimit < 0) {
+            throw new IllegalArgumentException("Illegal time limit: " + timeLimit);
+        }
+        return new SimulationRequest(strategies, mode, seed, timeLimit, config, measured);
+    }
+
+    public SimulationRequest withConfig(SimulationConfig config) {
+        return new SimulationRequest(strategies, mode, seed, timeLimit, config, measured);
+    }
+
+    /**
+     * @param measured true if events and the contention for the charger parts are counted. Measured modelling
+     *                 in virtual time runs the robots instead of the faster compact modelling.
+     *                 Real time modelling is always measured
+     */
+    public SimulationRequest withMeasured(boolean measured) {
+        return new SimulationRequest(strategies, mode, seed, timeLimit, config, measured);
+    }
+
+    /**
+     * @return strategies of the robots in the order of their seats
+     */
+    public RobotStrategy[] getStrategies() {
+        return strategies.clone();
+    }
+
+    public SimulationMode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return seed of the random streams of the robots or null if modelling isn't reproducible
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    public SimulationConfig getConfig() {
+        return config;
+    }
+
+    public boolean isMeasured() {
+        return measured;
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationRequest{" +
+                "strategies=" + Arrays.toString(strategies) +
+                ", mode=" + mode +
+                ", seed=" + seed +
+                ", timeLimit=" + timeLimit +
+                ", measured=" + measured +
+                ", config=" + config +
+                '}';
+    }
+}
@@ -0,0 +1,256 @@
+package com.cyxoud.robots;
+
+import com.cyxoud.robots.cache.SimulationCache;
+import com.cyxoud.robots.entities.Strategy;
+import com.cyxoud.robots.simulation.SimulationResult;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Long-lived server of the modellings in virtual time, so the tools that evaluate many tables don't start a JVM
+ * per table and reuse the warmed up modelling. Server reads requests line by line and writes a line with the result
+ * of each request as soon as it's ready, so results may come in another order than requests.
+ * <p>
+ * Request is an id followed by the command line options and strategies of {@link RobotChargeModelling#main},
+ * e.g. {@code 7 --seed 3 --strategies mix:1,1,1 --size 500} or {@code 8 1 2 3 3 2 1}. Modelling always runs
+ * in virtual time and {@code --metrics} counts events and the contention for the charger parts, options that have
+ * no effect on the modelling in virtual time, such as {@code --trace} or {@code --time-scale}, are rejected.
+ * Response is
+ * {@code id ok outcome=... durationMillis=... charges=c1,c2,...} with {@code processedEvents=... takeAttempts=...
+ * takeFailures=...} for the measured modelling, or {@code id error message}.
+ * <p>
+ * Requests are run by the pool of the {@link Simulator}. When the limit of the pending requests of a client is
+ * reached, server stops reading its requests until one of them is answered, so a fast client is slowed down
+ * instead of filling the memory
+ */
+public class SimulationServer {
+    /** default number of requests of one client that are run or queued at once */
+    public static final int DEFAULT_MAX_PENDING = 1024;
+
+    /** runs the modellings */
+    private final Simulator simulator;
+    /** number of requests of one client that are run or queued at once */
+    private final int maxPending;
+
+    /**
+     * @param simulator runs the modellings
+     * @param maxPending number of requests of one client that are run or queued at once
+     */
+    public SimulationServer(Simulator simulator, int maxPending) {
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("Illegal number of pending requests: " + maxPending);
+        }
+        this.simulator = simulator;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Answers requests of one client until the end of its input and until all of them are answered
+     * @param in requests of the client, one per line
+     * @param out responses to the client, one per line
+     * @throws IOException if requests can't be read
+     * @throws InterruptedException if current thread was interrupted while waiting for the pending requests
+     */
+    public void serve(BufferedReader in, final Writer out) throws IOException, InterruptedException {
+        final Semaphore pending = new Semaphore(maxPending);
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) continue;
+            String[] tokens = line.split("\\s+");
+            final String id = tokens[0];
+            SimulationRequest request;
+            try {
+                request = toRequest(Arrays.copyOfRange(tokens, 1, tokens.length));
+            } catch (RuntimeException e) {
+                respond(out, id + " error " + e.getMessage());
+                continue;
+            }
+            pending.acquire();
+            simulator.submit(request).whenComplete(new BiConsumer<SimulationResult, Throwable>() {
+                @Override
+                public void accept(SimulationResult result, Throwable failure) {
+                    try {
+                        respond(out, failure == null ? id + " ok " + format(result)
+                                : id + " error " + (failure instanceof CompletionException && failure.getCause() != null
+                                        ? failure.getCause() : failure));
+                    } finally {
+                        pending.release();
+                    }
+                }
+            });
+        }
+        pending.acquire(maxPending);
+    }
+
+    /**
+     * Accepts clients on the port and answers each of them in its own thread
+     * @param port port of the server
+     * @throws IOException if server socket can't be opened
+     */
+    public void listen(int port) throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(port)) {
+            Logger.getGlobal().info("Modelling server listens on port " + serverSocket.getLocalPort());
+            while (true) {
+                final Socket socket = serverSocket.accept();
+                Thread client = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try (Socket clientSocket = socket;
+                             BufferedReader in = new BufferedReader(new InputStreamReader(
+                                     clientSocket.getInputStream(), StandardCharsets.UTF_8));
+                             Writer out = new BufferedWriter(new OutputStreamWriter(
+                                     clientSocket.getOutputStream(), StandardCharsets.UTF_8))) {
+                            serve(in, out);
+                        } catch (IOException e) {
+                            Logger.getGlobal().log(Level.WARNING, "Client " + socket.getRemoteSocketAddress()
+                                    + " is disconnected", e);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }, "client-" + socket.getRemoteSocketAddress());
+                client.setDaemon(true);
+                client.start();
+            }
+        }
+    }
+
+    /**
+     * @param args command line options and strategies of the request without its id
+     * @return request of the modelling in virtual time
+     */
+    static SimulationRequest toRequest(String[] args) {
+        for (String arg : args) {
+            if (CommandLineOptions.REAL_TIME_OPTIONS.contains(arg)) {
+                throw new IllegalArgumentException("Illegal option: " + arg
+                        + " has no effect on the modelling in virtual time run by the server");
+            }
+        }
+        CommandLineOptions options = CommandLineOptions.parse(args);
+        String[] arguments = options.getArguments();
+        Strategy[] strategies = options.getStrategies();
+        if (strategies != null && arguments.length > 0) {
+            throw new IllegalArgumentException("Illegal request: strategies are passed both as numbers and as "
+                    + "specification");
+        }
+        if (strategies == null) {
+            if (arguments.length == 0) {
+                throw new IllegalArgumentException("Illegal request: no strategies");
+            }
+            strategies = new Strategy[arguments.length];
+            for (int i = 0; i < arguments.length; i++) {
+                strategies[i] = toStrategy(arguments[i], i);
+            }
+        }
+        SimulationRequest request = SimulationRequest.of(strategies).withConfig(options.getConfig())
+                .withMeasured(options.isMetricsExposed());
+        return options.getSeed() == null ? request : request.withSeed(options.getSeed());
+    }
+
+    /**
+     * @param argument number of the strategy, 1/2/3
+     * @param index index of the argument among the strategies
+     * @return strategy chosen by the number
+     */
+    private static Strategy toStrategy(String argument, int index) {
+        if (argument.length() != 1 || argument.charAt(0) < '1' || argument.charAt(0) > '3') {
+            throw new IllegalArgumentException("Illegal argument: you need to pass a number(1/2/3)"
+                    + " according to chosen strategy. Error in argument number: " + (index + 1));
+        }
+        return Strategy.values()[argument.charAt(0) - '1'];
+    }
+
+    /**
+     * @param result result of the modelling
+     * @return result in the format of the response
+     */
+    static String format(SimulationResult result) {
+        StringBuilder response = new StringBuilder();
+        response.append("outcome=").append(result.getOutcome())
+                .append(" durationMillis=").append(result.getDurationMillis())
+                .append(" charges=");
+        for (int seat = 0; seat < result.getRobotCount(); seat++) {
+            if (seat > 0) response.append(',');
+            response.append(result.getCharge(seat));
+        }
+        if (result.isMeasured()) {
+            response.append(" processedEvents=").append(result.getProcessedEvents())
+                    .append(" takeAttempts=").append(result.getTakeAttempts())
+                    .append(" takeFailures=").append(result.getTakeFailures());
+        }
+        return response.toString();
+    }
+
+    /**
+     * Writes the response line. Responses of the pool threads don't interleave
+     */
+    private static void respond(Writer out, String response) {
+        synchronized (out) {
+            try {
+                out.write(response);
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                Logger.getGlobal().log(Level.WARNING, "Can't send response " + response, e);
+            }
+        }
+    }
+
+    /**
+     * @param args --port N to listen on the port instead of answering standard input, --threads N,
+     *             --max-pending N and --cache-dir directory of the results of repeated requests, all optional
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Integer port = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int maxPending = DEFAULT_MAX_PENDING;
+        SimulationCache cache = null;
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Illegal option: " + args[i] + " needs a value");
+            }
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-pending":
+                    maxPending = Integer.parseInt(args[++i]);
+                    break;
+                case "--cache-dir":
+                    cache = new SimulationCache(SimulationCache.DEFAULT_MAX_ENTRIES, Paths.get(args[++i]));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Illegal option: " + args[i]);
+            }
+        }
+        try (Simulator simulator = new Simulator(threads, cache)) {
+            SimulationServer server = new SimulationServer(simulator, maxPending);
+            if (port != null) {
+                server.listen(port);
+            }
+            else {
+                server.serve(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)),
+                        new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.cyxoud.robots;
+
+import com.cyxoud.robots.cache.SimulationCache;
+import com.cyxoud.robots.entities.Robot;
+import com.cyxoud.robots.entities.RobotStrategy;
+import com.cyxoud.robots.entities.Strategy;
+import com.cyxoud.robots.execution.ThreadPerRobotBackend;
+import com.cyxoud.robots.metrics.MetricsSnapshot;
+import com.cyxoud.robots.metrics.TableMetrics;
+import com.cyxoud.robots.simulation.CompletionTracker;
+import com.cyxoud.robots.simulation.DiscreteEventSimulation;
+import com.cyxoud.robots.simulation.SimulationMode;
+import com.cyxoud.robots.simulation.SimulationResult;
+import com.cyxoud.robots.simulation.SteadyStateDetector;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Entry point for the programs that embed the modelling. Takes typed {@link SimulationRequest requests} instead
+ * of the command line arguments and returns {@link SimulationResult results}, so nothing has to be parsed or read
+ * by reflection. Requests are run in the calling thread by {@link #run(SimulationRequest)} or submitted to the pool
+ * of the simulator, so a service can run thousands of modellings at once and the pool bounds how many of them run.
+ * Simulator with a {@link SimulationCache cache} takes results of the submitted requests that are repeated
+ * from the cache
+ */
+public class Simulator implements AutoCloseable {
+    /** number of the last created simulator pool, so threads of several simulators have different names */
+    private static final AtomicInteger pools = new AtomicInteger();
+
+    /** runs the submitted requests */
+    private final ExecutorService executor;
+    /** true if the pool was created by the simulator and is shut down when simulator is closed */
+    private final boolean executorOwned;
+    /** results of the submitted modellings in virtual time or null if results aren't cached */
+    private final SimulationCache cache;
+
+    /**
+     * Constructs simulator with the pool of one daemon thread per processor
+     */
+    public Simulator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads number of daemon threads that run the submitted requests
+     */
+    public Simulator(int threads) {
+        this(threads, null);
+    }
+
+    /**
+     * @param threads number of daemon threads that run the submitted requests
+     * @param cache results of the submitted modellings in virtual time or null if results aren't cached
+     */
+    public Simulator(int threads, SimulationCache cache) {
+        this(newPool(threads), true, cache);
+    }
+
+    /**
+     * @param executor pool that runs the submitted requests. It isn't shut down when simulator is closed
+     */
+    public Simulator(ExecutorService executor) {
+        this(executor, null);
+    }
+
+    /**
+     * @param executor pool that runs the submitted requests. It isn't shut down when simulator is closed
+     * @param cache results of the submitted modellings in virtual time or null if results aren't cached
+     */
+    public Simulator(ExecutorService executor, SimulationCache cache) {
+        this(executor, false, cache);
+    }
+
+    private Simulator(ExecutorService executor, boolean executorOwned, SimulationCache cache) {
+        this.executor = executor;
+        this.executorOwned = executorOwned;
+        this.cache = cache;
+    }
+
+    private static ExecutorService newPool(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Illegal number of threads: " + threads);
+        }
+        final int pool = pools.incrementAndGet();
+        return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger created = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "simulator-" + pool + "-" + created.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Runs the modelling in the calling thread. Unmeasured modelling in virtual time gives the same result
+     * as {@link RobotChargeModelling#simulate(RobotStrategy[], long, long, com.cyxoud.robots.entities.SimulationConfig)}
+     * @param request strategies, mode, seed, time limit and constants of the modelling
+     * @return charges and outcomes of the robots and time of the modelling, with the number of processed events
+     * and the contention for the charger parts if modelling is measured
+     */
+    public static SimulationResult run(SimulationRequest request) {
+        if (request.getMode() == SimulationMode.REAL_TIME) {
+            return new RobotChargeModelling(request.getStrategies(), SimulationMode.REAL_TIME,
+                    new ThreadPerRobotBackend(), null, request.getSeed(), request.getConfig(), false, null).getResult();
+        }
+        long seed = request.getSeed() == null ? new SplittableRandom().nextLong() : request.getSeed();
+        if (!request.isMeasured()) {
+            return RobotChargeModelling.simulate(request.getStrategies(), seed, request.getTimeLimit(),
+                    request.getConfig());
+        }
+        List<Robot> robots = TableBuilder.ring(request.getStrategies(), new SplittableRandom(seed),
+                request.getConfig());
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(robots, new CompletionTracker(robots),
+                new SteadyStateDetector());
+        TableMetrics metrics = new TableMetrics(simulation.getClock(), robots);
+        simulation.runUntil(request.getTimeLimit());
+        MetricsSnapshot snapshot = metrics.snapshot();
+        return simulation.getResult().withCounts(simulation.getProcessedEvents(), snapshot.getTotalTakeAttempts(),
+                snapshot.getTotalTakeFailures());
+    }
+
+    /**
+     * Queues the modelling to the pool of the simulator. Result of the unmeasured modelling in virtual time
+     * with a seed is taken from the cache of the simulator if it has one
+     * @param request strategies, mode, seed, time limit and constants of the modelling
+     * @return future result of the modelling. It's completed exceptionally if the modelling fails
+     */
+    public CompletableFuture<SimulationResult> submit(final SimulationRequest request) {
+        return CompletableFuture.supplyAsync(new Supplier<SimulationResult>() {
+            @Override
+            public SimulationResult get() {
+                Strategy[] strategies = cache == null ? null : cachedStrategies(request);
+                if (strategies == null) {
+                    return run(request);
+                }
+                return cache.simulate(strategies, request.getSeed(), request.getTimeLimit(), request.getConfig());
+            }
+        }, executor);
+    }
+
+    /**
+     * @param request request of the modelling
+     * @return built-in strategies of the request or null if its result can't be cached: the modelling is run
+     * in real time, is measured, has no seed or has robots with registered strategies
+     */
+    private static Strategy[] cachedStrategies(SimulationRequest request) {
+        if (request.getMode() != SimulationMode.VIRTUAL_TIME || request.isMeasured() || request.getSeed() == null) {
+            return null;
+        }
+        RobotStrategy[] strategies = request.getStrategies();
+        Strategy[] builtInStrategies = new Strategy[strategies.length];
+        for (int seat = 0; seat < strategies.length; seat++) {
+            if (!(strategies[seat] instanceof Strategy)) {
+                return null;
+            }
+            builtInStrategies[seat] = (Strategy) strategies[seat];
+        }
+        return builtInStrategies;
+    }
+
+    /**
+     * Stops accepting requests. Submitted requests are still run
+     */
+    @Override
+    public void close() {
+        if (executorOwned) {
+            executor.shutdown();
+        }
+    }
+}
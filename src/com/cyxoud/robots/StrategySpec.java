@@ -0,0 +1,107 @@
+package com.cyxoud.robots;
+
+import com.cyxoud.robots.entities.Strategy;
+
+import java.util.Random;
+
+/**
+ * Parses compact specification of the robots' strategies. Specification is either
+ * <ul>
+ *     <li>a pattern of comma separated runs, e.g. {@code 123321} or {@code 1x500,2x300,3x200}. Each run is a number
+ *     of strategy digits(1/2/3) optionally followed by xCount. The pattern is repeated to fill the table</li>
+ *     <li>a distribution {@code mix:w1,w2,w3} with weights of random, greedy and gentleman strategies.
+ *     Strategy of each seat is chosen randomly</li>
+ * </ul>
+ */
+public final class StrategySpec {
+    /** prefix of the distribution specification */
+    private static final String MIX_PREFIX = "mix:";
+
+    private StrategySpec() {}
+
+    /**
+     * @param spec specification of the strategies
+     * @param size number of seats at the table or -1 to take it from the pattern
+     * @param random source of randomness for the distribution
+     * @return strategies of the robots in the order of their seats
+     */
+    public static Strategy[] parse(String spec, int size, Random random) {
+        if (spec.startsWith(MIX_PREFIX)) {
+            if (size < 1) {
+                throw new IllegalArgumentException("Illegal specification: size of the table is needed for " + spec);
+            }
+            return parseMix(spec.substring(MIX_PREFIX.length()), size, random);
+        }
+        return parsePattern(spec, size);
+    }
+
+    private static Strategy[] parsePattern(String spec, int size) {
+        StringBuilder pattern = new StringBuilder();
+        for (String run : spec.split(",")) {
+            int repeatIndex = run.indexOf('x');
+            String digits = (repeatIndex < 0 ? run : run.substring(0, repeatIndex));
+            int count = (repeatIndex < 0 ? 1 : parseNumber(run.substring(repeatIndex + 1), spec));
+            for (int i = 0; i < count; i++) {
+                pattern.append(digits);
+            }
+        }
+        if (pattern.length() == 0) {
+            throw new IllegalArgumentException("Illegal specification: no strategies in " + spec);
+        }
+
+        Strategy[] strategies = new Strategy[size < 0 ? pattern.length() : size];
+        for (int i = 0; i < strategies.length; i++) {
+            strategies[i] = strategyOf(pattern.charAt(i % pattern.length()), spec);
+        }
+        return strategies;
+    }
+
+    private static Strategy[] parseMix(String weightsSpec, int size, Random random) {
+        String[] weightsParts = weightsSpec.split(",");
+        if (weightsParts.length != Strategy.values().length) {
+            throw new IllegalArgumentException("Illegal specification: you need to pass " + Strategy.values().length +
+                    " weights after " + MIX_PREFIX);
+        }
+        int[] cumulativeWeights = new int[weightsParts.length];
+        int totalWeight = 0;
+        for (int i = 0; i < weightsParts.length; i++) {
+            totalWeight += parseNumber(weightsParts[i], weightsSpec);
+            cumulativeWeights[i] = totalWeight;
+        }
+        if (totalWeight == 0) {
+            throw new IllegalArgumentException("Illegal specification: all weights are zero in " + weightsSpec);
+        }
+
+        Strategy[] strategies = new Strategy[size];
+        for (int i = 0; i < size; i++) {
+            int value = random.nextInt(totalWeight);
+            int strategyIndex = 0;
+            while (value >= cumulativeWeights[strategyIndex]) {
+                strategyIndex++;
+            }
+            strategies[i] = Strategy.values()[strategyIndex];
+        }
+        return strategies;
+    }
+
+    private static Strategy strategyOf(char digit, String spec) {
+        if (digit < '1' || digit > '0' + Strategy.values().length) {
+            throw new IllegalArgumentException("Illegal specification: you need to use numbers(1/2/3)" +
+                    " according to chosen strategy. Error in " + spec);
+        }
+        return Strategy.values()[digit - '1'];
+    }
+
+    private static int parseNumber(String number, String spec) {
+        try {
+            int value = Integer.parseInt(number);
+            if (value < 0) throw new NumberFormatException(number);
+            return value;
+        }
+        catch (NumberFormatException numberFormatException) {
+            throw (IllegalArgumentException)
+                    new IllegalArgumentException("Illegal specification: " + number + " is not a number in " + spec)
+                            .initCause(numberFormatException);
+        }
+    }
+}
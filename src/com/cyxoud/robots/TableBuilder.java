@@ -0,0 +1,78 @@
+package com.cyxoud.robots;
+
+import com.cyxoud.robots.entities.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Builds the round table: lays out charger parts between the seats and links robots with their neighbours
+ */
+public final class TableBuilder {
+    private TableBuilder() {}
+
+    /**
+     * Constructs robots sitting at the round table in O(N). Charger part i lies at the left of robot i and at the right of
+     * robot i + 1, forks and cables alternate. On the table with odd number of seats robot 0 sits between two forks
+     * @param strategies strategies of the robots in the order of their seats
+     * @return constructed list of robots in the order of their seats
+     */
+    public static List<Robot> ring(RobotStrategy[] strategies) {
+        return ring(strategies, new SplittableRandom());
+    }
+
+    /**
+     * Constructs robots sitting at the round table. Each seat gets its own stream split from the random in the order
+     * of seats, whatever strategy sits there, so the same seed gives the same streams to the same seats
+     * @param strategies strategies of the robots in the order of their seats
+     * @param random source of the random streams of the robots
+     * @return constructed list of robots in the order of their seats
+     */
+    public static List<Robot> ring(RobotStrategy[] strategies, SplittableRandom random) {
+        return ring(strategies, random, SimulationConfig.DEFAULT);
+    }
+
+    /**
+     * Constructs robots sitting at the round table that share the constants of the modelling. Streams of the jitter
+     * of the retries are split after the streams of all the seats, so they don't change the streams of the seats
+     * @param strategies strategies of the robots in the order of their seats
+     * @param random source of the random streams of the robots
+     * @param config timing and charge constants of the modelling
+     * @return constructed list of robots in the order of their seats
+     */
+    public static List<Robot> ring(RobotStrategy[] strategies, SplittableRandom random, SimulationConfig config) {
+        int size = strategies.length;
+        ChargerPart[] chargerParts = new ChargerPart[size];
+        for (int i = 0; i < size; i++) {
+            chargerParts[i] = (i % 2 == 0 ? new Fork("Fork" + (i / 2 + 1)) : new Cable("Cable" + (i / 2 + 1)));
+            if (config.isFairChargerParts()) chargerParts[i].setFair(true);
+        }
+
+        SplittableRandom[] streams = new SplittableRandom[size];
+        for (int i = 0; i < size; i++) {
+            streams[i] = random.split();
+        }
+        List<Robot> robots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            robots.add(new Robot(strategies[i], chargerParts[i], chargerParts[(i + size - 1) % size], streams[i],
+                    random.split(), config));
+        }
+        setNeighbours(robots);
+
+        return robots;
+    }
+
+    /**
+     * Sets neighbours of the robots, so any strategy may look at the robots it shares charger parts with
+     * @param robots list of constructed robots
+     */
+    private static void setNeighbours(List<Robot> robots) {
+        int size = robots.size();
+        for (int i = 0; i < size; i++) {
+            Robot robot = robots.get(i);
+            robot.setLeftNeighbour(robots.get((i + 1) % size));
+            robot.setRightNeighbour(robots.get((i + size - 1) % size));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.cyxoud.robots.cache;
+
+import com.cyxoud.robots.simulation.Outcome;
+import com.cyxoud.robots.simulation.SimulationResult;
+import com.cyxoud.robots.simulation.SteadyState;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps results in the directory, one file per key, so they survive restarts. The store is best effort:
+ * unreadable files are treated as missing and failed writes only lose the result
+ */
+class DiskResultStore {
+    /** "RBRS" */
+    private static final int MAGIC = 0x52425253;
+    private static final int VERSION = 1;
+
+    private final Path directory;
+
+    /**
+     * @param directory directory of the results. Created if it doesn't exist
+     * @throws IOException if directory can't be created
+     */
+    DiskResultStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * @param key key of the result
+     * @return stored result or null if there is no readable result of the key
+     */
+    SimulationResult load(SimulationKey key) {
+        Path file = directory.resolve(key.fileName());
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            if (!key.matches(in)) return null;
+            return readResult(in, key.size(), key.getConfig().getFullCharge());
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            Logger.getGlobal().log(Level.WARNING, "Can't read cached result " + file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes result to the temporary file and moves it in place, so readers never see half written results
+     * @param key key of the result
+     * @param result result of the modelling
+     */
+    void store(SimulationKey key, SimulationResult result) {
+        Path file = directory.resolve(key.fileName());
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(directory, key.fileName(), ".tmp");
+            try (DataOutputStream out =
+                         new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                key.writeTo(out);
+                writeResult(out, result);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Logger.getGlobal().log(Level.WARNING, "Can't cache result " + file, e);
+            try {
+                if (temporary != null) Files.deleteIfExists(temporary);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static void writeResult(DataOutputStream out, SimulationResult result) throws IOException {
+        out.writeByte(result.getOutcome() == null ? -1 : result.getOutcome().ordinal());
+        out.writeLong(result.getDurationMillis());
+        writeCharges(out, result.getCharges());
+        SteadyState steadyState = result.getSteadyState();
+        out.writeBoolean(steadyState != null);
+        if (steadyState != null) {
+            out.writeLong(steadyState.getStartMillis());
+            out.writeLong(steadyState.getPeriodMillis());
+            out.writeBoolean(steadyState.isExact());
+            writeCharges(out, steadyState.getCharges());
+            out.write(steadyState.getParts());
+        }
+    }
+
+    private static SimulationResult readResult(DataInputStream in, int size, int fullCharge) throws IOException {
+        int outcome = in.readByte();
+        long durationMillis = in.readLong();
+        int[] charges = readCharges(in, size);
+        SteadyState steadyState = null;
+        if (in.readBoolean()) {
+            long startMillis = in.readLong();
+            long periodMillis = in.readLong();
+            boolean exact = in.readBoolean();
+            int[] steadyCharges = readCharges(in, size);
+            byte[] parts = new byte[steadyCharges.length];
+            in.readFully(parts);
+            steadyState = new SteadyState(startMillis, periodMillis, exact, steadyCharges, parts);
+        }
+        return new SimulationResult(outcome < 0 ? null : Outcome.values()[outcome], durationMillis, charges,
+                steadyState, fullCharge);
+    }
+
+    private static void writeCharges(DataOutputStream out, int[] charges) throws IOException {
+        out.writeInt(charges.length);
+        for (int charge : charges) {
+            out.writeByte(charge);
+        }
+    }
+
+    private static int[] readCharges(DataInputStream in, int size) throws IOException {
+        if (in.readInt() != size) {
+            throw new IOException("Number of charges in the cached result doesn't match the key");
+        }
+        int[] charges = new int[size];
+        for (int seat = 0; seat < size; seat++) {
+            charges[seat] = in.readByte();
+        }
+        return charges;
+    }
+}
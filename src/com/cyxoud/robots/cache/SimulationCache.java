@@ -0,0 +1,160 @@
+package com.cyxoud.robots.cache;
+
+import com.cyxoud.robots.RobotChargeModelling;
+import com.cyxoud.robots.entities.SimulationConfig;
+import com.cyxoud.robots.entities.Strategy;
+import com.cyxoud.robots.simulation.SimulationResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memoizes results of the modellings in virtual time, so a cached result is the same as the result of the modelling.
+ * Rotated tables are cached apart: streams of the robots are split in the order of the seats and robots at even seats
+ * go first at the same time, so rotating the strategies around the table gives another modelling for the same seed.
+ * <p>
+ * The least recently used results are evicted from memory when the cache is full. With a directory the results
+ * are also kept on disk and survive restarts
+ */
+public class SimulationCache {
+    /** default number of results kept in memory */
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    /** results in memory, the least recently used one is evicted first */
+    private final Map<SimulationKey, SimulationResult> entries;
+    /** results on disk or null if results are kept only in memory */
+    private final DiskResultStore diskStore;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs cache that keeps results only in memory
+     * @param maxEntries number of results kept in memory
+     */
+    public SimulationCache(int maxEntries) {
+        this(maxEntries, (DiskResultStore) null);
+    }
+
+    /**
+     * @param maxEntries number of results kept in memory
+     * @param directory directory of the results on disk or null if results are kept only in memory
+     * @throws IOException if directory can't be created
+     */
+    public SimulationCache(int maxEntries, Path directory) throws IOException {
+        this(maxEntries, directory == null ? null : new DiskResultStore(directory));
+    }
+
+    private SimulationCache(final int maxEntries, DiskResultStore diskStore) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Illegal number of cached results: " + maxEntries);
+        }
+        this.diskStore = diskStore;
+        entries = new LinkedHashMap<SimulationKey, SimulationResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SimulationKey, SimulationResult> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns cached result of the modelling with the default constants or runs it in virtual time
+     * @param strategies strategies of the robots in the order of their seats
+     * @param seed seed of the random streams of the robots
+     * @param timeLimit virtual time in milliseconds after which the modelling is stopped unfinished
+     * @return result of the modelling for the requested seats
+     */
+    public SimulationResult simulate(Strategy[] strategies, long seed, long timeLimit) {
+        return simulate(strategies, seed, timeLimit, SimulationConfig.DEFAULT);
+    }
+
+    /**
+     * Returns cached result of the modelling or runs it in virtual time
+     * @param strategies strategies of the robots in the order of their seats
+     * @param seed seed of the random streams of the robots
+     * @param timeLimit virtual time in milliseconds after which the modelling is stopped unfinished
+     * @param config timing and charge constants of the modelling
+     * @return result of the modelling for the requested seats
+     */
+    public SimulationResult simulate(Strategy[] strategies, long seed, long timeLimit, SimulationConfig config) {
+        byte[] ordinals = new byte[strategies.length];
+        for (int seat = 0; seat < ordinals.length; seat++) {
+            ordinals[seat] = (byte) strategies[seat].ordinal();
+        }
+        return get(new SimulationKey(ordinals, seed, timeLimit, config));
+    }
+
+    /**
+     * @return result from memory, disk or the modelling
+     */
+    private SimulationResult get(SimulationKey key) {
+        SimulationResult result;
+        synchronized (entries) {
+            result = entries.get(key);
+        }
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+
+        result = diskStore == null ? null : diskStore.load(key);
+        if (result != null) {
+            diskHits.increment();
+        }
+        else {
+            misses.increment();
+            result = RobotChargeModelling.simulate(key.getStrategies(), key.getSeed(), key.getTimeLimit(),
+                    key.getConfig());
+            if (diskStore != null) {
+                diskStore.store(key, result);
+            }
+        }
+        synchronized (entries) {
+            entries.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return number of results found in memory
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of results found on disk
+     */
+    public long getDiskHitCount() {
+        return diskHits.sum();
+    }
+
+    /**
+     * @return number of results computed by the modelling
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of results in memory
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Forgets results kept in memory. Results on disk are kept
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+}
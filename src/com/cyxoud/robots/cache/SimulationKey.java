@@ -0,0 +1,121 @@
+package com.cyxoud.robots.cache;
+
+import com.cyxoud.robots.entities.SimulationConfig;
+import com.cyxoud.robots.entities.Strategy;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Identifies the modelling in virtual time: strategies in the order of the seats, seed, time limit and the constants
+ * of the modelling. Time scale doesn't affect virtual time, so it isn't part of the key. Equal keys give equal results
+ */
+final class SimulationKey {
+    /** maximal number of robots read from disk, protects from corrupted files */
+    private static final int MAX_SIZE = 1 << 24;
+
+    /** ordinals of the strategies in the order of the seats */
+    private final byte[] strategies;
+    private final long seed;
+    private final long timeLimit;
+    /** constants the result is computed with */
+    private final SimulationConfig config;
+    /** constants of the modelling in virtual time. Results computed with other constants aren't reused */
+    private final String parameters;
+    private final int hash;
+
+    SimulationKey(byte[] strategies, long seed, long timeLimit, SimulationConfig config) {
+        this.strategies = strategies;
+        this.seed = seed;
+        this.timeLimit = timeLimit;
+        this.config = config;
+        parameters = config.describeModel();
+        hash = 31 * (31 * (31 * Arrays.hashCode(strategies) + Long.hashCode(seed)) + Long.hashCode(timeLimit))
+                + parameters.hashCode();
+    }
+
+    /**
+     * @return strategies of the robots in the order of their seats
+     */
+    Strategy[] getStrategies() {
+        Strategy[] values = new Strategy[strategies.length];
+        for (int seat = 0; seat < values.length; seat++) {
+            values[seat] = Strategy.values()[strategies[seat]];
+        }
+        return values;
+    }
+
+    /**
+     * @return number of robots at the table
+     */
+    int size() {
+        return strategies.length;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    long getTimeLimit() {
+        return timeLimit;
+    }
+
+    SimulationConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return name of the file of the key on disk. Different keys may share the name, so the file keeps the key too
+     */
+    String fileName() {
+        long fingerprint = 0xcbf29ce484222325L;
+        for (byte strategy : strategies) {
+            fingerprint = (fingerprint ^ strategy) * 0x100000001b3L;
+        }
+        fingerprint = (fingerprint ^ seed) * 0x100000001b3L;
+        fingerprint = (fingerprint ^ timeLimit) * 0x100000001b3L;
+        fingerprint = (fingerprint ^ parameters.hashCode()) * 0x100000001b3L;
+        return String.format("%016x.result", fingerprint);
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(strategies.length);
+        out.write(strategies);
+        out.writeLong(seed);
+        out.writeLong(timeLimit);
+        out.writeUTF(parameters);
+    }
+
+    /**
+     * Reads the key written by {@link #writeTo(DataOutput)}
+     * @param in input of the key
+     * @return true if the key read is equal to this key
+     * @throws IOException if key can't be read
+     */
+    boolean matches(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IOException("Illegal number of robots in the cached key: " + size);
+        }
+        byte[] other = new byte[size];
+        in.readFully(other);
+        return Arrays.equals(strategies, other) && in.readLong() == seed && in.readLong() == timeLimit
+                && in.readUTF().equals(parameters);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof SimulationKey)) return false;
+        SimulationKey key = (SimulationKey) other;
+        return hash == key.hash && seed == key.seed && timeLimit == key.timeLimit
+                && Arrays.equals(strategies, key.strategies) && parameters.equals(key.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -1,14 +1,42 @@
 package com.cyxoud.robots.entities;
 
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
- * Represents part of a charger
+ * Represents part of a charger. Ownership is changed with compare-and-set, so taking and freeing never block.
+ * <p>
+ * Fair part keeps robots that failed to take it in a queue in the order of their attempts. Free part may be taken
+ * only by the first robot of the queue, so robot that keeps trying gets the part before anyone else tries again.
+ * Part is shared by two robots, so the waiting robot gets it when the other one frees it
  */
 abstract public class ChargerPart {
+    /** atomically changes owner of the charger part */
+    private static final AtomicReferenceFieldUpdater<ChargerPart, Robot> OWNER =
+            AtomicReferenceFieldUpdater.newUpdater(ChargerPart.class, Robot.class, "owner");
+    /** source of the ranks of the charger parts */
+    private static final AtomicLong RANKS = new AtomicLong();
 
     /** Name of the charger part. Useful for logging/testing */
     private String name;
+    /** rank of the charger part. Parts created earlier have lower ranks, so all robots order the parts the same way */
+    private final long rank = RANKS.getAndIncrement();
     // current owner of the charger part. null if charger part hasn't have owner yet
-    private Robot owner;
+    private volatile Robot owner;
+    /** number of threads waiting for the charger part to be freed. Changed only under the part monitor */
+    private volatile int waiters;
+    /**
+     * robots that failed to take the fair charger part in the order of their attempts or null if the part
+     * isn't fair. Changed only under the part monitor
+     */
+    private volatile ArrayDeque<Robot> queue;
+    /** number of attempts to take the charger part. Striped, so robots don't contend on the counter */
+    private final LongAdder takeAttempts = new LongAdder();
+    /** number of attempts to take the charger part that failed because it had owner */
+    private final LongAdder takeFailures = new LongAdder();
 
     public ChargerPart() {}
 
@@ -24,23 +52,83 @@ abstract public class ChargerPart {
      * @param possibleOwner robot that wants get charger part
      * @return true if charger part was taken and false otherwise
      */
-    public synchronized boolean tryBeTaken(Robot possibleOwner) {
-        if (owner == null) {
+    public boolean tryBeTaken(Robot possibleOwner) {
+        takeAttempts.increment();
+        if (queue != null) return tryBeTakenInTurn(possibleOwner);
+        if (owner == null && OWNER.compareAndSet(this, null, possibleOwner)) return true;
+        takeFailures.increment();
+        return false;
+    }
+
+    /**
+     * Takes the fair charger part if it is free and robot is the first in the queue or the queue is empty.
+     * Otherwise puts robot at the end of the queue unless it is already there or owns the part
+     */
+    private synchronized boolean tryBeTakenInTurn(Robot possibleOwner) {
+        Robot first = queue.peekFirst();
+        if (owner == null && (first == null || first == possibleOwner)) {
             owner = possibleOwner;
+            if (first != null) queue.pollFirst();
             return true;
         }
-
+        if (owner != possibleOwner && !queue.contains(possibleOwner)) {
+            queue.addLast(possibleOwner);
+        }
+        takeFailures.increment();
         return false;
     }
 
+    /**
+     * Makes the charger part fair. Must be called before robots start taking it
+     * @param fair true if the part is given to the robots in the order of their attempts
+     */
+    public synchronized void setFair(boolean fair) {
+        queue = fair ? new ArrayDeque<Robot>(2) : null;
+    }
+
+    public boolean isFair() {
+        return queue != null;
+    }
+
+    /**
+     * @param robot robot that may wait for the charger part
+     * @return turn of the robot in the queue of the fair charger part starting from 1 or 0 if it isn't there
+     */
+    public int getTurn(Robot robot) {
+        if (queue == null) return 0;
+        synchronized (this) {
+            int turn = 1;
+            for (Robot waiting : queue) {
+                if (waiting == robot) return turn;
+                turn++;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Removes robot from the queue of the fair charger part, e.g. when robot is disconnected
+     * @param robot robot that doesn't wait for the part anymore
+     */
+    public void leaveQueue(Robot robot) {
+        if (queue == null) return;
+        synchronized (this) {
+            if (queue.remove(robot) && waiters > 0) notifyAll();
+        }
+    }
+
     /**
      * Robot in parameter frees charger part if it had it previously, if successfully owner is set to null
      * @param possibleOwner robot that wants free charger part
      * @return true if charger part was freed and false otherwise
      */
-    public synchronized boolean tryBeFreed(Robot possibleOwner) {
-        if (owner == possibleOwner) {
-            owner = null;
+    public boolean tryBeFreed(Robot possibleOwner) {
+        if (owner == possibleOwner && OWNER.compareAndSet(this, possibleOwner, null)) {
+            if (waiters > 0) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
             return true;
         }
 
@@ -50,10 +138,123 @@ abstract public class ChargerPart {
     /**
      * @return true if charger part doesn't have owner
      */
-    public synchronized boolean isFree() {
+    public boolean isFree() {
         return owner == null;
     }
 
+    /**
+     * @param robot robot that wants to take the charger part
+     * @return true if charger part doesn't have owner and, if it is fair, no other robot waits for it before
+     * the robot
+     */
+    public boolean isFreeFor(Robot robot) {
+        if (owner != null) return false;
+        if (queue == null) return true;
+        synchronized (this) {
+            Robot first = queue.peekFirst();
+            return first == null || first == robot;
+        }
+    }
+
+    /**
+     * @param robot robot that may own the charger part
+     * @return true if robot is the owner of the charger part
+     */
+    public boolean isOwnedBy(Robot robot) {
+        return owner == robot;
+    }
+
+    /**
+     * Blocks current thread until charger part doesn't have owner. Waiting thread doesn't use CPU and is woken
+     * each time the part is freed
+     * @throws InterruptedException if current thread was interrupted while waiting
+     */
+    public synchronized void awaitFree() throws InterruptedException {
+        waiters++;
+        try {
+            while (owner != null) {
+                wait();
+            }
+        } finally {
+            waiters--;
+        }
+    }
+
+    /**
+     * Blocks current thread until robot may take the charger part: it doesn't have owner and, if it is fair,
+     * no other robot waits for it before the robot
+     * @param robot robot that wants to take the charger part
+     * @throws InterruptedException if current thread was interrupted while waiting
+     */
+    public synchronized void awaitFreeFor(Robot robot) throws InterruptedException {
+        waiters++;
+        try {
+            while (!isFreeFor(robot)) {
+                wait();
+            }
+        } finally {
+            waiters--;
+        }
+    }
+
+    /**
+     * Blocks current thread until charger part doesn't have owner or timeout elapses
+     * @param timeoutMillis maximum time to wait in milliseconds
+     * @return true if charger part is free and false if timeout elapsed
+     * @throws InterruptedException if current thread was interrupted while waiting
+     */
+    public synchronized boolean awaitFree(long timeoutMillis) throws InterruptedException {
+        return awaitFreeFor(null, timeoutMillis);
+    }
+
+    /**
+     * Blocks current thread until robot may take the charger part or timeout elapses
+     * @param robot robot that wants to take the charger part or null if any robot may take it
+     * @param timeoutMillis maximum time to wait in milliseconds
+     * @return true if robot may take the charger part and false if timeout elapsed
+     * @throws InterruptedException if current thread was interrupted while waiting
+     */
+    public synchronized boolean awaitFreeFor(Robot robot, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        waiters++;
+        try {
+            while (robot == null ? owner != null : !isFreeFor(robot)) {
+                long leftMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (leftMillis <= 0) return false;
+                wait(leftMillis);
+            }
+            return true;
+        } finally {
+            waiters--;
+        }
+    }
+
+    public long getRank() {
+        return rank;
+    }
+
+    /**
+     * @param other another charger part
+     * @return true if the charger part has lower rank than another one, so it is taken first
+     */
+    public boolean precedes(ChargerPart other) {
+        return rank < other.rank;
+    }
+
+    /**
+     * @return number of attempts to take the charger part
+     */
+    public long getTakeAttempts() {
+        return takeAttempts.sum();
+    }
+
+    /**
+     * @return number of attempts to take the charger part that failed because it had owner
+     */
+    public long getTakeFailures() {
+        return takeFailures.sum();
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,46 @@
+package com.cyxoud.robots.entities;
+
+import java.util.Locale;
+
+/**
+ * How robot takes the two charger parts when its strategy calls {@link RobotView#tryTakeChargerParts()}
+ */
+public enum PartAcquisition {
+    /**
+     * Robot takes the left part and then the right part and keeps the part it got while it waits for the other.
+     * Behaviour of the original modelling
+     */
+    ONE_AT_A_TIME,
+
+    /**
+     * Robot takes the part of the lower rank first and takes the other part only while it holds the first one.
+     * Robot never waits for a lower ranked part holding a higher ranked one, so robots can't wait for each other
+     * in a cycle, but robot still keeps one part while it waits for the other
+     */
+    ORDERED,
+
+    /**
+     * Robot takes both parts in the order of their ranks or none of them: if it didn't gather the charger, it frees
+     * the part it holds. Robot never keeps one part while it waits for the other
+     */
+    ALL_OR_NOTHING;
+
+    /**
+     * @return lower case name with hyphens, e.g. all-or-nothing
+     */
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * @param name name of the policy, e.g. ordered
+     * @return policy with the name
+     * @throws IllegalArgumentException if there is no policy with the name
+     */
+    public static PartAcquisition forName(String name) {
+        for (PartAcquisition acquisition : values()) {
+            if (acquisition.getName().equalsIgnoreCase(name)) return acquisition;
+        }
+        throw new IllegalArgumentException("Unknown acquisition of the charger parts: " + name);
+    }
+}
@@ -0,0 +1,125 @@
+package com.cyxoud.robots.entities;
+
+/**
+ * Immutable policy of the robot that failed to gather the charger and retries in real time. Robot retries right away
+ * the first spins times, then yields the processor before each of the next yields retries, then parks for
+ * the exponentially growing time from the minimal to the maximal park with random jitter. Robot starts from
+ * the beginning after each step it wasn't blocked in. Park times are in milliseconds of the modelling time
+ */
+public final class RetryPolicy {
+    /** robot spins a little, yields a little and then parks from 1 to 64 ms, so blocked robots hardly use CPU */
+    public static final RetryPolicy DEFAULT = new RetryPolicy(8, 4, 1, 64, 0.5);
+    /** robot always retries right away, as the robots of the original modelling did */
+    public static final RetryPolicy SPIN = new RetryPolicy(Integer.MAX_VALUE, 0, 1, 1, 0);
+
+    /** number of retries done right away */
+    private final int spins;
+    /** number of retries done after yielding the processor */
+    private final int yields;
+    /** park before the first parked retry */
+    private final long minParkMillis;
+    /** longest park */
+    private final long maxParkMillis;
+    /** part of the park that is random, from 0 to 1 */
+    private final double jitter;
+
+    /**
+     * @param spins number of retries done right away
+     * @param yields number of retries done after yielding the processor
+     * @param minParkMillis park before the first parked retry, doubled before each next one
+     * @param maxParkMillis longest park
+     * @param jitter part of the park that is random, from 0 to 1, so robots blocked together don't retry together
+     */
+    public RetryPolicy(int spins, int yields, long minParkMillis, long maxParkMillis, double jitter) {
+        if (spins < 0 || yields < 0) {
+            throw new IllegalArgumentException("Illegal number of retries: " + spins + " spins, " + yields + " yields");
+        }
+        if (minParkMillis < 1 || maxParkMillis < minParkMillis) {
+            throw new IllegalArgumentException("Illegal park: from " + minParkMillis + " to " + maxParkMillis);
+        }
+        if (!(jitter >= 0 && jitter <= 1)) {
+            throw new IllegalArgumentException("Illegal jitter: " + jitter + ". It must be from 0 to 1");
+        }
+        this.spins = spins;
+        this.yields = yields;
+        this.minParkMillis = minParkMillis;
+        this.maxParkMillis = maxParkMillis;
+        this.jitter = jitter;
+    }
+
+    /**
+     * @param policy policy written as spins,yields,minPark,maxPark with optional ,jitter, e.g. 8,4,1,64,0.5
+     * @return parsed policy
+     * @throws IllegalArgumentException if policy is written wrong
+     */
+    public static RetryPolicy parse(String policy) {
+        String[] values = policy.split(",");
+        if (values.length != 4 && values.length != 5) {
+            throw new IllegalArgumentException("Illegal retry policy: " + policy
+                    + ". It must be spins,yields,minPark,maxPark[,jitter]");
+        }
+        try {
+            return new RetryPolicy(Integer.parseInt(values[0].trim()), Integer.parseInt(values[1].trim()),
+                    Long.parseLong(values[2].trim()), Long.parseLong(values[3].trim()),
+                    values.length == 5 ? Double.parseDouble(values[4].trim()) : DEFAULT.jitter);
+        }
+        catch (NumberFormatException numberFormatException) {
+            throw (IllegalArgumentException)
+                    new IllegalArgumentException("Illegal retry policy: " + policy).initCause(numberFormatException);
+        }
+    }
+
+    public int getSpins() {
+        return spins;
+    }
+
+    public int getYields() {
+        return yields;
+    }
+
+    public long getMinParkMillis() {
+        return minParkMillis;
+    }
+
+    public long getMaxParkMillis() {
+        return maxParkMillis;
+    }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    /**
+     * @param parks number of the parks robot did since it was blocked
+     * @param random random number from 0 to 1
+     * @return time of the next park in milliseconds of the modelling time
+     */
+    public long parkMillis(int parks, double random) {
+        long park = parks >= 63 || minParkMillis > maxParkMillis >> parks ? maxParkMillis
+                : Math.min(minParkMillis << parks, maxParkMillis);
+        return Math.max(1, park - (long) (park * jitter * random));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof RetryPolicy)) return false;
+        RetryPolicy policy = (RetryPolicy) other;
+        return spins == policy.spins && yields == policy.yields && minParkMillis == policy.minParkMillis
+                && maxParkMillis == policy.maxParkMillis && Double.compare(jitter, policy.jitter) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 31 * spins + yields;
+        result = 31 * result + Long.hashCode(minParkMillis);
+        result = 31 * result + Long.hashCode(maxParkMillis);
+        return 31 * result + Double.hashCode(jitter);
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{spins=" + spins + ", yields=" + yields + ", park=" + minParkMillis + ".." + maxParkMillis
+                + ", jitter=" + jitter + '}';
+    }
+}
@@ -1,94 +1,284 @@
 package com.cyxoud.robots.entities;
 
-import java.util.logging.ConsoleHandler;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Represents robot
+ * Represents robot. Decisions are made by the strategy of the robot, the robot keeps the state the strategy needs
+ * between its steps and runs the steps on its own thread in real time
  */
-abstract public class Robot implements Strategic {
-    protected static final Logger logger = Logger.getLogger("com.cyxoud.robots.entities");
-    /** initialization of logger*/
-    static {
-        logger.setLevel(Level.FINER);
-        ConsoleHandler handler= new ConsoleHandler();
-        handler.setLevel(Level.FINER);
-        logger.addHandler(handler);
-    }
-    /** amount of full charge in percents */
-    private static final int FULL_CHARGE = 100;
-    /** default percent of charge. May be changed concurrently */
-    private int charge = 50;
+public class Robot implements Strategic, RobotView, Runnable {
+    /** returned by {@link #step()} when next step should be done right away */
+    public static final long CONTINUE = 0;
+    /** returned by {@link #step()} when robot can't progress until the state of its charger parts or neighbours changes */
+    public static final long BLOCKED = -1;
+    /** atomically changes charge of the robot */
+    private static final AtomicIntegerFieldUpdater<Robot> CHARGE =
+            AtomicIntegerFieldUpdater.newUpdater(Robot.class, "charge");
+    /** charge of the robot, initially the initial charge of the config. May be changed concurrently, only with
+     * compare-and-set */
+    private volatile int charge;
     /** strategy of the robot */
-    private Strategy strategy;
+    private final RobotStrategy strategy;
+    /** timing and charge constants of the modelling */
+    protected final SimulationConfig config;
     /** charger part located at the left side of the robot */
     protected ChargerPart leftChargerPart;
     /** charger part located at the right side of the robot */
     protected ChargerPart rightChargerPart;
-    /** shows if robot got left charger part */
-    protected boolean hasLeftChargerPart;
-    /** shows if robot got right charger part */
-    protected boolean hasRightChargerPart;
+    /** neighbour that shares the left charger part or null if it isn't set */
+    private Robot leftNeighbour;
+    /** neighbour that shares the right charger part or null if it isn't set */
+    private Robot rightNeighbour;
+    /** shows if robot collected the charger and its strategy is charging it. Changed only by the strategy */
+    private boolean charging;
+    /** shows if robot failed to take the left part and didn't take it since then. Changed only by the strategy */
+    private boolean leftAwaited;
+    /** shows if robot failed to take the right part and didn't take it since then. Changed only by the strategy */
+    private boolean rightAwaited;
+    /** stream of random numbers of the robot. Used only by the strategy of the robot, so it is never shared */
+    private final SplittableRandom random;
+    /** stream of the jitter of the parks before the retries. Kept apart, so retries don't shift the strategy draws */
+    private final SplittableRandom retryRandom;
+
+    /** number of times strategy of the robot woke up from waiting or spun while waiting for the charger parts */
+    private final AtomicLong wakeUps = new AtomicLong();
+    /** number of retries robot did since it was blocked. Changed only by the strategy */
+    private int blockedRetries;
+    /** number of retries robot did right away. Written only by the strategy */
+    private volatile long retrySpins;
+    /** number of retries robot did after yielding the processor. Written only by the strategy */
+    private volatile long retryYields;
+    /** number of retries robot did after parking. Written only by the strategy */
+    private volatile long retryParks;
+    /** total time robot parked before the retries in milliseconds of the modelling time */
+    private volatile long parkedMillis;
+    /** listeners of the robot's state changes */
+    private final List<RobotStateListener> stateListeners = new CopyOnWriteArrayList<>();
 
     /** index of the last robot created. Useful for logging/testing */
     private static int i;
     /** index of the current robot. Useful for logging/testing */
     private int curI;
 
+    /** Constructs robot with the default constants of the modelling
+     *  @param strategy strategy of the robot
+     *  @param leftChargerPart charger part at the left of the robot
+     *  @param rightChargerPart charger part at the right of the robot
+     * */
+    public Robot(RobotStrategy strategy, ChargerPart leftChargerPart, ChargerPart rightChargerPart) {
+        this(strategy, leftChargerPart, rightChargerPart, SimulationConfig.DEFAULT);
+    }
+
+    /** Constructs robot
+     *  @param strategy strategy of the robot
+     *  @param leftChargerPart charger part at the left of the robot
+     *  @param rightChargerPart charger part at the right of the robot
+     *  @param config timing and charge constants of the modelling
+     * */
+    public Robot(RobotStrategy strategy, ChargerPart leftChargerPart, ChargerPart rightChargerPart,
+                 SimulationConfig config) {
+        this(strategy, leftChargerPart, rightChargerPart, new SplittableRandom(), config);
+    }
+
     /** Constructs robot
      *  @param strategy strategy of the robot
      *  @param leftChargerPart charger part at the left of the robot
      *  @param rightChargerPart charger part at the right of the robot
+     *  @param random stream of random numbers of the robot. Same stream gives same decisions of the strategy
+     *  @param config timing and charge constants of the modelling
      * */
-    public Robot(Strategy strategy, ChargerPart leftChargerPart, ChargerPart rightChargerPart) {
+    public Robot(RobotStrategy strategy, ChargerPart leftChargerPart, ChargerPart rightChargerPart,
+                 SplittableRandom random, SimulationConfig config) {
+        this(strategy, leftChargerPart, rightChargerPart, random, new SplittableRandom(), config);
+    }
+
+    /** Constructs robot
+     *  @param strategy strategy of the robot
+     *  @param leftChargerPart charger part at the left of the robot
+     *  @param rightChargerPart charger part at the right of the robot
+     *  @param random stream of random numbers of the robot. Same stream gives same decisions of the strategy
+     *  @param retryRandom stream of the jitter of the parks before the retries. Same stream gives same parks
+     *  @param config timing and charge constants of the modelling
+     * */
+    public Robot(RobotStrategy strategy, ChargerPart leftChargerPart, ChargerPart rightChargerPart,
+                 SplittableRandom random, SplittableRandom retryRandom, SimulationConfig config) {
         this.strategy = strategy;
+        this.random = random;
+        this.retryRandom = retryRandom;
         this.leftChargerPart = leftChargerPart;
         this.rightChargerPart = rightChargerPart;
+        this.config = config;
+        charge = config.getInitialCharge();
         curI = i++;
     }
 
     /**
-     * Add amount of the charge if the robot is active, constructed charging and is not yet full charged
+     * Add amount of the charge if the robot is active, constructed charging and is not yet full charged.
+     * Charge never exceeds full charge
      * */
     public void beCharged() {
-        synchronized (this) {
-            if (isActive() && gatheredCharging() && !isFullCharged()) {
-                charge += Charger.charge();
-                logger.log(Level.FINE, "Robot" + curI + " charged by 10%. Current charge = " + charge);
-            }
+        int chargeBefore;
+        int chargeAfter;
+        do {
+            chargeBefore = charge;
+            if (chargeBefore == 0 || chargeBefore == config.getFullCharge() || !gatheredCharging()) return;
+            chargeAfter = Math.min(chargeBefore + config.getChargeAmount(), config.getFullCharge());
+        } while (!CHARGE.compareAndSet(this, chargeBefore, chargeAfter));
+
+        publishStateChange(StateChange.CHARGED, chargeAfter);
+        if (chargeAfter == config.getFullCharge()) {
+            publishStateChange(StateChange.FULL_CHARGED, chargeAfter);
         }
     }
 
     /**
      *  Subtract amount of the discharge charge if the robot is active
-     *  if charge percent is equal to zero then left and right charge parts if robot had them are freed
+     *  if charge percent is equal to zero then left and right charge parts if robot had them are freed.
+     *  Only the discharge that reached zero frees them, so it happens exactly once
      */
     public void beDischarged() {
-        synchronized (this) {
-            if (isActive()) {
-                charge -= Discharge.ONE_STEP_DISCHARGE;
-                if (charge == 0) {
-                    tryFreeLeftChargerPart();
-                    tryFreeRightChargerPart();
-                }
-                logger.log(Level.FINE, "Robot" + curI + " was discharged by 10%. Current charge = " + charge);
-            }
+        int chargeBefore;
+        int chargeAfter;
+        do {
+            chargeBefore = charge;
+            if (chargeBefore == 0) return;
+            chargeAfter = Math.max(chargeBefore - config.getOneStepDischarge(), 0);
+        } while (!CHARGE.compareAndSet(this, chargeBefore, chargeAfter));
+
+        if (chargeAfter == 0) {
+            tryFreeLeftChargerPart();
+            tryFreeRightChargerPart();
+            leftChargerPart.leaveQueue(this);
+            rightChargerPart.leaveQueue(this);
+        }
+        publishStateChange(StateChange.DISCHARGED, chargeAfter);
+        if (chargeAfter == 0) {
+            publishStateChange(StateChange.DISCONNECTED, chargeAfter);
+        }
+    }
+
+    /**
+     * Subscribes listener to the state changes of the robot
+     * @param listener listener of the state changes
+     */
+    public void addStateListener(RobotStateListener listener) {
+        stateListeners.add(listener);
+    }
+
+    /**
+     * Unsubscribes listener from the state changes of the robot
+     * @param listener listener of the state changes
+     */
+    public void removeStateListener(RobotStateListener listener) {
+        stateListeners.remove(listener);
+    }
+
+    /**
+     * Notifies all the listeners about state change
+     * @param change kind of the state change
+     * @param chargeAfter charge of the robot right after the change
+     */
+    protected void publishStateChange(StateChange change, int chargeAfter) {
+        for (RobotStateListener listener : stateListeners) {
+            listener.onStateChange(this, change, chargeAfter);
         }
     }
 
     /**
      * return true if robot is active and false otherwise
      */
-    public synchronized boolean isActive() {
+    public boolean isActive() {
         return charge != 0;
     }
 
     /**
      * return true if robot is full charged and false otherwise
      */
-    public synchronized boolean isFullCharged() {
-        return charge == FULL_CHARGE;
+    public boolean isFullCharged() {
+        return charge == config.getFullCharge();
+    }
+
+    /**
+     * @return true if robot gathered the charger and its strategy is charging it
+     */
+    @Override
+    public boolean isCharging() {
+        return charging;
+    }
+
+    @Override
+    public void setCharging(boolean charging) {
+        this.charging = charging;
+    }
+
+    /**
+     * @return true if next steps of the robot depend only on its state and the state of the table,
+     * false if they depend on random numbers
+     */
+    public boolean isPredictable() {
+        return strategy.isPredictable(this);
+    }
+
+    /**
+     * Does one step of the strategy of the robot without blocking
+     * @return time in milliseconds to wait before the next step, {@link #CONTINUE} or {@link #BLOCKED}
+     */
+    @Override
+    public long step() {
+        return strategy.step(this);
+    }
+
+    /**
+     * return true if both charge part are available(free for the robot or already taken by it) and false otherwise
+     */
+    @Override
+    public boolean checkChargePartsAvailability() {
+        return (hasRightChargerPart() || rightChargerPart.isFreeFor(this)) &&
+                (hasLeftChargerPart() || leftChargerPart.isFreeFor(this));
+    }
+
+    /**
+     * Blocks current thread until both charger parts are available. Robot waits on the part that is busy and
+     * is woken only when that part is freed
+     * @throws InterruptedException if current thread was interrupted while waiting
+     */
+    @Override
+    public void awaitChargePartsAvailability() throws InterruptedException {
+        while (!checkChargePartsAvailability()) {
+            if (!hasLeftChargerPart() && !leftChargerPart.isFreeFor(this)) {
+                leftChargerPart.awaitFreeFor(this);
+            }
+            else {
+                rightChargerPart.awaitFreeFor(this);
+            }
+            countWakeUp();
+        }
+    }
+
+    /**
+     * Blocks current thread until both charger parts are available or timeout elapses
+     * @param timeoutMillis maximum time to wait in milliseconds
+     * @return true if both charger parts are available and false if timeout elapsed
+     * @throws InterruptedException if current thread was interrupted while waiting
+     */
+    public boolean awaitChargePartsAvailability(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!checkChargePartsAvailability()) {
+            long leftMillis = deadline - System.currentTimeMillis();
+            if (leftMillis <= 0) return false;
+            if (!hasLeftChargerPart() && !leftChargerPart.isFreeFor(this)) {
+                leftChargerPart.awaitFreeFor(this, leftMillis);
+            }
+            else {
+                rightChargerPart.awaitFreeFor(this, leftMillis);
+            }
+            countWakeUp();
+        }
+        return true;
     }
 
     /**
@@ -99,9 +289,11 @@ abstract public class Robot implements Strategic {
         if (isActive()) {
             successfullyTaken = leftChargerPart.tryBeTaken(this);
             if (successfullyTaken) {
-                hasLeftChargerPart = true;
-                logger.log(Level.FINE, "Robot" + curI + " got left charger part: " + leftChargerPart +
-                        ". Now it has " + (hasRightChargerPart ? rightChargerPart + " and " : "") + leftChargerPart);
+                leftAwaited = false;
+                publishStateChange(StateChange.LEFT_PART_TAKEN, getCharge());
+            }
+            else if (!hasLeftChargerPart()) {
+                awaitLeftChargerPart();
             }
         } else return false;
 
@@ -117,15 +309,97 @@ abstract public class Robot implements Strategic {
         if (isActive()) {
             successfullyTaken = rightChargerPart.tryBeTaken(this);
             if (successfullyTaken) {
-                hasRightChargerPart = true;
-                logger.log(Level.FINE, "Robot" + curI + " got right charger part: " + rightChargerPart +
-                        ". Now it has " + (hasLeftChargerPart ? leftChargerPart + " and " : "") + rightChargerPart);
+                rightAwaited = false;
+                publishStateChange(StateChange.RIGHT_PART_TAKEN, getCharge());
+            }
+            else if (!hasRightChargerPart()) {
+                awaitRightChargerPart();
             }
         } else return false;
 
         return successfullyTaken;
     }
 
+    /**
+     * Tries to take both charger parts the way acquisition of the config tells: one after another keeping
+     * the part that was taken, in the order of the ranks of the parts or all or nothing
+     * @return true if robot gathered the charger
+     */
+    @Override
+    public boolean tryTakeChargerParts() {
+        boolean leftFirst = !rightChargerPart.precedes(leftChargerPart);
+        switch (config.getPartAcquisition()) {
+            case ORDERED:
+                // robot never keeps the part of the higher rank while it waits for the other one
+                if (leftFirst) {
+                    if (hasLeftChargerPart() || tryTakeLeftChargerPart()) tryTakeRightChargerPart();
+                    else tryFreeRightChargerPart();
+                }
+                else {
+                    if (hasRightChargerPart() || tryTakeRightChargerPart()) tryTakeLeftChargerPart();
+                    else tryFreeLeftChargerPart();
+                }
+                break;
+            case ALL_OR_NOTHING:
+                // robot doesn't try to take the busy part, but waits for it all the same
+                if (!hasLeftChargerPart() && !leftChargerPart.isFreeFor(this)) awaitLeftChargerPart();
+                if (!hasRightChargerPart() && !rightChargerPart.isFreeFor(this)) awaitRightChargerPart();
+                if (checkChargePartsAvailability()) {
+                    if (leftFirst) {
+                        tryTakeLeftChargerPart();
+                        tryTakeRightChargerPart();
+                    }
+                    else {
+                        tryTakeRightChargerPart();
+                        tryTakeLeftChargerPart();
+                    }
+                }
+                if (!gatheredCharging()) {
+                    tryFreeLeftChargerPart();
+                    tryFreeRightChargerPart();
+                }
+                break;
+            default:
+                tryTakeLeftChargerPart();
+                tryTakeRightChargerPart();
+        }
+        return gatheredCharging();
+    }
+
+    /**
+     * Blocks current thread until robot gathers the charger or timeout elapses. Robot waits without spinning for
+     * the busy parts between the attempts. Used only in real time
+     * @param timeoutMillis maximum time to wait in milliseconds
+     * @return true if robot gathered the charger and false if timeout elapsed
+     * @throws InterruptedException if current thread was interrupted while waiting
+     */
+    public boolean takeChargerParts(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!tryTakeChargerParts()) {
+            long leftMillis = deadline - System.currentTimeMillis();
+            if (leftMillis <= 0 || !isActive() || !awaitChargePartsAvailability(leftMillis)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Publishes that robot waits for the left part, once until robot takes it
+     */
+    private void awaitLeftChargerPart() {
+        if (leftAwaited) return;
+        leftAwaited = true;
+        publishStateChange(StateChange.LEFT_PART_AWAITED, getCharge());
+    }
+
+    /**
+     * Publishes that robot waits for the right part, once until robot takes it
+     */
+    private void awaitRightChargerPart() {
+        if (rightAwaited) return;
+        rightAwaited = true;
+        publishStateChange(StateChange.RIGHT_PART_AWAITED, getCharge());
+    }
+
     /**
      * @return  true if left charger part was successfully freed, if robot had left charger part
      * and false otherwise
@@ -133,8 +407,7 @@ abstract public class Robot implements Strategic {
     public boolean tryFreeLeftChargerPart() {
         boolean successfullyFreed = leftChargerPart.tryBeFreed(this);
         if (successfullyFreed) {
-            hasLeftChargerPart = false;
-            logger.log(Level.FINE, "Robot" + curI + " freed left charger part: " + leftChargerPart);
+            publishStateChange(StateChange.LEFT_PART_FREED, getCharge());
         }
 
         return successfullyFreed;
@@ -147,22 +420,166 @@ abstract public class Robot implements Strategic {
     public boolean tryFreeRightChargerPart() {
         boolean successfullyFreed = rightChargerPart.tryBeFreed(this);
         if (successfullyFreed) {
-            hasRightChargerPart = false;
-            logger.log(Level.FINE, "Robot" + curI + " freed right charger part: " + rightChargerPart);
+            publishStateChange(StateChange.RIGHT_PART_FREED, getCharge());
         }
 
         return successfullyFreed;
     }
 
-    public synchronized int getCharge() {
+    /**
+     * Frees charger part located at the left side of the robot in favour of its left neighbour
+     * @return true if charger part was freed
+     */
+    @Override
+    public boolean yieldLeftChargerPart() {
+        if (!tryFreeLeftChargerPart()) return false;
+        publishStateChange(StateChange.LEFT_PART_YIELDED, getCharge());
+        return true;
+    }
+
+    /**
+     * Frees charger part located at the right side of the robot in favour of its right neighbour
+     * @return true if charger part was freed
+     */
+    @Override
+    public boolean yieldRightChargerPart() {
+        if (!tryFreeRightChargerPart()) return false;
+        publishStateChange(StateChange.RIGHT_PART_YIELDED, getCharge());
+        return true;
+    }
+
+    public int getCharge() {
         return charge;
     }
 
+    @Override
+    public Robot getLeftNeighbour() {
+        return leftNeighbour;
+    }
+
+    public void setLeftNeighbour(Robot leftNeighbour) {
+        this.leftNeighbour = leftNeighbour;
+    }
+
+    @Override
+    public Robot getRightNeighbour() {
+        return rightNeighbour;
+    }
+
+    public void setRightNeighbour(Robot rightNeighbour) {
+        this.rightNeighbour = rightNeighbour;
+    }
+
+    @Override
+    public SplittableRandom getRandom() {
+        return random;
+    }
+
+    public ChargerPart getLeftChargerPart() {
+        return leftChargerPart;
+    }
+
+    public ChargerPart getRightChargerPart() {
+        return rightChargerPart;
+    }
+
+    /**
+     * @return true if robot owns charger part located at its left side
+     */
+    public boolean hasLeftChargerPart() {
+        return leftChargerPart.isOwnedBy(this);
+    }
+
+    /**
+     * @return true if robot owns charger part located at its right side
+     */
+    public boolean hasRightChargerPart() {
+        return rightChargerPart.isOwnedBy(this);
+    }
+
     /**
      * @return true if robot has both right and left charger parts
      */
     public boolean gatheredCharging() {
-        return hasLeftChargerPart && hasRightChargerPart;
+        return hasLeftChargerPart() && hasRightChargerPart();
+    }
+
+    /**
+     * Counts one wake up or spin iteration of the robot's strategy while it waits for the charger parts
+     */
+    protected void countWakeUp() {
+        wakeUps.incrementAndGet();
+    }
+
+    /**
+     * @return number of times strategy of the robot woke up or spun while waiting for the charger parts
+     */
+    public long getWakeUpCount() {
+        return wakeUps.get();
+    }
+
+    /**
+     * Spins, yields or parks before the retry as the retry policy of the config tells. Retries are counted
+     * from the first step robot was blocked in
+     * @throws InterruptedException if current thread was interrupted while parking
+     */
+    @Override
+    public void backOff() throws InterruptedException {
+        RetryPolicy policy = config.getRetryPolicy();
+        int retry = blockedRetries;
+        if (blockedRetries < Integer.MAX_VALUE) blockedRetries++;
+        if (retry < policy.getSpins()) {
+            retrySpins++;
+            return;
+        }
+        if (retry - policy.getSpins() < policy.getYields()) {
+            retryYields++;
+            Thread.yield();
+            return;
+        }
+        long park = policy.parkMillis(retry - policy.getSpins() - policy.getYields(), retryRandom.nextDouble());
+        retryParks++;
+        parkedMillis += park;
+        config.sleep(park);
+    }
+
+    /**
+     * @return number of retries robot did right away
+     */
+    public long getRetrySpins() {
+        return retrySpins;
+    }
+
+    /**
+     * @return number of retries robot did after yielding the processor
+     */
+    public long getRetryYields() {
+        return retryYields;
+    }
+
+    /**
+     * @return number of retries robot did after parking
+     */
+    public long getRetryParks() {
+        return retryParks;
+    }
+
+    /**
+     * @return total time robot parked before the retries in milliseconds of the modelling time
+     */
+    public long getParkedMillis() {
+        return parkedMillis;
+    }
+
+    /**
+     * @return timing and charge constants of the modelling
+     */
+    public SimulationConfig getConfig() {
+        return config;
+    }
+
+    public RobotStrategy getStrategy() {
+        return strategy;
     }
 
     public int getCurI() {
@@ -173,15 +590,61 @@ abstract public class Robot implements Strategic {
     public String toString() {
         return "Robot{" +
                 ", charge=" + charge +
-                ", strategy=" + strategy +
+                ", strategy=" + strategy.getName() +
                 ", leftChargerPart=" + leftChargerPart +
                 ", rightChargerPart=" + rightChargerPart +
-                ", hasLeftChargerPart=" + hasLeftChargerPart +
-                ", hasRightChargerPart=" + hasRightChargerPart +
+                ", hasLeftChargerPart=" + hasLeftChargerPart() +
+                ", hasRightChargerPart=" + hasRightChargerPart() +
                 ", curI=" + curI +
                 '}';
     }
 
+    /**
+     * @return the robot itself, it runs its strategy in real time
+     */
+    @Override
+    public Runnable strategy() {
+        return this;
+    }
+
+    /**
+     * Actions of the robot in real time. While robot's strategy thread is not interrupted the robot does the steps
+     * of its strategy, sleeps the time returned by the step scaled by the time scale or waits for progress
+     * if it is blocked.
+     * Before exiting robot frees all the charger parts it had
+     */
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long delay = step();
+                if (delay != BLOCKED) {
+                    blockedRetries = 0;
+                }
+                if (delay > 0) {
+                    config.sleep(delay);
+                }
+                else if (delay == BLOCKED) {
+                    awaitProgress();
+                }
+            }
+        } catch (InterruptedException ex) {
+        }
+        finally {
+            tryFreeLeftChargerPart();
+            tryFreeRightChargerPart();
+        }
+    }
+
+    /**
+     * Waits in real time after the step of the strategy returned {@link #BLOCKED} as the strategy decides
+     * @throws InterruptedException if current thread was interrupted while waiting
+     */
+    protected void awaitProgress() throws InterruptedException {
+        countWakeUp();
+        strategy.awaitProgress(this);
+    }
+
     /**
      * Get access to discharge connected with current robot
      * @param robotThread thread of robot strategy
@@ -195,14 +658,6 @@ abstract public class Robot implements Strategic {
      * Represents actions of discharge
      */
     private class Discharge implements Runnable {
-        /**
-         * amount of beDischarged each period of time
-         */
-        public static final int ONE_STEP_DISCHARGE = 10;
-        /**
-         * delay time in milliseconds between robot is discharged
-         */
-        private final int dischargeDelayTime = 1000;
         private Thread robotThread;
 
         public Discharge(Thread robotThread) {
@@ -217,7 +672,7 @@ abstract public class Robot implements Strategic {
         public void run() {
             try {
                 while (isActive() && !Thread.currentThread().isInterrupted()) {
-                    Thread.sleep(dischargeDelayTime);
+                    config.sleep(config.getDischargeDelayTime());
                     beDischarged();
                 }
                 robotThread.interrupt();
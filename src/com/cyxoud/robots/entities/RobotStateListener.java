@@ -0,0 +1,14 @@
+package com.cyxoud.robots.entities;
+
+/**
+ * Represents listener of the robot's state changes
+ */
+public interface RobotStateListener {
+    /**
+     * Called by the robot after its state was changed. May be called concurrently from different robot threads
+     * @param robot robot which state was changed
+     * @param change kind of the state change
+     * @param charge charge of the robot right after the change
+     */
+    void onStateChange(Robot robot, StateChange change, int charge);
+}
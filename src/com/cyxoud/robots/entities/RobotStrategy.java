@@ -0,0 +1,42 @@
+package com.cyxoud.robots.entities;
+
+/**
+ * Strategy of the robot as a stateless decision function over the robot view. The same strategy runs on robot threads
+ * in real time and on the discrete-event modelling in virtual time, since it never sleeps or blocks in its step.
+ * <p>
+ * Built-in strategies are the constants of {@link Strategy}. Other strategies are found by {@link StrategyRegistry}
+ * with {@link java.util.ServiceLoader}: implementation is listed in
+ * {@code META-INF/services/com.cyxoud.robots.entities.RobotStrategy} and has a public no-argument constructor
+ */
+public interface RobotStrategy {
+    /**
+     * @return unique name of the strategy, e.g. greedy
+     */
+    String getName();
+
+    /**
+     * Does one step of the strategy without blocking
+     * @param robot robot that does the step
+     * @return time in milliseconds to wait before the next step, {@link Robot#CONTINUE} or {@link Robot#BLOCKED}
+     */
+    long step(RobotView robot);
+
+    /**
+     * @param robot robot of the strategy
+     * @return true if next steps of the robot depend only on its state and the state of the table,
+     * false if they depend on random numbers
+     */
+    default boolean isPredictable(RobotView robot) {
+        return true;
+    }
+
+    /**
+     * Waits in real time after the step returned {@link Robot#BLOCKED}. By default robot backs off as the retry
+     * policy of its config tells, so blocked robots don't spin on the shared charger parts
+     * @param robot robot of the strategy
+     * @throws InterruptedException if current thread was interrupted while waiting
+     */
+    default void awaitProgress(RobotView robot) throws InterruptedException {
+        robot.backOff();
+    }
+}
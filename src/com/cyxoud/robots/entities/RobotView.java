@@ -0,0 +1,103 @@
+package com.cyxoud.robots.entities;
+
+import java.util.SplittableRandom;
+
+/**
+ * What the strategy sees of the robot and can do with it. Strategies keep no state of their own: everything
+ * a strategy remembers between its steps is kept by the robot behind the view
+ */
+public interface RobotView {
+    int getCharge();
+
+    boolean isActive();
+
+    boolean isFullCharged();
+
+    boolean hasLeftChargerPart();
+
+    boolean hasRightChargerPart();
+
+    /**
+     * @return true if robot has both right and left charger parts
+     */
+    boolean gatheredCharging();
+
+    /**
+     * @return true if both charger parts are free or already taken by the robot
+     */
+    boolean checkChargePartsAvailability();
+
+    /**
+     * Blocks current thread until both charger parts are available. Used only by the strategies running in real time
+     * @throws InterruptedException if current thread was interrupted while waiting
+     */
+    void awaitChargePartsAvailability() throws InterruptedException;
+
+    /**
+     * Waits before the robot retries to gather the charger as the retry policy of the config tells: spins, yields
+     * or parks. Used only by the strategies running in real time
+     * @throws InterruptedException if current thread was interrupted while parking
+     */
+    void backOff() throws InterruptedException;
+
+    boolean tryTakeLeftChargerPart();
+
+    boolean tryTakeRightChargerPart();
+
+    /**
+     * Tries to take both charger parts the way {@link SimulationConfig#getPartAcquisition()} tells
+     * @return true if robot gathered the charger
+     */
+    boolean tryTakeChargerParts();
+
+    boolean tryFreeLeftChargerPart();
+
+    boolean tryFreeRightChargerPart();
+
+    /**
+     * Frees charger part located at the left side of the robot in favour of its left neighbour
+     * @return true if charger part was freed
+     */
+    boolean yieldLeftChargerPart();
+
+    /**
+     * Frees charger part located at the right side of the robot in favour of its right neighbour
+     * @return true if charger part was freed
+     */
+    boolean yieldRightChargerPart();
+
+    /**
+     * Adds charge if robot gathered the charger
+     */
+    void beCharged();
+
+    /**
+     * @return true if strategy marked the robot as charging
+     */
+    boolean isCharging();
+
+    /**
+     * @param charging true if robot gathered the charger and its strategy is charging it
+     */
+    void setCharging(boolean charging);
+
+    /**
+     * @return neighbour that shares charger part at the left side of the robot or null if it isn't set
+     */
+    RobotView getLeftNeighbour();
+
+    /**
+     * @return neighbour that shares charger part at the right side of the robot or null if it isn't set
+     */
+    RobotView getRightNeighbour();
+
+    /**
+     * @return stream of random numbers of the robot. Same stream gives same decisions
+     */
+    SplittableRandom getRandom();
+
+    /**
+     * @return timing and charge constants of the modelling
+     */
+    SimulationConfig getConfig();
+}
@@ -0,0 +1,375 @@
+package com.cyxoud.robots.entities;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable timing and charge constants of the modelling shared by all the robots of the table. Times are in
+ * milliseconds of the modelling time. In real time the modelling time runs faster than the wall clock by
+ * the time scale, so the relative timings of the robots stay the same at any speed. Virtual time ignores the scale.
+ * <p>
+ * Each {@code with} method returns a copy with one constant changed, e.g.
+ * {@code SimulationConfig.DEFAULT.withTimeScale(100).withChargeAmount(20)}
+ */
+public final class SimulationConfig {
+    /** constants of the original modelling in real time */
+    public static final SimulationConfig DEFAULT = new SimulationConfig(100, 50, 10, 500, 10, 1000, 60, 500, 200,
+            100, 300, 1, PartAcquisition.ONE_AT_A_TIME, false, RetryPolicy.DEFAULT, false);
+
+    /** amount of full charge. Charges are kept in one byte of the trace, so it doesn't exceed 127 */
+    private final int fullCharge;
+    /** charge of the robots at the start of the modelling */
+    private final int initialCharge;
+    /** amount of charge added by the charger each charge delay time */
+    private final int chargeAmount;
+    /** period of time between each charge */
+    private final long chargeDelayTime;
+    /** amount of charge subtracted each discharge delay time */
+    private final int oneStepDischarge;
+    /** period of time between each discharge */
+    private final long dischargeDelayTime;
+    /** charge below which robot with greedy strategy tries to take the charger */
+    private final int greedyChargeThreshold;
+    /** delay time between checks of the charge of the robot with greedy strategy */
+    private final long greedyDelayTime;
+    /** sleeping time of the robot with gentleman strategy after giving neighbour one of the parts */
+    private final long gentlemanlySleepTime;
+    /** minimal sleeping time of the robot with random strategy after being charged */
+    private final long randomMinSleep;
+    /** maximal sleeping time of the robot with random strategy after being charged */
+    private final long randomMaxSleep;
+    /** how many times the modelling time runs faster than the wall clock in real time */
+    private final double timeScale;
+    /** how robots take the two charger parts */
+    private final PartAcquisition partAcquisition;
+    /** shows if charger parts are given to the robots in the order of their attempts */
+    private final boolean fairChargerParts;
+    /** how robots blocked in real time retry */
+    private final RetryPolicy retryPolicy;
+    /** shows if real time modelling finishes as non terminating when the table settles into a steady state */
+    private final boolean steadyStateSampled;
+
+    private SimulationConfig(int fullCharge, int initialCharge, int chargeAmount, long chargeDelayTime,
+                             int oneStepDischarge, long dischargeDelayTime, int greedyChargeThreshold,
+                             long greedyDelayTime, long gentlemanlySleepTime, long randomMinSleep,
+                             long randomMaxSleep, double timeScale, PartAcquisition partAcquisition,
+                             boolean fairChargerParts, RetryPolicy retryPolicy, boolean steadyStateSampled) {
+        if (fullCharge < 1 || fullCharge > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Illegal full charge: " + fullCharge + ". It must be from 1 to 127");
+        }
+        if (initialCharge < 1 || initialCharge > fullCharge) {
+            throw new IllegalArgumentException("Illegal initial charge: " + initialCharge);
+        }
+        if (chargeAmount < 1 || oneStepDischarge < 1) {
+            throw new IllegalArgumentException("Illegal charge step: charge and discharge must be positive");
+        }
+        if (chargeDelayTime < 1 || dischargeDelayTime < 1 || greedyDelayTime < 1 || gentlemanlySleepTime < 1) {
+            throw new IllegalArgumentException("Illegal delay time: delay times must be positive");
+        }
+        if (randomMinSleep < 0 || randomMaxSleep < randomMinSleep || randomMaxSleep >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Illegal sleeping time of the random strategy: from " + randomMinSleep
+                    + " to " + randomMaxSleep);
+        }
+        if (!(timeScale > 0) || Double.isInfinite(timeScale)) {
+            throw new IllegalArgumentException("Illegal time scale: " + timeScale);
+        }
+        if (partAcquisition == null) {
+            throw new IllegalArgumentException("Illegal acquisition of the charger parts: null");
+        }
+        // all-or-nothing robot never tries to take the busy part, so it never queues for the fair part. Queueing
+        // for both parts would deadlock the ring: each robot would be first for a part it doesn't take
+        if (fairChargerParts && partAcquisition == PartAcquisition.ALL_OR_NOTHING) {
+            throw new IllegalArgumentException("Illegal acquisition of the charger parts: fair charger parts can't be"
+                    + " taken all or nothing");
+        }
+        if (retryPolicy == null) {
+            throw new IllegalArgumentException("Illegal retry policy: null");
+        }
+        this.fullCharge = fullCharge;
+        this.initialCharge = initialCharge;
+        this.chargeAmount = chargeAmount;
+        this.chargeDelayTime = chargeDelayTime;
+        this.oneStepDischarge = oneStepDischarge;
+        this.dischargeDelayTime = dischargeDelayTime;
+        this.greedyChargeThreshold = greedyChargeThreshold;
+        this.greedyDelayTime = greedyDelayTime;
+        this.gentlemanlySleepTime = gentlemanlySleepTime;
+        this.randomMinSleep = randomMinSleep;
+        this.randomMaxSleep = randomMaxSleep;
+        this.timeScale = timeScale;
+        this.partAcquisition = partAcquisition;
+        this.fairChargerParts = fairChargerParts;
+        this.retryPolicy = retryPolicy;
+        this.steadyStateSampled = steadyStateSampled;
+    }
+
+    /**
+     * @param robots robots of the table
+     * @return constants shared by the robots of the table or default constants if there are no robots
+     */
+    public static SimulationConfig of(List<Robot> robots) {
+        return robots.isEmpty() ? DEFAULT : robots.get(0).getConfig();
+    }
+
+    public int getFullCharge() {
+        return fullCharge;
+    }
+
+    public int getInitialCharge() {
+        return initialCharge;
+    }
+
+    public int getChargeAmount() {
+        return chargeAmount;
+    }
+
+    public long getChargeDelayTime() {
+        return chargeDelayTime;
+    }
+
+    public int getOneStepDischarge() {
+        return oneStepDischarge;
+    }
+
+    public long getDischargeDelayTime() {
+        return dischargeDelayTime;
+    }
+
+    public int getGreedyChargeThreshold() {
+        return greedyChargeThreshold;
+    }
+
+    public long getGreedyDelayTime() {
+        return greedyDelayTime;
+    }
+
+    public long getGentlemanlySleepTime() {
+        return gentlemanlySleepTime;
+    }
+
+    public long getRandomMinSleep() {
+        return randomMinSleep;
+    }
+
+    public long getRandomMaxSleep() {
+        return randomMaxSleep;
+    }
+
+    public double getTimeScale() {
+        return timeScale;
+    }
+
+    public PartAcquisition getPartAcquisition() {
+        return partAcquisition;
+    }
+
+    public boolean isFairChargerParts() {
+        return fairChargerParts;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public boolean isSteadyStateSampled() {
+        return steadyStateSampled;
+    }
+
+    /**
+     * @param fullCharge amount of full charge. Initial charge is lowered to it if it is higher
+     */
+    public SimulationConfig withFullCharge(int fullCharge) {
+        return new SimulationConfig(fullCharge, Math.min(initialCharge, fullCharge), chargeAmount, chargeDelayTime,
+                oneStepDischarge, dischargeDelayTime, greedyChargeThreshold, greedyDelayTime, gentlemanlySleepTime,
+                randomMinSleep, randomMaxSleep, timeScale, partAcquisition, fairChargerParts, retryPolicy,
+                steadyStateSampled);
+    }
+
+    public SimulationConfig withInitialCharge(int initialCharge) {
+        return new SimulationConfig(fullCharge, initialCharge, chargeAmount, chargeDelayTime, oneStepDischarge,
+                dischargeDelayTime, greedyChargeThreshold, greedyDelayTime, gentlemanlySleepTime, randomMinSleep,
+                randomMaxSleep, timeScale, partAcquisition, fairChargerParts, retryPolicy,
+                steadyStateSampled);
+    }
+
+    public SimulationConfig withChargeAmount(int chargeAmount) {
+        return new SimulationConfig(fullCharge, initialCharge, chargeAmount, chargeDelayTime, oneStepDischarge,
+                dischargeDelayTime, greedyChargeThreshold, greedyDelayTime, gentlemanlySleepTime, randomMinSleep,
+                randomMaxSleep, timeScale, partAcquisition, fairChargerParts, retryPolicy,
+                steadyStateSampled);
+    }
+
+    public SimulationConfig withChargeDelayTime(long chargeDelayTime) {
+        return new SimulationConfig(fullCharge, initialCharge, chargeAmount, chargeDelayTime, oneStepDischarge,
+                dischargeDelayTime, greedyChargeThreshold, greedyDelayTime, gentlemanlySleepTime, randomMinSleep,
+                randomMaxSleep, timeScale, partAcquisition, fairChargerParts, retryPolicy,
+                steadyStateSampled);
+    }
+
+    public SimulationConfig withOneStepDischarge(int oneStepDischarge) {
+        return new SimulationConfig(fullCharge, initialCharge, chargeAmount, chargeDelayTime, oneStepDischarge,
+                dischargeDelayTime, greedyChargeThreshold, greedyDelayTime, gentlemanlySleepTime, randomMinSleep,
+                randomMaxSleep, timeScale, partAcquisition, fairChargerParts, retryPolicy,
+                steadyStateSampled);
+    }
+
+    public SimulationConfig withDischargeDelayTime(long dischargeDelayTime) {
+        return new SimulationConfig(fullCharge, initialCharge, chargeAmount, chargeDelayTime, oneStepDischarge,
+                dischargeDelayTime, greedyChargeThreshold, greedyDelayTime, gentlemanlySleepTime, randomMinSleep,
+                randomMaxSleep, timeScale, partAcquisition, fairChargerParts, retryPolicy,
+                steadyStateSampled);
+    }
+
+    public SimulationConfig withGreedyChargeThreshold(int greedyChargeThreshold) {
+        return new SimulationConfig(fullCharge, initialCharge, chargeAmount, chargeDelayTime, oneStepDischarge,
+                dischargeDelayTime, greedyChargeThreshold, greedyDelayTime, gentlemanlySleepTime, randomMinSleep,
+                randomMaxSleep, timeScale, partAcquisition, fairChargerParts, retryPolicy,
+                steadyStateSampled);
+    }
+
+    public SimulationConfig withGreedyDelayTime(long greedyDelayTime) {
+        return new SimulationConfig(fullCharge, initialCharge, chargeAmount, chargeDelayTime, oneStepDischarge,
+                dischargeDelayTime, greedyChargeThreshold, greedyDelayTime, gentlemanlySleepTime, randomMinSleep,
+                randomMaxSleep, timeScale, partAcquisition, fairChargerParts, retryPolicy,
+                steadyStateSampled);
+    }
+
+    public SimulationConfig withGentlemanlySleepTime(long gentlemanlySleepTime) {
+        return new SimulationConfig(fullCharge, initialCharge, chargeAmount, chargeDelayTime, oneStepDischarge,
+                dischargeDelayTime, greedyChargeThreshold, greedyDelayTime, gentlemanlySleepTime, randomMinSleep,
+                randomMaxSleep, timeScale, partAcquisition, fairChargerParts, retryPolicy,
+                steadyStateSampled);
+    }
+
+    /**
+     * @param randomMinSleep minimal sleeping time of the robot with random strategy after being charged
+     * @param randomMaxSleep maximal sleeping time of the robot with random strategy after being charged
+     */
+    public SimulationConfig withRandomSleep(long randomMinSleep, long randomMaxSleep) {
+        return new SimulationConfig(fullCharge, initialCharge, chargeAmount, chargeDelayTime, oneStepDischarge,
+                dischargeDelayTime, greedyChargeThreshold, greedyDelayTime, gentlemanlySleepTime, randomMinSleep,
+                randomMaxSleep, timeScale, partAcquisition, fairChargerParts, retryPolicy,
+                steadyStateSampled);
+    }
+
+    /**
+     * @param timeScale how many times the modelling time runs faster than the wall clock in real time,
+     *                  e.g. 100 runs a second of the modelling in 10 milliseconds
+     */
+    public SimulationConfig withTimeScale(double timeScale) {
+        return new SimulationConfig(fullCharge, initialCharge, chargeAmount, chargeDelayTime, oneStepDischarge,
+                dischargeDelayTime, greedyChargeThreshold, greedyDelayTime, gentlemanlySleepTime, randomMinSleep,
+                randomMaxSleep, timeScale, partAcquisition, fairChargerParts, retryPolicy,
+                steadyStateSampled);
+    }
+
+    /**
+     * @param partAcquisition how robots take the two charger parts
+     */
+    public SimulationConfig withPartAcquisition(PartAcquisition partAcquisition) {
+        return new SimulationConfig(fullCharge, initialCharge, chargeAmount, chargeDelayTime, oneStepDischarge,
+                dischargeDelayTime, greedyChargeThreshold, greedyDelayTime, gentlemanlySleepTime, randomMinSleep,
+                randomMaxSleep, timeScale, partAcquisition, fairChargerParts, retryPolicy,
+                steadyStateSampled);
+    }
+
+    /**
+     * @param fairChargerParts true if charger parts are given to the robots in the order of their attempts.
+     *                         Fair parts can't be taken {@link PartAcquisition#ALL_OR_NOTHING all or nothing}
+     */
+    public SimulationConfig withFairChargerParts(boolean fairChargerParts) {
+        return new SimulationConfig(fullCharge, initialCharge, chargeAmount, chargeDelayTime, oneStepDischarge,
+                dischargeDelayTime, greedyChargeThreshold, greedyDelayTime, gentlemanlySleepTime, randomMinSleep,
+                randomMaxSleep, timeScale, partAcquisition, fairChargerParts, retryPolicy,
+                steadyStateSampled);
+    }
+
+    /**
+     * @param retryPolicy how robots blocked in real time retry. Virtual time ignores the policy
+     */
+    public SimulationConfig withRetryPolicy(RetryPolicy retryPolicy) {
+        return new SimulationConfig(fullCharge, initialCharge, chargeAmount, chargeDelayTime, oneStepDischarge,
+                dischargeDelayTime, greedyChargeThreshold, greedyDelayTime, gentlemanlySleepTime, randomMinSleep,
+                randomMaxSleep, timeScale, partAcquisition, fairChargerParts, retryPolicy,
+                steadyStateSampled);
+    }
+
+    /**
+     * @param steadyStateSampled true if real time modelling is sampled and finishes as non terminating when the
+     *                           table settles into a steady state. Virtual time always detects steady states
+     */
+    public SimulationConfig withSteadyStateSampling(boolean steadyStateSampled) {
+        return new SimulationConfig(fullCharge, initialCharge, chargeAmount, chargeDelayTime, oneStepDischarge,
+                dischargeDelayTime, greedyChargeThreshold, greedyDelayTime, gentlemanlySleepTime, randomMinSleep,
+                randomMaxSleep, timeScale, partAcquisition, fairChargerParts, retryPolicy,
+                steadyStateSampled);
+    }
+
+    /**
+     * @param modelMillis period of the modelling time in milliseconds
+     * @return the same period of the wall clock in nanoseconds
+     */
+    public long toRealNanos(long modelMillis) {
+        return (long) (TimeUnit.MILLISECONDS.toNanos(modelMillis) / timeScale);
+    }
+
+    /**
+     * @param realNanos period of the wall clock in nanoseconds
+     * @return the same period of the modelling time in milliseconds
+     */
+    public long toModelMillis(long realNanos) {
+        return (long) (realNanos * timeScale / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Blocks current thread for the period of the modelling time
+     * @param modelMillis period of the modelling time in milliseconds
+     * @throws InterruptedException if current thread was interrupted while sleeping
+     */
+    public void sleep(long modelMillis) throws InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(toRealNanos(modelMillis));
+    }
+
+    /**
+     * @return constants that define the modelling in virtual time, so the time scale, the retry policy and the
+     * sampling of the steady state aren't included. Acquisition of the charger parts is included only if it isn't one at a time and fairness only if
+     * parts are fair, so descriptions of the original modelling stay the same
+     */
+    public String describeModel() {
+        return "fullCharge=" + fullCharge +
+                ", initialCharge=" + initialCharge +
+                ", chargeAmount=" + chargeAmount +
+                ", chargeDelayTime=" + chargeDelayTime +
+                ", oneStepDischarge=" + oneStepDischarge +
+                ", dischargeDelayTime=" + dischargeDelayTime +
+                ", greedyChargeThreshold=" + greedyChargeThreshold +
+                ", greedyDelayTime=" + greedyDelayTime +
+                ", gentlemanlySleepTime=" + gentlemanlySleepTime +
+                ", randomSleep=" + randomMinSleep + ".." + randomMaxSleep +
+                (partAcquisition == PartAcquisition.ONE_AT_A_TIME
+                        ? "" : ", partAcquisition=" + partAcquisition.getName()) +
+                (fairChargerParts ? ", fairChargerParts=true" : "");
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof SimulationConfig)) return false;
+        SimulationConfig config = (SimulationConfig) other;
+        return Double.compare(timeScale, config.timeScale) == 0 && retryPolicy.equals(config.retryPolicy)
+                && steadyStateSampled == config.steadyStateSampled
+                && describeModel().equals(config.describeModel());
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 31 * (31 * describeModel().hashCode() + Double.hashCode(timeScale)) + retryPolicy.hashCode();
+        return 31 * hash + Boolean.hashCode(steadyStateSampled);
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationConfig{" + describeModel() + ", timeScale=" + timeScale + ", retryPolicy=" + retryPolicy
+                + ", steadyStateSampled=" + steadyStateSampled + '}';
+    }
+}
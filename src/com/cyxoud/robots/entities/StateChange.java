@@ -0,0 +1,32 @@
+package com.cyxoud.robots.entities;
+
+/**
+ * enum that has all the kinds of robot's state changes that are published to listeners.
+ * Binary trace of version 1 stores ordinals of the state changes, so new constants may only be appended
+ */
+public enum StateChange {
+    /** robot was charged by the charger */
+    CHARGED,
+    /** robot was discharged by functioning */
+    DISCHARGED,
+    /** robot was discharged to zero and disconnected */
+    DISCONNECTED,
+    /** robot reached full charge */
+    FULL_CHARGED,
+    /** robot took charger part located at its left side */
+    LEFT_PART_TAKEN,
+    /** robot took charger part located at its right side */
+    RIGHT_PART_TAKEN,
+    /** robot freed charger part located at its left side */
+    LEFT_PART_FREED,
+    /** robot freed charger part located at its right side */
+    RIGHT_PART_FREED,
+    /** robot with gentleman strategy freed charger part located at its left side in favour of its left neighbour */
+    LEFT_PART_YIELDED,
+    /** robot with gentleman strategy freed charger part located at its right side in favour of its right neighbour */
+    RIGHT_PART_YIELDED,
+    /** robot failed to take charger part located at its left side and waits for it */
+    LEFT_PART_AWAITED,
+    /** robot failed to take charger part located at its right side and waits for it */
+    RIGHT_PART_AWAITED
+}
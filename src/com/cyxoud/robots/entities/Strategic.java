@@ -1,10 +1,14 @@
 package com.cyxoud.robots.entities;
 
-import java.util.List;
-
 /**
  * Represents actions of robot due to strategy
  */
 interface Strategic {
     Runnable strategy();
+
+    /**
+     * Does one step of the strategy without blocking
+     * @return time in milliseconds to wait before the next step, {@link Robot#CONTINUE} or {@link Robot#BLOCKED}
+     */
+    long step();
 }
@@ -1,8 +1,147 @@
 package com.cyxoud.robots.entities;
 
+import com.cyxoud.robots.exceptions.NeighbourIsNotSetException;
+
+import java.util.Locale;
+
 /**
- * enum that has all the robot's strategies
+ * enum that has all the built-in robot's strategies
  */
-public enum Strategy {
-    RANDOM, GREEDY, GENTLEMANLY
+public enum Strategy implements RobotStrategy {
+    /**
+     * If robot is not full charged, it waits while both charger parts will not be available, then tries to take
+     * both charger parts the way acquisition of the config tells. If robot collected the charger, it keeps it until
+     * it is disconnected: it is charged each delay of time and sleeps random time between the charges
+     */
+    RANDOM {
+        @Override
+        public long step(RobotView robot) {
+            SimulationConfig config = robot.getConfig();
+            if (robot.isCharging()) {
+                robot.beCharged();
+                return config.getChargeDelayTime()
+                        + robot.getRandom().nextInt((int) config.getRandomMinSleep(),
+                        (int) config.getRandomMaxSleep() + 1);
+            }
+
+            if (robot.isFullCharged() || !robot.checkChargePartsAvailability()) {
+                return Robot.BLOCKED;
+            }
+
+            robot.tryTakeChargerParts();
+
+            if (robot.gatheredCharging()) {
+                robot.setCharging(true);
+                return config.getChargeDelayTime();
+            }
+            return Robot.CONTINUE;
+        }
+
+        /**
+         * Next steps of the active robot with random strategy depend on its random sleeping times
+         */
+        @Override
+        public boolean isPredictable(RobotView robot) {
+            return !robot.isActive();
+        }
+
+        /**
+         * Waits without spinning while both charger parts will not be available
+         */
+        @Override
+        public void awaitProgress(RobotView robot) throws InterruptedException {
+            robot.awaitChargePartsAvailability();
+        }
+    },
+
+    /**
+     * If robot's charge is less than the threshold, it tries to take both charger parts the way acquisition of
+     * the config tells. Then if robot collected the charger, robot is being charged each amount of time while it is
+     * not full charged; otherwise robot checks its charge again after delay time
+     */
+    GREEDY {
+        @Override
+        public long step(RobotView robot) {
+            SimulationConfig config = robot.getConfig();
+            if (robot.isCharging()) {
+                robot.beCharged();
+                if (!robot.isFullCharged()) {
+                    return config.getChargeDelayTime();
+                }
+                robot.setCharging(false);
+                return Robot.CONTINUE;
+            }
+
+            if (robot.getCharge() < config.getGreedyChargeThreshold()) {
+                robot.tryTakeChargerParts();
+
+                if (robot.gatheredCharging()) {
+                    robot.setCharging(true);
+                    return config.getChargeDelayTime();
+                }
+                return Robot.BLOCKED;
+            }
+            return config.getGreedyDelayTime();
+        }
+    },
+
+    /**
+     * Robot tries to take both charger parts the way acquisition of the config tells. Then robot tries to free some
+     * of the parts in favour of the neighbours, and if it was successful, then sleeps some time. Otherwise if charger
+     * was collected robot is charged after amount of time
+     */
+    GENTLEMANLY {
+        @Override
+        public long step(RobotView robot) {
+            SimulationConfig config = robot.getConfig();
+            if (robot.isCharging()) {
+                robot.setCharging(false);
+                robot.beCharged();
+                return Robot.CONTINUE;
+            }
+
+            robot.tryTakeChargerParts();
+
+            if (yieldToNeighbour(robot)) {
+                return config.getGentlemanlySleepTime();
+            }
+            if (robot.gatheredCharging()) {
+                robot.setCharging(true);
+                return config.getChargeDelayTime();
+            }
+            return Robot.BLOCKED;
+        }
+    };
+
+    /**
+     * @return lower case name of the constant, e.g. greedy
+     */
+    @Override
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Frees charger part to one of the neighbours if robot has part and its charge is higher than charge of
+     * the active neighbour
+     * @param robot robot with gentleman strategy
+     * @return true if left or right part was freed or false otherwise
+     */
+    static boolean yieldToNeighbour(RobotView robot) {
+        RobotView leftNeighbour = robot.getLeftNeighbour();
+        RobotView rightNeighbour = robot.getRightNeighbour();
+        if (leftNeighbour == null || rightNeighbour == null) {
+            throw new NeighbourIsNotSetException("One or both neighbours are not set");
+        }
+
+        if (robot.hasLeftChargerPart() && leftNeighbour.isActive() && leftNeighbour.getCharge() < robot.getCharge()) {
+            return robot.yieldLeftChargerPart();
+        }
+        else if (robot.hasRightChargerPart() && rightNeighbour.isActive()
+                && rightNeighbour.getCharge() < robot.getCharge()) {
+            return robot.yieldRightChargerPart();
+        }
+
+        return false;
+    }
 }
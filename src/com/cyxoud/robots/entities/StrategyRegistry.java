@@ -0,0 +1,86 @@
+package com.cyxoud.robots.entities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of the strategies: built-in strategies in the order of {@link Strategy} followed by the strategies found
+ * with {@link ServiceLoader}. Index of the strategy in the registry is its id in the trace of the modelling,
+ * so built-in strategies keep their ids whatever is on the class path
+ */
+public final class StrategyRegistry {
+    /** registered strategies in the order of their ids */
+    private static final List<RobotStrategy> STRATEGIES = load();
+
+    private StrategyRegistry() {}
+
+    private static List<RobotStrategy> load() {
+        List<RobotStrategy> strategies = new ArrayList<RobotStrategy>(Arrays.asList(Strategy.values()));
+        for (RobotStrategy strategy : ServiceLoader.load(RobotStrategy.class)) {
+            for (RobotStrategy registered : strategies) {
+                if (registered.getName().equalsIgnoreCase(strategy.getName())) {
+                    throw new IllegalStateException("Strategy " + strategy.getName() + " is registered twice");
+                }
+            }
+            strategies.add(strategy);
+        }
+        return Collections.unmodifiableList(strategies);
+    }
+
+    /**
+     * @return registered strategies in the order of their ids
+     */
+    public static List<RobotStrategy> getStrategies() {
+        return STRATEGIES;
+    }
+
+    /**
+     * @param name name of the strategy, case insensitive
+     * @return registered strategy
+     * @throws IllegalArgumentException if there is no strategy with the name
+     */
+    public static RobotStrategy forName(String name) {
+        for (RobotStrategy strategy : STRATEGIES) {
+            if (strategy.getName().equalsIgnoreCase(name)) return strategy;
+        }
+        throw new IllegalArgumentException("Illegal strategy: " + name + ". Registered strategies are " + names());
+    }
+
+    /**
+     * @param id id of the strategy
+     * @return registered strategy
+     * @throws IllegalArgumentException if there is no strategy with the id
+     */
+    public static RobotStrategy forId(int id) {
+        if (id < 0 || id >= STRATEGIES.size()) {
+            throw new IllegalArgumentException("Illegal id of the strategy: " + id);
+        }
+        return STRATEGIES.get(id);
+    }
+
+    /**
+     * @param strategy registered strategy
+     * @return id of the strategy
+     * @throws IllegalArgumentException if strategy isn't registered
+     */
+    public static int idOf(RobotStrategy strategy) {
+        if (strategy instanceof Strategy) return ((Strategy) strategy).ordinal();
+        int id = STRATEGIES.indexOf(strategy);
+        if (id < 0) {
+            throw new IllegalArgumentException("Strategy " + strategy.getName() + " isn't registered");
+        }
+        return id;
+    }
+
+    private static String names() {
+        List<String> names = new ArrayList<>(STRATEGIES.size());
+        for (RobotStrategy strategy : STRATEGIES) {
+            names.add(strategy.getName().toLowerCase(Locale.ROOT));
+        }
+        return names.toString();
+    }
+}
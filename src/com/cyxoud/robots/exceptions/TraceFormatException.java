@@ -0,0 +1,12 @@
+package com.cyxoud.robots.exceptions;
+
+/**
+ * Represents file that is not a trace of the modelling or a trace of unsupported version
+ */
+public class TraceFormatException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public TraceFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,66 @@
+package com.cyxoud.robots.execution;
+
+import com.cyxoud.robots.entities.Robot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the way strategies and discharges of the robots are run in real time
+ */
+public interface ExecutionBackend {
+    /**
+     * Starts strategies and discharges of all the robots
+     * @param robots list of constructed robots
+     */
+    void start(List<Robot> robots);
+
+    /**
+     * Stops strategies and discharges of all the robots due to modelling terminate condition
+     */
+    void shutdown();
+
+    /**
+     * Robots started one after another keep acting in real time in the order they were started, so backends start
+     * them in the order the modelling in virtual time gives to the robots acting at the same moment: even seats,
+     * then odd seats, and the last seat of the odd table after them. Then both modes give the contended charger parts
+     * to the same robots
+     * @param robots robots in the order of their seats
+     * @return the same robots in the order they are started
+     */
+    static List<Robot> inStartOrder(List<Robot> robots) {
+        int size = robots.size();
+        int lastSeat = size % 2 == 1 && size > 1 ? size - 1 : size;
+        List<Robot> ordered = new ArrayList<>(size);
+        for (int seat = 0; seat < lastSeat; seat += 2) {
+            ordered.add(robots.get(seat));
+        }
+        for (int seat = 1; seat < size; seat += 2) {
+            ordered.add(robots.get(seat));
+        }
+        if (lastSeat < size) {
+            ordered.add(robots.get(lastSeat));
+        }
+        return ordered;
+    }
+
+    /**
+     * Constructs backend by its command line name
+     * @param name platform, virtual or scheduler
+     * @return new backend
+     */
+    static ExecutionBackend forName(String name) {
+        switch (name) {
+            case "platform":
+                return new ThreadPerRobotBackend();
+            case "virtual":
+                return new ThreadPerRobotBackend(VirtualThreads.factory());
+            case "scheduler":
+                return new SharedSchedulerBackend(VirtualThreads.isSupported() ?
+                        VirtualThreads.factory() : ThreadPerRobotBackend.PLATFORM_THREADS);
+            default:
+                throw new IllegalArgumentException("Illegal backend: " + name +
+                        ". You need to pass one of platform/virtual/scheduler");
+        }
+    }
+}
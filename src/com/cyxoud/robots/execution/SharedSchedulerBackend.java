@@ -0,0 +1,134 @@
+package com.cyxoud.robots.execution;
+
+import com.cyxoud.robots.entities.Robot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs strategy of each robot in a thread of its own and discharges of all the robots on one shared scheduler
+ * instead of a sleeping discharge thread per robot
+ */
+public class SharedSchedulerBackend implements ExecutionBackend {
+    /** factory of strategy threads */
+    private final ThreadFactory strategyThreadFactory;
+    /** scheduler of discharge ticks */
+    private final ScheduledExecutorService scheduler;
+    /** shows if scheduler was created by backend and must be shut down with it */
+    private final boolean ownScheduler;
+    /** strategy threads of the robots */
+    private List<Thread> strategyThreads;
+    /** discharge ticks of the robots */
+    private List<DischargeTick> dischargeTicks;
+
+    /**
+     * Constructs backend with a scheduler of its own that has one thread
+     * @param strategyThreadFactory factory of strategy threads, for example {@link VirtualThreads#factory()}
+     */
+    public SharedSchedulerBackend(ThreadFactory strategyThreadFactory) {
+        this(strategyThreadFactory, newScheduler(), true);
+    }
+
+    /**
+     * Constructs backend that uses scheduler shared with other modellings. Scheduler is not shut down by the backend
+     * @param strategyThreadFactory factory of strategy threads
+     * @param scheduler scheduler of discharge ticks
+     */
+    public SharedSchedulerBackend(ThreadFactory strategyThreadFactory, ScheduledExecutorService scheduler) {
+        this(strategyThreadFactory, scheduler, false);
+    }
+
+    private SharedSchedulerBackend(ThreadFactory strategyThreadFactory, ScheduledExecutorService scheduler,
+                                   boolean ownScheduler) {
+        this.strategyThreadFactory = strategyThreadFactory;
+        this.scheduler = scheduler;
+        this.ownScheduler = ownScheduler;
+    }
+
+    private static ScheduledExecutorService newScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * Starts strategy threads and schedules discharge ticks of the robots in their
+     * {@link ExecutionBackend#inStartOrder start order}
+     * @param robots list of constructed robots
+     */
+    @Override
+    public void start(List<Robot> robots) {
+        strategyThreads = new ArrayList<>(robots.size());
+        dischargeTicks = new ArrayList<>(robots.size());
+        for (Robot robot : ExecutionBackend.inStartOrder(robots)) {
+            Thread strategyThread = strategyThreadFactory.newThread(robot.strategy());
+            strategyThreads.add(strategyThread);
+            dischargeTicks.add(new DischargeTick(robot, strategyThread));
+        }
+
+        for (Thread thread : strategyThreads) {
+            thread.start();
+        }
+        for (DischargeTick dischargeTick : dischargeTicks) {
+            dischargeTick.schedule(scheduler);
+        }
+    }
+
+    /**
+     * Cancels discharge ticks, interrupts strategy threads and shuts down own scheduler
+     */
+    @Override
+    public void shutdown() {
+        if (strategyThreads == null) return;
+        for (DischargeTick dischargeTick : dischargeTicks) {
+            dischargeTick.cancel();
+        }
+        for (Thread thread : strategyThreads) {
+            thread.interrupt();
+        }
+        if (ownScheduler) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Discharges the robot each discharge delay time of its config while it is active, otherwise interrupts strategy
+     * of the robot
+     */
+    private static class DischargeTick implements Runnable {
+        private final Robot robot;
+        private final Thread strategyThread;
+        private volatile ScheduledFuture<?> future;
+
+        DischargeTick(Robot robot, Thread strategyThread) {
+            this.robot = robot;
+            this.strategyThread = strategyThread;
+        }
+
+        void schedule(ScheduledExecutorService scheduler) {
+            long period = robot.getConfig().toRealNanos(robot.getConfig().getDischargeDelayTime());
+            future = scheduler.scheduleAtFixedRate(this, period, period, TimeUnit.NANOSECONDS);
+        }
+
+        void cancel() {
+            ScheduledFuture<?> scheduled = future;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            robot.beDischarged();
+            if (!robot.isActive()) {
+                strategyThread.interrupt();
+                cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.cyxoud.robots.execution;
+
+import com.cyxoud.robots.entities.Robot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs strategy and discharge of each robot in two threads of their own
+ */
+public class ThreadPerRobotBackend implements ExecutionBackend {
+    /** factory of ordinary platform threads */
+    static final ThreadFactory PLATFORM_THREADS = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return new Thread(runnable);
+        }
+    };
+
+    /** factory of strategy and discharge threads */
+    private final ThreadFactory threadFactory;
+    /** list of robot threads(strategies and discharges) */
+    private List<Thread> robotsThreads;
+
+    /**
+     * Constructs backend that runs robots on platform threads
+     */
+    public ThreadPerRobotBackend() {
+        this(PLATFORM_THREADS);
+    }
+
+    /**
+     * @param threadFactory factory of strategy and discharge threads, for example {@link VirtualThreads#factory()}
+     */
+    public ThreadPerRobotBackend(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Starts discharge and strategy threads in the {@link ExecutionBackend#inStartOrder start order} of the robots
+     * and put them in thread list
+     * @param robots list of constructed robots
+     */
+    @Override
+    public void start(List<Robot> robots) {
+        robotsThreads = new ArrayList<>(2 * robots.size());
+        for (Robot robot : ExecutionBackend.inStartOrder(robots)) {
+            Thread robotThread = threadFactory.newThread(robot.strategy());
+            robotsThreads.add(robotThread);
+            robotsThreads.add(threadFactory.newThread(robot.discharge(robotThread)));
+        }
+
+        for (Thread thread : robotsThreads) {
+            thread.start();
+        }
+    }
+
+    /**
+     * Interrupts all the threads
+     */
+    @Override
+    public void shutdown() {
+        if (robotsThreads == null) return;
+        for (Thread thread : robotsThreads) {
+            thread.interrupt();
+        }
+    }
+}
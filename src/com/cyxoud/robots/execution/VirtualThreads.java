@@ -0,0 +1,38 @@
+package com.cyxoud.robots.execution;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Gives access to virtual threads of Java 21 while the project is compiled for Java 8
+ */
+public final class VirtualThreads {
+    private VirtualThreads() {}
+
+    /**
+     * @return true if current runtime supports virtual threads
+     */
+    public static boolean isSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return factory of virtual threads named robot-0, robot-1 and so on
+     * @throws UnsupportedOperationException if current runtime doesn't support virtual threads
+     */
+    public static ThreadFactory factory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "robot-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw (UnsupportedOperationException)
+                    new UnsupportedOperationException("Virtual threads need Java 21 or later").initCause(e);
+        }
+    }
+}
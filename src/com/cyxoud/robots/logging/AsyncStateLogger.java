@@ -0,0 +1,281 @@
+package com.cyxoud.robots.logging;
+
+import com.cyxoud.robots.entities.Robot;
+import com.cyxoud.robots.entities.RobotStateListener;
+import com.cyxoud.robots.entities.StateChange;
+import com.cyxoud.robots.simulation.Clock;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Logs state changes of the robots (level of charge and charger parts) without slowing the robots down.
+ * Robot threads only copy the state change into a preallocated ring buffer, a background thread formats the records
+ * and writes them in batches. When the buffer is full the state change is dropped or the robot waits for free space,
+ * due to the overflow policy
+ */
+public class AsyncStateLogger implements RobotStateListener, AutoCloseable {
+    /** default number of records in the ring buffer */
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+    /** maximal number of records written at once */
+    private static final int BATCH_SIZE = 512;
+    /** time the consumer sleeps when buffer is empty */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    /** time the robot sleeps waiting for free space when buffer is full */
+    private static final long BACKPRESSURE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    /** bit of the claimed sequence set when logger is closed, so no sequence can be claimed after closing */
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    /**
+     * What happens with the state change when ring buffer is full
+     */
+    public enum OverflowPolicy {
+        /** state change is dropped and counted */
+        DROP,
+        /** robot waits until the consumer frees space */
+        BLOCK
+    }
+
+    /** source of the records time */
+    private final Clock clock;
+    /** destination of the formatted records */
+    private final Writer writer;
+    private final OverflowPolicy overflowPolicy;
+    /** number of records in the ring buffer, power of two */
+    private final int capacity;
+    private final int mask;
+
+    /** time of each record */
+    private final long[] times;
+    /** robot of each record */
+    private final Robot[] robots;
+    /** kind of each record */
+    private final StateChange[] changes;
+    /** charge of the robot of each record */
+    private final int[] charges;
+    /** charger parts held by the robot of each record: 1 for left part, 2 for right part */
+    private final byte[] parts;
+    /** sequence + 1 of the record published in each slot */
+    private final AtomicLongArray published;
+
+    /** next sequence to be claimed by robots, with {@link #CLOSED} bit set when logger is closed */
+    private final AtomicLong claimed = new AtomicLong();
+    /** next sequence to be consumed. Written only by the consumer */
+    private volatile long consumed;
+    /** number of dropped state changes */
+    private final LongAdder dropped = new LongAdder();
+    /** formats and writes records */
+    private final Thread consumer;
+
+    /**
+     * Constructs logger that writes to the standard error stream and makes robots wait when buffer is full
+     * @param clock source of the records time
+     */
+    public AsyncStateLogger(Clock clock) {
+        this(clock, new OutputStreamWriter(System.err), DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * @param clock source of the records time
+     * @param writer destination of the formatted records
+     * @param capacity number of records in the ring buffer, rounded up to power of two
+     * @param overflowPolicy what happens with the state change when ring buffer is full
+     */
+    public AsyncStateLogger(Clock clock, Writer writer, int capacity, OverflowPolicy overflowPolicy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        this.clock = clock;
+        this.writer = writer;
+        this.overflowPolicy = overflowPolicy;
+        int roundedCapacity = 1;
+        while (roundedCapacity < capacity) {
+            roundedCapacity <<= 1;
+        }
+        this.capacity = roundedCapacity;
+        mask = roundedCapacity - 1;
+        times = new long[this.capacity];
+        robots = new Robot[this.capacity];
+        changes = new StateChange[this.capacity];
+        charges = new int[this.capacity];
+        parts = new byte[this.capacity];
+        published = new AtomicLongArray(this.capacity);
+
+        consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                consume();
+            }
+        }, "robot-state-logger");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Subscribes logger to the state changes of all the robots
+     * @param robots list of constructed robots
+     * @return this logger
+     */
+    public AsyncStateLogger attachTo(List<Robot> robots) {
+        for (Robot robot : robots) {
+            robot.addStateListener(this);
+        }
+        return this;
+    }
+
+    /**
+     * Copies state change into the ring buffer
+     */
+    @Override
+    public void onStateChange(Robot robot, StateChange change, int charge) {
+        long sequence;
+        while (true) {
+            sequence = claimed.get();
+            if ((sequence & CLOSED) != 0) return;
+            if (sequence - consumed >= capacity) {
+                if (overflowPolicy == OverflowPolicy.DROP) {
+                    dropped.increment();
+                    return;
+                }
+                LockSupport.parkNanos(BACKPRESSURE_PARK_NANOS);
+                continue;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) break;
+        }
+
+        int index = (int) sequence & mask;
+        times[index] = clock.millis();
+        robots[index] = robot;
+        changes[index] = change;
+        charges[index] = charge;
+        parts[index] = (byte) ((robot.hasLeftChargerPart() ? 1 : 0) | (robot.hasRightChargerPart() ? 2 : 0));
+        published.lazySet(index, sequence + 1);
+    }
+
+    /**
+     * Formats and writes published records in batches until logger is closed and all records are written
+     */
+    private void consume() {
+        StringBuilder batch = new StringBuilder(BATCH_SIZE * 64);
+        while (true) {
+            long next = consumed;
+            int count = 0;
+            while (count < BATCH_SIZE && published.get((int) next & mask) == next + 1) {
+                int index = (int) next & mask;
+                format(batch, index);
+                robots[index] = null;
+                next++;
+                count++;
+            }
+
+            if (count > 0) {
+                consumed = next;
+                write(batch);
+                batch.setLength(0);
+            }
+            else if (claimed.get() == (next | CLOSED)) {
+                return;
+            }
+            else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Appends line with the state change to the batch
+     */
+    private void format(StringBuilder batch, int index) {
+        Robot robot = robots[index];
+        batch.append(times[index]).append(" ms: Robot").append(robot.getCurI());
+        boolean hasLeft = (parts[index] & 1) != 0;
+        boolean hasRight = (parts[index] & 2) != 0;
+        switch (changes[index]) {
+            case CHARGED:
+                batch.append(" charged by ").append(robot.getConfig().getChargeAmount())
+                        .append(". Current charge = ").append(charges[index]);
+                break;
+            case DISCHARGED:
+                batch.append(" was discharged by ").append(robot.getConfig().getOneStepDischarge())
+                        .append(". Current charge = ").append(charges[index]);
+                break;
+            case DISCONNECTED:
+                batch.append(" was disconnected");
+                break;
+            case FULL_CHARGED:
+                batch.append(" is full charged");
+                break;
+            case LEFT_PART_TAKEN:
+                batch.append(" got left charger part: ").append(robot.getLeftChargerPart()).append(". Now it has ");
+                if (hasRight) batch.append(robot.getRightChargerPart()).append(" and ");
+                batch.append(robot.getLeftChargerPart());
+                break;
+            case RIGHT_PART_TAKEN:
+                batch.append(" got right charger part: ").append(robot.getRightChargerPart()).append(". Now it has ");
+                if (hasLeft) batch.append(robot.getLeftChargerPart()).append(" and ");
+                batch.append(robot.getRightChargerPart());
+                break;
+            case LEFT_PART_FREED:
+                batch.append(" freed left charger part: ").append(robot.getLeftChargerPart());
+                break;
+            case RIGHT_PART_FREED:
+                batch.append(" freed right charger part: ").append(robot.getRightChargerPart());
+                break;
+            case LEFT_PART_YIELDED:
+                batch.append(" freed left charger part in favour of left neighbour");
+                break;
+            case RIGHT_PART_YIELDED:
+                batch.append(" freed right charger part in favour of right neighbour");
+                break;
+            case LEFT_PART_AWAITED:
+                batch.append(" waits for left charger part: ").append(robot.getLeftChargerPart());
+                break;
+            case RIGHT_PART_AWAITED:
+                batch.append(" waits for right charger part: ").append(robot.getRightChargerPart());
+                break;
+        }
+        batch.append(System.lineSeparator());
+    }
+
+    private void write(StringBuilder batch) {
+        try {
+            writer.append(batch);
+            writer.flush();
+        } catch (IOException e) {
+            Logger.getGlobal().log(Level.WARNING, "Can't write robots state changes", e);
+        }
+    }
+
+    /**
+     * @return number of state changes dropped because ring buffer was full
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stops accepting state changes and waits until all accepted ones are written. Closing and claiming change
+     * the same sequence, so a state change is either claimed before closing and written or not accepted at all
+     */
+    @Override
+    public void close() {
+        long sequence;
+        do {
+            sequence = claimed.get();
+        } while ((sequence & CLOSED) == 0 && !claimed.compareAndSet(sequence, sequence | CLOSED));
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
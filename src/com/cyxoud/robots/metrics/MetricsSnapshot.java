@@ -0,0 +1,239 @@
+package com.cyxoud.robots.metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Metrics of the table at one moment: contention on each charger part and metrics of each robot.
+ * Charger part i lies at the left of the robot at seat i
+ */
+public final class MetricsSnapshot {
+    /** modelling time of the snapshot in milliseconds */
+    private final long timeMillis;
+    /** number of attempts to take each charger part */
+    private final long[] takeAttempts;
+    /** number of failed attempts to take each charger part */
+    private final long[] takeFailures;
+    /** waits for each charger part from the failed attempt to take it until it was taken */
+    private final WaitHistogram[] partWaits;
+    /** waits from the first failed attempt to take a part until robot gathered the charger */
+    private final WaitHistogram timeToCharge;
+    /** metrics of the robots in the order of their seats */
+    private final List<RobotMetrics> robots;
+
+    MetricsSnapshot(long timeMillis, long[] takeAttempts, long[] takeFailures, WaitHistogram[] partWaits,
+                    WaitHistogram timeToCharge, List<RobotMetrics> robots) {
+        this.timeMillis = timeMillis;
+        this.takeAttempts = takeAttempts;
+        this.takeFailures = takeFailures;
+        this.partWaits = partWaits;
+        this.timeToCharge = timeToCharge;
+        this.robots = Collections.unmodifiableList(robots);
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * @param part index of the charger part
+     * @return number of attempts to take the charger part
+     */
+    public long getTakeAttempts(int part) {
+        return takeAttempts[part];
+    }
+
+    /**
+     * @param part index of the charger part
+     * @return number of attempts to take the charger part that failed because it had owner
+     */
+    public long getTakeFailures(int part) {
+        return takeFailures[part];
+    }
+
+    /**
+     * @return number of failed attempts to take each charger part
+     */
+    public long[] getTakeFailures() {
+        return takeFailures.clone();
+    }
+
+    public long getTotalTakeAttempts() {
+        long total = 0;
+        for (long attempts : takeAttempts) {
+            total += attempts;
+        }
+        return total;
+    }
+
+    public long getTotalTakeFailures() {
+        long total = 0;
+        for (long failures : takeFailures) {
+            total += failures;
+        }
+        return total;
+    }
+
+    /**
+     * @return number of the charger parts freed in favour of the neighbours by all the robots
+     */
+    public long getTotalYields() {
+        long total = 0;
+        for (RobotMetrics robot : robots) {
+            total += robot.getYields();
+        }
+        return total;
+    }
+
+    /**
+     * @return charge all the robots got from the charger
+     */
+    public long getTotalChargedAmount() {
+        long total = 0;
+        for (RobotMetrics robot : robots) {
+            total += robot.getChargedAmount();
+        }
+        return total;
+    }
+
+    /**
+     * @return charge all the robots got from the charger per second of the modelling time. Compares how well
+     * the robots share the charger, e.g. under different acquisitions of the charger parts
+     */
+    public double getChargeThroughput() {
+        return timeMillis <= 0 ? 0 : getTotalChargedAmount() * 1000.0 / timeMillis;
+    }
+
+    public long getTotalRetrySpins() {
+        long total = 0;
+        for (RobotMetrics robot : robots) {
+            total += robot.getRetrySpins();
+        }
+        return total;
+    }
+
+    public long getTotalRetryYields() {
+        long total = 0;
+        for (RobotMetrics robot : robots) {
+            total += robot.getRetryYields();
+        }
+        return total;
+    }
+
+    public long getTotalRetryParks() {
+        long total = 0;
+        for (RobotMetrics robot : robots) {
+            total += robot.getRetryParks();
+        }
+        return total;
+    }
+
+    public long getTotalParkedMillis() {
+        long total = 0;
+        for (RobotMetrics robot : robots) {
+            total += robot.getParkedMillis();
+        }
+        return total;
+    }
+
+    /**
+     * @param part index of the charger part
+     * @param percentile percentile from 0 to 100, e.g. 99
+     * @return percentile of the waits for the charger part from the failed attempt to take it until it was taken,
+     * in milliseconds
+     */
+    public long getPartWaitPercentile(int part, double percentile) {
+        return partWaits[part].getPercentile(percentile);
+    }
+
+    /**
+     * @param percentile percentile from 0 to 100, e.g. 99
+     * @return percentile of the waits for all the charger parts in milliseconds
+     */
+    public long getWaitPercentile(double percentile) {
+        WaitHistogram waits = new WaitHistogram();
+        for (WaitHistogram part : partWaits) {
+            waits.add(part);
+        }
+        return waits.getPercentile(percentile);
+    }
+
+    /**
+     * @param percentile percentile from 0 to 100, e.g. 99
+     * @return percentile of the waits from the first failed attempt to take a part until robot gathered
+     * the charger, in milliseconds
+     */
+    public long getTimeToChargePercentile(double percentile) {
+        return timeToCharge.getPercentile(percentile);
+    }
+
+    /**
+     * @return number of the robots discharged to zero
+     */
+    public int getDisconnectedCount() {
+        int disconnected = 0;
+        for (RobotMetrics robot : robots) {
+            if (robot.getCharge() == 0) disconnected++;
+        }
+        return disconnected;
+    }
+
+    /**
+     * @return index of the charger part with the most failed attempts to take it or -1 if table is empty
+     */
+    public int getMostContendedPart() {
+        int mostContended = -1;
+        for (int part = 0; part < takeFailures.length; part++) {
+            if (mostContended < 0 || takeFailures[part] > takeFailures[mostContended]) {
+                mostContended = part;
+            }
+        }
+        return mostContended;
+    }
+
+    /**
+     * @return metrics of the robots in the order of their seats
+     */
+    public List<RobotMetrics> getRobots() {
+        return robots;
+    }
+
+    /**
+     * @param seat seat of the robot
+     * @return metrics of the robot
+     */
+    public RobotMetrics getRobot(int seat) {
+        return robots.get(seat);
+    }
+
+    /**
+     * @return multiline summary: totals, the most contended charger part and a line per robot
+     */
+    @Override
+    public String toString() {
+        StringBuilder description = new StringBuilder("Metrics at ").append(timeMillis).append(" ms: ")
+                .append(getTotalTakeAttempts()).append(" attempts to take charger parts, ")
+                .append(getTotalTakeFailures()).append(" failed, ")
+                .append(getTotalYields()).append(" yields, ")
+                .append(String.format(Locale.ROOT, "%.2f", getChargeThroughput())).append(" charge per second");
+        int mostContended = getMostContendedPart();
+        if (mostContended >= 0) {
+            description.append(", most contended part ").append(mostContended)
+                    .append(" failed ").append(takeFailures[mostContended]).append(" times");
+        }
+        description.append(System.lineSeparator()).append("Failures by part: ").append(Arrays.toString(takeFailures));
+        description.append(System.lineSeparator()).append("Waits for parts: p50 ").append(getWaitPercentile(50))
+                .append(" ms, p99 ").append(getWaitPercentile(99)).append(" ms; time to charge: p50 ")
+                .append(getTimeToChargePercentile(50)).append(" ms, p99 ").append(getTimeToChargePercentile(99))
+                .append(" ms; ").append(getDisconnectedCount()).append(" disconnected");
+        description.append(System.lineSeparator()).append("Retries: ").append(getTotalRetrySpins())
+                .append(" spun, ").append(getTotalRetryYields()).append(" yielded, ").append(getTotalRetryParks())
+                .append(" parked for ").append(getTotalParkedMillis()).append(" ms");
+        for (RobotMetrics robot : robots) {
+            description.append(System.lineSeparator()).append(robot);
+        }
+        return description.toString();
+    }
+}
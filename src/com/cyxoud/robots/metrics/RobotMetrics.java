@@ -0,0 +1,188 @@
+package com.cyxoud.robots.metrics;
+
+/**
+ * Metrics of one robot at the moment of the snapshot. Times are in milliseconds of the modelling time
+ */
+public final class RobotMetrics {
+    private final int seat;
+    private final int charge;
+    /** number of the charger parts freed in favour of the neighbours */
+    private final long yields;
+    /** number of the charger parts held and freed */
+    private final long holdCount;
+    /** total time the freed charger parts were held */
+    private final long holdMillis;
+    /** longest time a freed charger part was held */
+    private final long maxHoldMillis;
+    /** number of times robot held one charger part and then gathered the charger */
+    private final long waitCount;
+    /** total time robot held one charger part before it gathered the charger */
+    private final long waitMillis;
+    /** longest time robot held one charger part before it gathered the charger */
+    private final long maxWaitMillis;
+    /** number of times robot freed its only charger part without gathering the charger */
+    private final long abandonedWaits;
+    /** total charge robot got from the charger */
+    private final long chargedAmount;
+    /** number of retries robot did right away, after yielding and after parking, see RetryPolicy */
+    private final long retrySpins;
+    private final long retryYields;
+    private final long retryParks;
+    /** total time robot parked before the retries */
+    private final long parkedMillis;
+    /** time robot spent at each level of charge, indexed by charge */
+    private final long[] chargeMillis;
+
+    RobotMetrics(int seat, int charge, long yields, long holdCount, long holdMillis, long maxHoldMillis,
+                 long waitCount, long waitMillis, long maxWaitMillis, long abandonedWaits, long chargedAmount,
+                 long retrySpins, long retryYields, long retryParks, long parkedMillis, long[] chargeMillis) {
+        this.seat = seat;
+        this.charge = charge;
+        this.yields = yields;
+        this.holdCount = holdCount;
+        this.holdMillis = holdMillis;
+        this.maxHoldMillis = maxHoldMillis;
+        this.waitCount = waitCount;
+        this.waitMillis = waitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.abandonedWaits = abandonedWaits;
+        this.chargedAmount = chargedAmount;
+        this.retrySpins = retrySpins;
+        this.retryYields = retryYields;
+        this.retryParks = retryParks;
+        this.parkedMillis = parkedMillis;
+        this.chargeMillis = chargeMillis;
+    }
+
+    public int getSeat() {
+        return seat;
+    }
+
+    public int getCharge() {
+        return charge;
+    }
+
+    /**
+     * @return number of the charger parts freed in favour of the neighbours
+     */
+    public long getYields() {
+        return yields;
+    }
+
+    /**
+     * @return number of the charger parts held and freed
+     */
+    public long getHoldCount() {
+        return holdCount;
+    }
+
+    /**
+     * @return total time the freed charger parts were held
+     */
+    public long getHoldMillis() {
+        return holdMillis;
+    }
+
+    /**
+     * @return mean time the freed charger parts were held
+     */
+    public double getMeanHoldMillis() {
+        return holdCount == 0 ? 0 : (double) holdMillis / holdCount;
+    }
+
+    public long getMaxHoldMillis() {
+        return maxHoldMillis;
+    }
+
+    /**
+     * @return number of times robot held one charger part and then gathered the charger
+     */
+    public long getWaitCount() {
+        return waitCount;
+    }
+
+    /**
+     * @return total time robot held one charger part before it gathered the charger
+     */
+    public long getWaitMillis() {
+        return waitMillis;
+    }
+
+    /**
+     * @return mean time robot held one charger part before it gathered the charger
+     */
+    public double getMeanWaitMillis() {
+        return waitCount == 0 ? 0 : (double) waitMillis / waitCount;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    /**
+     * @return number of times robot freed its only charger part without gathering the charger
+     */
+    public long getAbandonedWaits() {
+        return abandonedWaits;
+    }
+
+    /**
+     * @return total charge robot got from the charger
+     */
+    public long getChargedAmount() {
+        return chargedAmount;
+    }
+
+    /**
+     * @return number of retries robot did right away after it was blocked in real time
+     */
+    public long getRetrySpins() {
+        return retrySpins;
+    }
+
+    /**
+     * @return number of retries robot did after yielding the processor
+     */
+    public long getRetryYields() {
+        return retryYields;
+    }
+
+    /**
+     * @return number of retries robot did after parking
+     */
+    public long getRetryParks() {
+        return retryParks;
+    }
+
+    /**
+     * @return total time robot parked before the retries
+     */
+    public long getParkedMillis() {
+        return parkedMillis;
+    }
+
+    /**
+     * @return time robot spent at each level of charge, indexed by charge
+     */
+    public long[] getChargeMillis() {
+        return chargeMillis.clone();
+    }
+
+    /**
+     * @param charge level of charge
+     * @return time robot spent at the level of charge
+     */
+    public long getChargeMillis(int charge) {
+        return chargeMillis[charge];
+    }
+
+    @Override
+    public String toString() {
+        return "Robot at seat " + seat + ": charge " + charge + ", yields " + yields
+                + ", holds " + holdCount + " (mean " + Math.round(getMeanHoldMillis()) + " ms, max " + maxHoldMillis
+                + " ms), waits " + waitCount + " (mean " + Math.round(getMeanWaitMillis()) + " ms, max "
+                + maxWaitMillis + " ms, abandoned " + abandonedWaits + "), charged " + chargedAmount
+                + ", retries " + retrySpins + " spun, " + retryYields + " yielded, " + retryParks + " parked ("
+                + parkedMillis + " ms)";
+    }
+}
@@ -0,0 +1,382 @@
+package com.cyxoud.robots.metrics;
+
+import com.cyxoud.robots.entities.Robot;
+import com.cyxoud.robots.entities.RobotStateListener;
+import com.cyxoud.robots.entities.StateChange;
+import com.cyxoud.robots.simulation.Clock;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects metrics of the running modelling from the state changes of the robots: how long robots hold charger parts
+ * and wait for the full charger, how long they wait for each charger part and for the charge, how often gentlemanly
+ * robots yield, how much charge they get from the charger and how much time robots spend at each level of charge.
+ * Attempts to take charger parts are counted by the parts themselves and retries of the blocked robots by the robots.
+ * Each seat keeps its timings under a lock of its own, so robots never contend with each other on the metrics.
+ * <p>
+ * Metrics are read with {@link #snapshot()} or through JMX after {@link #register()}
+ */
+public class TableMetrics implements TableMetricsMXBean, AutoCloseable {
+    /** domain and type of the registered metrics */
+    private static final String OBJECT_NAME = "com.cyxoud.robots:type=TableMetrics,name=modelling-";
+    /** index of the last registered metrics, so several modellings may be registered at once */
+    private static final AtomicInteger registered = new AtomicInteger();
+
+    /** source of the modelling time */
+    private final Clock clock;
+    /** robots in the order of their seats */
+    private final List<Robot> robots;
+    private final SeatMetrics[] seats;
+    /** name the metrics are registered with or null if they aren't registered */
+    private ObjectName objectName;
+
+    /**
+     * Subscribes metrics to the state changes of all the robots
+     * @param clock source of the modelling time
+     * @param robots list of constructed robots in the order of their seats at the table
+     */
+    public TableMetrics(Clock clock, List<Robot> robots) {
+        this.clock = clock;
+        this.robots = robots;
+        seats = new SeatMetrics[robots.size()];
+        long now = clock.millis();
+        for (int seat = 0; seat < seats.length; seat++) {
+            Robot robot = robots.get(seat);
+            seats[seat] = new SeatMetrics(seat, robot, now);
+            robot.addStateListener(seats[seat]);
+        }
+    }
+
+    /**
+     * @return metrics of the table at the current modelling time
+     */
+    public MetricsSnapshot snapshot() {
+        long now = clock.millis();
+        long[] takeAttempts = new long[seats.length];
+        long[] takeFailures = new long[seats.length];
+        WaitHistogram[] partWaits = new WaitHistogram[seats.length];
+        for (int part = 0; part < partWaits.length; part++) {
+            partWaits[part] = new WaitHistogram();
+        }
+        WaitHistogram timeToCharge = new WaitHistogram();
+        List<RobotMetrics> robotMetrics = new ArrayList<>(seats.length);
+        for (int seat = 0; seat < seats.length; seat++) {
+            takeAttempts[seat] = robots.get(seat).getLeftChargerPart().getTakeAttempts();
+            takeFailures[seat] = robots.get(seat).getLeftChargerPart().getTakeFailures();
+            robotMetrics.add(seats[seat].snapshot(now, partWaits, timeToCharge));
+        }
+        return new MetricsSnapshot(now, takeAttempts, takeFailures, partWaits, timeToCharge, robotMetrics);
+    }
+
+    /**
+     * Registers metrics in the platform MBean server under a unique name
+     * @return this metrics
+     */
+    public synchronized TableMetrics register() {
+        if (objectName != null) return this;
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME + registered.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            objectName = name;
+        } catch (JMException e) {
+            Logger.getGlobal().log(Level.WARNING, "Can't register metrics of the modelling", e);
+        }
+        return this;
+    }
+
+    /**
+     * @return name the metrics are registered with or null if they aren't registered
+     */
+    public synchronized ObjectName getObjectName() {
+        return objectName;
+    }
+
+    /**
+     * Unregisters metrics from the platform MBean server. Metrics stay readable with {@link #snapshot()}
+     */
+    @Override
+    public synchronized void close() {
+        if (objectName == null) return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(objectName);
+        } catch (JMException e) {
+            Logger.getGlobal().log(Level.WARNING, "Can't unregister metrics of the modelling", e);
+        }
+        objectName = null;
+    }
+
+    @Override
+    public long getTimeMillis() {
+        return clock.millis();
+    }
+
+    @Override
+    public int[] getCharges() {
+        int[] charges = new int[robots.size()];
+        for (int seat = 0; seat < charges.length; seat++) {
+            charges[seat] = robots.get(seat).getCharge();
+        }
+        return charges;
+    }
+
+    @Override
+    public long getTakeAttempts() {
+        return snapshot().getTotalTakeAttempts();
+    }
+
+    @Override
+    public long getTakeFailures() {
+        return snapshot().getTotalTakeFailures();
+    }
+
+    @Override
+    public long[] getTakeFailuresByPart() {
+        return snapshot().getTakeFailures();
+    }
+
+    @Override
+    public int getMostContendedPart() {
+        return snapshot().getMostContendedPart();
+    }
+
+    @Override
+    public long getYields() {
+        long yields = 0;
+        for (SeatMetrics seat : seats) {
+            yields += seat.yields.sum();
+        }
+        return yields;
+    }
+
+    @Override
+    public double getChargeThroughput() {
+        return snapshot().getChargeThroughput();
+    }
+
+    @Override
+    public long getRetrySpins() {
+        return snapshot().getTotalRetrySpins();
+    }
+
+    @Override
+    public long getRetryYields() {
+        return snapshot().getTotalRetryYields();
+    }
+
+    @Override
+    public long getRetryParks() {
+        return snapshot().getTotalRetryParks();
+    }
+
+    @Override
+    public long getParkedMillis() {
+        return snapshot().getTotalParkedMillis();
+    }
+
+    @Override
+    public long[] getWaitP99MillisByPart() {
+        MetricsSnapshot snapshot = snapshot();
+        long[] percentiles = new long[seats.length];
+        for (int part = 0; part < percentiles.length; part++) {
+            percentiles[part] = snapshot.getPartWaitPercentile(part, 99);
+        }
+        return percentiles;
+    }
+
+    @Override
+    public long getTimeToChargeP99Millis() {
+        return snapshot().getTimeToChargePercentile(99);
+    }
+
+    @Override
+    public double[] getMeanHoldMillisBySeat() {
+        MetricsSnapshot snapshot = snapshot();
+        double[] means = new double[seats.length];
+        for (int seat = 0; seat < means.length; seat++) {
+            means[seat] = snapshot.getRobot(seat).getMeanHoldMillis();
+        }
+        return means;
+    }
+
+    @Override
+    public double[] getMeanWaitMillisBySeat() {
+        MetricsSnapshot snapshot = snapshot();
+        double[] means = new double[seats.length];
+        for (int seat = 0; seat < means.length; seat++) {
+            means[seat] = snapshot.getRobot(seat).getMeanWaitMillis();
+        }
+        return means;
+    }
+
+    /**
+     * Timings of one robot. State changes of the robot come from its strategy and its discharge, so timings
+     * are changed under the lock of the seat
+     */
+    private class SeatMetrics implements RobotStateListener {
+        private final int seat;
+        private final Robot robot;
+        /** counted without the lock, gentlemanly robots may yield often */
+        private final LongAdder yields = new LongAdder();
+        /** time the left part was taken or -1 if robot doesn't hold it */
+        private long leftTakenAt = -1;
+        /** time the right part was taken or -1 if robot doesn't hold it */
+        private long rightTakenAt = -1;
+        /** time robot started holding only one part or -1 if it holds none or both */
+        private long waitStartedAt = -1;
+        /** time robot failed to take the left part or -1 if it doesn't wait for it */
+        private long leftAwaitedAt = -1;
+        /** time robot failed to take the right part or -1 if it doesn't wait for it */
+        private long rightAwaitedAt = -1;
+        /** time robot first failed to take a part since it gathered the charger or -1 if it didn't */
+        private long chargeAwaitedAt = -1;
+        /** waits from the failed attempt to take the left part until robot took it */
+        private final WaitHistogram leftWaits = new WaitHistogram();
+        /** waits from the failed attempt to take the right part until robot took it */
+        private final WaitHistogram rightWaits = new WaitHistogram();
+        /** waits from the first failed attempt to take a part until robot gathered the charger */
+        private final WaitHistogram timeToCharge = new WaitHistogram();
+        private long holdCount;
+        private long holdMillis;
+        private long maxHoldMillis;
+        private long waitCount;
+        private long waitMillis;
+        private long maxWaitMillis;
+        private long abandonedWaits;
+        /** total charge robot got from the charger */
+        private long chargedAmount;
+        /** time spent at each level of charge before the last change of charge */
+        private final long[] chargeMillis;
+        private int lastCharge;
+        private long lastChargeChangeAt;
+
+        SeatMetrics(int seat, Robot robot, long now) {
+            this.seat = seat;
+            this.robot = robot;
+            chargeMillis = new long[robot.getConfig().getFullCharge() + 1];
+            lastCharge = robot.getCharge();
+            lastChargeChangeAt = now;
+        }
+
+        @Override
+        public void onStateChange(Robot robot, StateChange change, int charge) {
+            if (change == StateChange.LEFT_PART_YIELDED || change == StateChange.RIGHT_PART_YIELDED) {
+                yields.increment();
+                return;
+            }
+            if (change == StateChange.FULL_CHARGED) return;
+
+            long now = clock.millis();
+            synchronized (this) {
+                switch (change) {
+                    case DISCONNECTED:
+                        leftAwaitedAt = -1;
+                        rightAwaitedAt = -1;
+                        chargeAwaitedAt = -1;
+                        return;
+                    case LEFT_PART_AWAITED:
+                        leftAwaitedAt = now;
+                        if (chargeAwaitedAt < 0) chargeAwaitedAt = now;
+                        return;
+                    case RIGHT_PART_AWAITED:
+                        rightAwaitedAt = now;
+                        if (chargeAwaitedAt < 0) chargeAwaitedAt = now;
+                        return;
+                    case CHARGED:
+                    case DISCHARGED:
+                        if (change == StateChange.CHARGED) chargedAmount += charge - lastCharge;
+                        chargeMillis[lastCharge] += now - lastChargeChangeAt;
+                        lastCharge = charge;
+                        lastChargeChangeAt = now;
+                        return;
+                    case LEFT_PART_TAKEN:
+                        if (leftTakenAt < 0) leftTakenAt = now;
+                        leftAwaitedAt = recordWait(leftWaits, leftAwaitedAt, now);
+                        break;
+                    case RIGHT_PART_TAKEN:
+                        if (rightTakenAt < 0) rightTakenAt = now;
+                        rightAwaitedAt = recordWait(rightWaits, rightAwaitedAt, now);
+                        break;
+                    case LEFT_PART_FREED:
+                        leftTakenAt = recordHold(leftTakenAt, now);
+                        break;
+                    case RIGHT_PART_FREED:
+                        rightTakenAt = recordHold(rightTakenAt, now);
+                        break;
+                }
+                updateWait(now);
+            }
+        }
+
+        /**
+         * @return -1 as the new time the part was taken
+         */
+        private long recordHold(long takenAt, long now) {
+            if (takenAt < 0) return -1;
+            long held = now - takenAt;
+            holdCount++;
+            holdMillis += held;
+            maxHoldMillis = Math.max(maxHoldMillis, held);
+            return -1;
+        }
+
+        /**
+         * @return -1 as the new time robot started waiting
+         */
+        private long recordWait(WaitHistogram waits, long awaitedAt, long now) {
+            if (awaitedAt >= 0) waits.record(now - awaitedAt);
+            return -1;
+        }
+
+        /**
+         * Starts the wait when robot holds one part, records it when robot gathers the charger
+         * and abandons it when robot frees its only part
+         */
+        private void updateWait(long now) {
+            int held = (leftTakenAt >= 0 ? 1 : 0) + (rightTakenAt >= 0 ? 1 : 0);
+            if (held == 1) {
+                if (waitStartedAt < 0) waitStartedAt = now;
+                return;
+            }
+            if (waitStartedAt < 0) return;
+            if (held == 2) {
+                long waited = now - waitStartedAt;
+                waitCount++;
+                waitMillis += waited;
+                maxWaitMillis = Math.max(maxWaitMillis, waited);
+                timeToCharge.record(now - (chargeAwaitedAt < 0 ? waitStartedAt
+                        : Math.min(chargeAwaitedAt, waitStartedAt)));
+                chargeAwaitedAt = -1;
+            }
+            else {
+                abandonedWaits++;
+            }
+            waitStartedAt = -1;
+        }
+
+        /**
+         * @param partWaits waits for each charger part, waits of the robot are added to its parts
+         * @param timeToCharge waits for the charge of all the robots, waits of the robot are added to it
+         * @return metrics of the robot
+         */
+        synchronized RobotMetrics snapshot(long now, WaitHistogram[] partWaits, WaitHistogram timeToCharge) {
+            partWaits[seat].add(leftWaits);
+            partWaits[(seat + partWaits.length - 1) % partWaits.length].add(rightWaits);
+            timeToCharge.add(this.timeToCharge);
+            long[] charges = chargeMillis.clone();
+            charges[lastCharge] += Math.max(0, now - lastChargeChangeAt);
+            return new RobotMetrics(seat, robot.getCharge(), yields.sum(), holdCount, holdMillis, maxHoldMillis,
+                    waitCount, waitMillis, maxWaitMillis, abandonedWaits, chargedAmount, robot.getRetrySpins(),
+                    robot.getRetryYields(), robot.getRetryParks(), robot.getParkedMillis(), charges);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.cyxoud.robots.metrics;
+
+/**
+ * Management interface of the metrics of the running modelling. Each attribute is read from a fresh snapshot
+ */
+public interface TableMetricsMXBean {
+    /**
+     * @return modelling time in milliseconds
+     */
+    long getTimeMillis();
+
+    /**
+     * @return charges of the robots in the order of their seats
+     */
+    int[] getCharges();
+
+    long getTakeAttempts();
+
+    long getTakeFailures();
+
+    /**
+     * @return number of failed attempts to take each charger part
+     */
+    long[] getTakeFailuresByPart();
+
+    /**
+     * @return index of the charger part with the most failed attempts to take it
+     */
+    int getMostContendedPart();
+
+    /**
+     * @return number of the charger parts freed in favour of the neighbours
+     */
+    long getYields();
+
+    /**
+     * @return charge all the robots got from the charger per second of the modelling time
+     */
+    double getChargeThroughput();
+
+    /**
+     * @return number of retries the blocked robots did right away
+     */
+    long getRetrySpins();
+
+    /**
+     * @return number of retries the blocked robots did after yielding the processor
+     */
+    long getRetryYields();
+
+    /**
+     * @return number of retries the blocked robots did after parking
+     */
+    long getRetryParks();
+
+    /**
+     * @return total time the blocked robots parked in milliseconds
+     */
+    long getParkedMillis();
+
+    /**
+     * @return 99th percentile of the waits for each charger part from the failed attempt to take it until it was
+     * taken, in milliseconds
+     */
+    long[] getWaitP99MillisByPart();
+
+    /**
+     * @return 99th percentile of the waits from the first failed attempt to take a part until robot gathered
+     * the charger, in milliseconds
+     */
+    long getTimeToChargeP99Millis();
+
+    /**
+     * @return mean time each robot held a charger part in milliseconds
+     */
+    double[] getMeanHoldMillisBySeat();
+
+    /**
+     * @return mean time each robot held one charger part before it gathered the charger in milliseconds
+     */
+    double[] getMeanWaitMillisBySeat();
+}
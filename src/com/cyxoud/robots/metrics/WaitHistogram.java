@@ -0,0 +1,81 @@
+package com.cyxoud.robots.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of wait times in milliseconds. Waits shorter than 32 ms are counted exactly, longer waits in 16 buckets
+ * per power of two, so percentiles are within 1/16 of the wait. Buckets grow with the longest wait, so histograms
+ * of the short waits stay small. Not thread safe
+ */
+final class WaitHistogram {
+    /** number of bits of the wait kept in its bucket */
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** number of waits in each bucket or null if there are no waits */
+    private long[] counts;
+    private long count;
+    private long max;
+
+    void record(long millis) {
+        int index = indexOf(Math.max(0, millis));
+        if (counts == null || index >= counts.length) {
+            counts = counts == null ? new long[index + 1] : Arrays.copyOf(counts, index + 1);
+        }
+        counts[index]++;
+        count++;
+        max = Math.max(max, millis);
+    }
+
+    /**
+     * Adds waits of another histogram to this one
+     */
+    void add(WaitHistogram other) {
+        if (other.counts == null) return;
+        if (counts == null || counts.length < other.counts.length) {
+            counts = counts == null ? new long[other.counts.length] : Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int index = 0; index < other.counts.length; index++) {
+            counts[index] += other.counts[index];
+        }
+        count += other.count;
+        max = Math.max(max, other.max);
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    long getMax() {
+        return max;
+    }
+
+    /**
+     * @param percentile percentile from 0 to 100, e.g. 99
+     * @return longest wait of the bucket the percentile falls into, never longer than the longest wait,
+     * or 0 if there are no waits
+     */
+    long getPercentile(double percentile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int index = 0; index < counts.length; index++) {
+            seen += counts[index];
+            if (seen >= rank) return Math.min(upperBound(index), max);
+        }
+        return max;
+    }
+
+    private static int indexOf(long millis) {
+        if (millis < SUB_BUCKETS) return (int) millis;
+        int shift = 63 - Long.numberOfLeadingZeros(millis) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((millis >> shift) & (SUB_BUCKETS - 1));
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,35 @@
+package com.cyxoud.robots.simulation;
+
+import com.cyxoud.robots.entities.SimulationConfig;
+
+/**
+ * Represents source of the modelling time in milliseconds since the modelling start
+ */
+public interface Clock {
+    /**
+     * @return time in milliseconds since the modelling start
+     */
+    long millis();
+
+    /**
+     * @return clock of the real time that starts counting now
+     */
+    static Clock startingNow() {
+        return startingNow(SimulationConfig.DEFAULT);
+    }
+
+    /**
+     * @param config constants of the modelling
+     * @return clock of the modelling time that starts counting now and runs faster than the wall clock
+     * by the time scale of the config
+     */
+    static Clock startingNow(final SimulationConfig config) {
+        final long start = System.nanoTime();
+        return new Clock() {
+            @Override
+            public long millis() {
+                return config.toModelMillis(System.nanoTime() - start);
+            }
+        };
+    }
+}
@@ -0,0 +1,1125 @@
+package com.cyxoud.robots.simulation;
+
+import com.cyxoud.robots.entities.Robot;
+import com.cyxoud.robots.entities.RobotView;
+import com.cyxoud.robots.entities.SimulationConfig;
+import com.cyxoud.robots.entities.Strategy;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * Represents modelling of the built-in strategies in virtual time for very large tables. The table is kept in
+ * primitive arrays indexed by seat instead of one {@link Robot} and one charger part object per seat: charges,
+ * owners of the charger parts, strategy codes and flags. Pending events live in binary heaps of event ids,
+ * so processing an event allocates nothing.
+ * <p>
+ * The modelling has the same semantics as {@link DiscreteEventSimulation} over the table built by
+ * {@link com.cyxoud.robots.TableBuilder}: the same rounds and colors of the events, the same random streams
+ * of the seats, so the same strategies and seed give the same result. Charger part i lies at the left of seat i
+ * and at the right of seat i + 1. Robot at the seat is seen through {@link #getRobot(int)}
+ * <p>
+ * The ring may be split into contiguous segments modelled on their own threads. Events with the same time, round
+ * and color form a batch: robots of the same color don't share charger parts, so the segments process the batch
+ * independently and meet at the barrier before the next one. Wake ups of the seats of other segments are passed
+ * at the barrier. The terminate condition may be met in the middle of a batch, so a batch that might meet it is
+ * processed in the order of seats on one thread, and the result is the same for any number of segments. Events
+ * of the batch change only robots of its color, so only a batch of the color of all the robots that are neither
+ * disconnected nor full charged might meet it
+ */
+public class CompactSimulation {
+    /** kind of the event that discharges the robot */
+    private static final int DISCHARGE = 0;
+    /** kind of the event that does a step of the robot's strategy */
+    private static final int STRATEGY = 1;
+    /** owner of the charger part that is free */
+    private static final int FREE = -1;
+
+    private static final byte RANDOM = (byte) Strategy.RANDOM.ordinal();
+    private static final byte GREEDY = (byte) Strategy.GREEDY.ordinal();
+
+    /** number of seats at the table */
+    private final int size;
+    /** timing and charge constants of the modelling */
+    private final SimulationConfig config;
+    /** cached constants of the config, they are read on every event */
+    private final int fullCharge;
+    private final long chargeDelayTime;
+    private final long dischargeDelayTime;
+
+    /** strategy of each seat as the ordinal of {@link Strategy} */
+    private final byte[] strategies;
+    /** charge of each robot. Full charge never exceeds 127 */
+    private final byte[] charges;
+    /** seat that owns each charger part or {@link #FREE} */
+    private final int[] owners;
+    /**
+     * seat that waits for each fair charger part first or {@link #FREE}, null if parts aren't fair. Part is shared
+     * by two seats, so its queue has at most two seats
+     */
+    private final int[] firstInLine;
+    /** seat that waits for each fair charger part after the first one or {@link #FREE} */
+    private final int[] secondInLine;
+    /** shows if robot at seat collected the charger and its strategy is charging it */
+    private final boolean[] charging;
+    /** random stream of each seat with random strategy, null for other seats */
+    private final SplittableRandom[] randoms;
+    /** time of the pending event with the id, the event of the seat has id 2 * seat + kind */
+    private final long[] eventTimes;
+    /** round of the pending event with the id */
+    private final int[] eventRounds;
+    /** shows if robot at seat waits for the state change of its neighbours */
+    private final boolean[] blocked;
+    /** shows if robot at seat changed its state during the current event */
+    private final boolean[] changed;
+
+    /** contiguous parts of the ring in the order of seats. Each seat is changed only by its segment */
+    private final Segment[] segments;
+    /** outcome of the modelling or null if it isn't finished */
+    private Outcome outcome;
+    /** round of the event or the batch that is being processed */
+    private int currentRound;
+    /** color of the batch that is being processed by the segments */
+    private int currentColor;
+    /** virtual time of the modelling */
+    private final VirtualClock clock = new VirtualClock();
+
+    /** recognizes the cycle of the table or null if modelling isn't checked for steady state */
+    private final SteadyStateDetector steadyStateDetector;
+    /** virtual time of the next sample of the table */
+    private long nextSampleTime;
+    /** cycle the table settled into or null if it wasn't recognized */
+    private SteadyState steadyState;
+
+    /** shows if the segments should stop at the barrier. Changed only by the barrier action */
+    private boolean stopped;
+    /** true if the run finished the modelling and false if it reached the time limit */
+    private boolean finished;
+    /** time limit of the current run */
+    private long timeLimit;
+    /** failure of one of the segments or of the barrier action */
+    private volatile RuntimeException failure;
+
+    /**
+     * Lays out the table and schedules first events
+     * @param strategies strategies of the robots in the order of their seats
+     * @param random source of the random streams of the seats, split in the order of seats like the table builder does
+     * @param config timing and charge constants of the modelling
+     */
+    public CompactSimulation(Strategy[] strategies, SplittableRandom random, SimulationConfig config) {
+        this(strategies, random, config, null);
+    }
+
+    /**
+     * Lays out the table and schedules first events
+     * @param strategies strategies of the robots in the order of their seats
+     * @param random source of the random streams of the seats, split in the order of seats like the table builder does
+     * @param config timing and charge constants of the modelling
+     * @param steadyStateDetector detector that finishes the modelling when the table settles into a cycle,
+     *                            null if modelling may run forever
+     */
+    public CompactSimulation(Strategy[] strategies, SplittableRandom random, SimulationConfig config,
+                             SteadyStateDetector steadyStateDetector) {
+        this(strategies, random, config, steadyStateDetector, 1);
+    }
+
+    /**
+     * Lays out the table split into segments and schedules first events
+     * @param strategies strategies of the robots in the order of their seats
+     * @param random source of the random streams of the seats, split in the order of seats like the table builder does
+     * @param config timing and charge constants of the modelling
+     * @param steadyStateDetector detector that finishes the modelling when the table settles into a cycle,
+     *                            null if modelling may run forever
+     * @param partitions number of segments modelled on their own threads, e.g. number of cores.
+     *                   The table isn't split into more segments than it has seats
+     */
+    public CompactSimulation(Strategy[] strategies, SplittableRandom random, SimulationConfig config,
+                             SteadyStateDetector steadyStateDetector, int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Illegal number of partitions: " + partitions);
+        }
+        this.config = config;
+        this.steadyStateDetector = steadyStateDetector;
+        size = strategies.length;
+        fullCharge = config.getFullCharge();
+        chargeDelayTime = config.getChargeDelayTime();
+        dischargeDelayTime = config.getDischargeDelayTime();
+
+        this.strategies = new byte[size];
+        charges = new byte[size];
+        owners = new int[size];
+        firstInLine = config.isFairChargerParts() ? new int[size] : null;
+        secondInLine = config.isFairChargerParts() ? new int[size] : null;
+        charging = new boolean[size];
+        randoms = new SplittableRandom[size];
+        eventTimes = new long[2 * size];
+        eventRounds = new int[2 * size];
+        blocked = new boolean[size];
+        changed = new boolean[size];
+
+        int segmentCount = Math.max(1, Math.min(partitions, size));
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment((int) ((long) size * i / segmentCount),
+                    (int) ((long) size * (i + 1) / segmentCount));
+        }
+
+        for (int seat = 0; seat < size; seat++) {
+            this.strategies[seat] = (byte) strategies[seat].ordinal();
+            charges[seat] = (byte) config.getInitialCharge();
+            owners[seat] = FREE;
+            if (firstInLine != null) {
+                firstInLine[seat] = FREE;
+                secondInLine[seat] = FREE;
+            }
+            SplittableRandom seatRandom = random.split();
+            if (this.strategies[seat] == RANDOM) {
+                randoms[seat] = seatRandom;
+            }
+        }
+        for (Segment segment : segments) {
+            segment.start();
+        }
+        checkCompletion();
+    }
+
+    /**
+     * Runs the modelling until terminate condition is met, steady state is recognized or virtual time reaches the limit.
+     * Table split into segments is modelled on one thread per segment, the current thread models the first one
+     * @param timeLimit virtual time in milliseconds after which no events are processed
+     * @return true if modelling finished and false if it reached the time limit
+     */
+    public boolean runUntil(long timeLimit) {
+        if (segments.length == 1) {
+            return segments[0].runUntil(timeLimit);
+        }
+        if (outcome != null) return true;
+
+        this.timeLimit = timeLimit;
+        stopped = false;
+        failure = null;
+        CyclicBarrier barrier = new CyclicBarrier(segments.length, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    prepareBatch();
+                } catch (RuntimeException e) {
+                    failure = e;
+                    stopped = true;
+                }
+            }
+        });
+        Thread[] threads = new Thread[segments.length - 1];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new SegmentWorker(segments[i + 1], barrier), "compact-segment-" + (i + 1));
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+        new SegmentWorker(segments[0], barrier).run();
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the segments of the modelling", e);
+            }
+        }
+        if (failure != null) throw failure;
+        return finished;
+    }
+
+    /**
+     * Action of the barrier: passes wake ups between the segments and chooses the next batch. Batches that might meet
+     * the terminate condition are processed right here in the order of seats, the others are left for the segments.
+     * Sets the stopped flag when the modelling finished or reached the time limit
+     */
+    private void prepareBatch() {
+        while (true) {
+            for (Segment segment : segments) {
+                segment.flushForeignWakeUps();
+            }
+            if (checkCompletion()) {
+                stop(true);
+                return;
+            }
+
+            int first = -1;
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i].heapSize > 0 && (first < 0 || segments[i].headBefore(segments[first]))) {
+                    first = i;
+                }
+            }
+            if (first < 0) {
+                throw new IllegalStateException("No events left but the modelling is not finished");
+            }
+            int head = segments[first].heap[0];
+            long time = eventTimes[head];
+            if (time > timeLimit) {
+                stop(false);
+                return;
+            }
+            if (steadyStateDetector != null && time >= nextSampleTime && sampleSteadyState(time)) {
+                stop(true);
+                return;
+            }
+
+            clock.advanceTo(time);
+            currentRound = eventRounds[head];
+            currentColor = color(head >> 1);
+            int settlingEvents = 0;
+            for (Segment segment : segments) {
+                settlingEvents += segment.countSettlingEvents(0);
+            }
+            // each of these events brings at most one robot of the batch color to full charge or disconnects it,
+            // and robots of the other colors stay as they are
+            int unsettled = unsettledCount(currentColor);
+            if (settlingEvents < unsettled || unsettled < activeCount() - fullChargedCount()) return;
+
+            for (Segment segment : segments) {
+                if (!segment.processBatch(true)) {
+                    stop(true);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void stop(boolean finished) {
+        this.finished = finished;
+        stopped = true;
+    }
+
+    /**
+     * Completes the modelling if all robots are discharged or all alive robots are full charged
+     * @return true if modelling is finished
+     */
+    private boolean checkCompletion() {
+        if (outcome != null) return true;
+
+        int active = activeCount();
+        if (active == 0) {
+            outcome = Outcome.ALL_DISCHARGED;
+        }
+        else if (fullChargedCount() == active) {
+            outcome = Outcome.ALL_ALIVE_FULL_CHARGED;
+        }
+        return outcome != null;
+    }
+
+    private int activeCount() {
+        int count = 0;
+        for (Segment segment : segments) {
+            count += segment.activeCount;
+        }
+        return count;
+    }
+
+    private int fullChargedCount() {
+        int count = 0;
+        for (Segment segment : segments) {
+            count += segment.fullChargedCount;
+        }
+        return count;
+    }
+
+    /**
+     * @param color color of the seats
+     * @return number of active robots of the color that aren't full charged
+     */
+    private int unsettledCount(int color) {
+        int count = 0;
+        for (Segment segment : segments) {
+            count += segment.unsettledCounts[color];
+        }
+        return count;
+    }
+
+    /**
+     * Samples the table at the start of the discharge period the event belongs to, like the modelling of the robots
+     * @param eventTime time of the next event
+     * @return true if modelling was finished as non terminating
+     */
+    private boolean sampleSteadyState(long eventTime) {
+        long sampleTime = eventTime - eventTime % dischargeDelayTime;
+        nextSampleTime = sampleTime + dischargeDelayTime;
+        long[] state = new long[size];
+        boolean exact = true;
+        for (int seat = 0; seat < size; seat++) {
+            if (charges[seat] == 0) continue;
+            long seatState = SteadyStateDetector.packSeat(charges[seat], owners[seat] == seat,
+                    owners[rightPart(seat)] == seat, charging[seat], getTurn(seat, seat),
+                    getTurn(seat, rightPart(seat)));
+            if (strategies[seat] != RANDOM) {
+                long nextStep = blocked[seat] ? SteadyStateDetector.BLOCKED
+                        : eventTimes[2 * seat + STRATEGY] - sampleTime;
+                seatState = SteadyStateDetector.withNextStep(seatState, nextStep);
+            }
+            else {
+                exact = false;
+            }
+            state[seat] = seatState;
+        }
+
+        SteadyState detected = steadyStateDetector.sample(sampleTime, state, exact);
+        if (detected == null) return false;
+        outcome = Outcome.NON_TERMINATING;
+        steadyState = detected;
+        clock.advanceTo(sampleTime);
+        return true;
+    }
+
+    private boolean checkChargePartsAvailability(int seat) {
+        int rightPart = rightPart(seat);
+        return (owners[rightPart] == seat || isFreeFor(seat, rightPart))
+                && (owners[seat] == seat || isFreeFor(seat, seat));
+    }
+
+    /**
+     * @return true if part is free and, if it is fair, no other seat waits for it before the seat
+     */
+    private boolean isFreeFor(int seat, int part) {
+        return owners[part] == FREE && (firstInLine == null || firstInLine[part] == FREE || firstInLine[part] == seat);
+    }
+
+    /**
+     * @return turn of the seat in the queue of the fair part starting from 1 or 0 if it isn't there
+     */
+    private int getTurn(int seat, int part) {
+        if (firstInLine == null) return 0;
+        return firstInLine[part] == seat ? 1 : secondInLine[part] == seat ? 2 : 0;
+    }
+
+    private boolean gatheredCharging(int seat) {
+        return owners[seat] == seat && owners[rightPart(seat)] == seat;
+    }
+
+    /**
+     * @return charger part at the right of the seat, the part at its left has the index of the seat
+     */
+    private int rightPart(int seat) {
+        return seat == 0 ? size - 1 : seat - 1;
+    }
+
+    /**
+     * @return seat that shares the left charger part
+     */
+    private int leftNeighbour(int seat) {
+        return seat == size - 1 ? 0 : seat + 1;
+    }
+
+    /**
+     * @return seat that shares the right charger part
+     */
+    private int rightNeighbour(int seat) {
+        return rightPart(seat);
+    }
+
+    /**
+     * @return 0 for even seats and 1 for odd seats. The last seat of the odd table shares parts with seat 0, so it gets 2
+     */
+    private int color(int seat) {
+        if (size % 2 == 1 && size > 1 && seat == size - 1) return 2;
+        return seat & 1;
+    }
+
+    /**
+     * Orders events by time, round, color of the seat, seat and kind like the modelling of the robots does.
+     * Seat and kind are compared together as the event id
+     */
+    private boolean before(int event, int other) {
+        if (eventTimes[event] != eventTimes[other]) return eventTimes[event] < eventTimes[other];
+        if (eventRounds[event] != eventRounds[other]) return eventRounds[event] < eventRounds[other];
+        int color = color(event >> 1);
+        int otherColor = color(other >> 1);
+        if (color != otherColor) return color < otherColor;
+        return event < other;
+    }
+
+    /**
+     * @return segment the seat belongs to
+     */
+    private Segment segmentOf(int seat) {
+        int low = 0;
+        int high = segments.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (segments[middle].from <= seat) {
+                low = middle;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+        return segments[low];
+    }
+
+    /**
+     * @return result of the modelling at the current virtual time. Outcome is null if modelling isn't finished
+     */
+    public SimulationResult getResult() {
+        int[] result = new int[size];
+        for (int seat = 0; seat < size; seat++) {
+            result[seat] = charges[seat];
+        }
+        return new SimulationResult(outcome, clock.millis(), result, steadyState, fullCharge);
+    }
+
+    /**
+     * @param seat seat of the robot at the table
+     * @return view of the robot at the seat backed by the arrays of the modelling. Random stream is available only
+     * for the seats with random strategy, and the view can't wait for charger parts since there is no real time
+     */
+    public RobotView getRobot(int seat) {
+        if (seat < 0 || seat >= size) {
+            throw new IllegalArgumentException("Illegal seat: " + seat + ". Table has " + size + " robots");
+        }
+        return new SeatView(seat);
+    }
+
+    public int getRobotCount() {
+        return size;
+    }
+
+    /**
+     * @return number of segments the table is split into
+     */
+    public int getPartitionCount() {
+        return segments.length;
+    }
+
+    /**
+     * @return outcome of the modelling or null if it isn't finished
+     */
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return cycle the table settled into or null if it wasn't recognized
+     */
+    public SteadyState getSteadyState() {
+        return steadyState;
+    }
+
+    /**
+     * @return virtual clock of the modelling
+     */
+    public VirtualClock getClock() {
+        return clock;
+    }
+
+    public long getProcessedEvents() {
+        long processedEvents = 0;
+        for (Segment segment : segments) {
+            processedEvents += segment.processedEvents;
+        }
+        return processedEvents;
+    }
+
+    /**
+     * Contiguous seats of the ring with their own pending events. Segment changes only the state of its seats and
+     * the charger parts at their left and right, which aren't touched by the other segments in the same batch
+     */
+    private class Segment {
+        /** first seat of the segment */
+        private final int from;
+        /** seat after the last seat of the segment */
+        private final int to;
+        /** ids of the pending events of the segment ordered as a binary heap */
+        private final int[] heap;
+        /** number of pending events */
+        private int heapSize;
+        /** seats that changed their state during the current event */
+        private final int[] changedSeats;
+        /** number of seats in changedSeats */
+        private int changedCount;
+        /** seats of the other segments to wake up at the barrier */
+        private int[] foreignWakeUps = new int[4];
+        /** number of seats in foreignWakeUps */
+        private int foreignWakeUpCount;
+        /** number of active robots of the segment */
+        private int activeCount;
+        /** number of active robots of the segment that are full charged */
+        private int fullChargedCount;
+        /** number of active robots of the segment that aren't full charged by the color of their seats */
+        private final int[] unsettledCounts = new int[3];
+        /** number of processed events */
+        private long processedEvents;
+
+        Segment(int from, int to) {
+            this.from = from;
+            this.to = to;
+            heap = new int[2 * (to - from)];
+            changedSeats = new int[to - from];
+        }
+
+        /**
+         * Schedules first events of the seats
+         */
+        void start() {
+            for (int seat = from; seat < to; seat++) {
+                schedule(2 * seat + STRATEGY, 0, 0);
+                schedule(2 * seat + DISCHARGE, dischargeDelayTime, 0);
+            }
+            activeCount = to - from;
+            fullChargedCount = config.getInitialCharge() == fullCharge ? to - from : 0;
+            if (fullChargedCount == 0) {
+                for (int seat = from; seat < to; seat++) {
+                    unsettledCounts[color(seat)]++;
+                }
+            }
+        }
+
+        /**
+         * Runs the modelling of the whole table event by event
+         * @param timeLimit virtual time in milliseconds after which no events are processed
+         * @return true if modelling finished and false if it reached the time limit
+         */
+        boolean runUntil(long timeLimit) {
+            while (!checkCompletion()) {
+                if (heapSize == 0) {
+                    throw new IllegalStateException("No events left but the modelling is not finished");
+                }
+                int event = heap[0];
+                long time = eventTimes[event];
+                if (time > timeLimit) return false;
+                if (steadyStateDetector != null && time >= nextSampleTime && sampleSteadyState(time)) {
+                    return true;
+                }
+
+                poll();
+                clock.advanceTo(time);
+                currentRound = eventRounds[event];
+                process(event);
+                wakeNeighboursOfChangedSeats();
+            }
+            return true;
+        }
+
+        /**
+         * Processes events of the segment that belong to the current batch
+         * @param checked true if terminate condition is checked after each event
+         * @return false if the terminate condition was met and the rest of the batch was left
+         */
+        boolean processBatch(boolean checked) {
+            while (heapSize > 0 && inBatch(heap[0])) {
+                int event = heap[0];
+                poll();
+                process(event);
+                wakeNeighboursOfChangedSeats();
+                if (checked && checkCompletion()) return false;
+            }
+            return true;
+        }
+
+        /**
+         * @param index index in the heap
+         * @return number of events of the current batch in the subtree of the heap that might bring their robot
+         * to full charge or disconnect it
+         */
+        int countSettlingEvents(int index) {
+            if (index >= heapSize || !inBatch(heap[index])) return 0;
+            return (maySettle(heap[index]) ? 1 : 0) + countSettlingEvents(2 * index + 1)
+                    + countSettlingEvents(2 * index + 2);
+        }
+
+        /**
+         * Strategy step charges the robot at most once and discharge takes one step of charge, so only a robot that
+         * is one step away from full charge or from zero may settle during the batch
+         */
+        private boolean maySettle(int event) {
+            int charge = charges[event >> 1];
+            if (charge == 0 || charge == fullCharge) return false;
+            if ((event & 1) == DISCHARGE) return charge <= config.getOneStepDischarge();
+            return charge + config.getChargeAmount() >= fullCharge;
+        }
+
+        private boolean inBatch(int event) {
+            return eventTimes[event] == clock.millis() && eventRounds[event] == currentRound
+                    && color(event >> 1) == currentColor;
+        }
+
+        /**
+         * @return true if the first event of the segment goes before the first event of the other segment
+         */
+        boolean headBefore(Segment other) {
+            return other.heapSize == 0 || before(heap[0], other.heap[0]);
+        }
+
+        /**
+         * Discharges the robot or does the step of its strategy and schedules its next event
+         * @param event id of the event to process
+         */
+        private void process(int event) {
+            processedEvents++;
+            int seat = event >> 1;
+            if (charges[seat] == 0) return;
+
+            if ((event & 1) == DISCHARGE) {
+                beDischarged(seat);
+                if (charges[seat] != 0) {
+                    schedule(event, clock.millis() + dischargeDelayTime, 0);
+                }
+                return;
+            }
+
+            long delay = step(seat);
+            if (delay > 0) {
+                schedule(event, clock.millis() + delay, 0);
+            }
+            else if (delay == Robot.CONTINUE) {
+                schedule(event, clock.millis(), currentRound + 1);
+            }
+            else {
+                blocked[seat] = true;
+            }
+        }
+
+        /**
+         * Does one step of the strategy of the seat, the same steps as the constants of {@link Strategy} do
+         * @return time to wait before the next step, {@link Robot#CONTINUE} or {@link Robot#BLOCKED}
+         */
+        private long step(int seat) {
+            byte strategy = strategies[seat];
+            if (strategy == RANDOM) return stepRandom(seat);
+            if (strategy == GREEDY) return stepGreedy(seat);
+            return stepGentlemanly(seat);
+        }
+
+        private long stepRandom(int seat) {
+            if (charging[seat]) {
+                beCharged(seat);
+                return chargeDelayTime + randoms[seat].nextInt((int) config.getRandomMinSleep(),
+                        (int) config.getRandomMaxSleep() + 1);
+            }
+
+            if (charges[seat] == fullCharge || !checkChargePartsAvailability(seat)) {
+                return Robot.BLOCKED;
+            }
+
+            tryTakeChargerParts(seat);
+
+            if (gatheredCharging(seat)) {
+                charging[seat] = true;
+                return chargeDelayTime;
+            }
+            return Robot.CONTINUE;
+        }
+
+        private long stepGreedy(int seat) {
+            if (charging[seat]) {
+                beCharged(seat);
+                if (charges[seat] != fullCharge) {
+                    return chargeDelayTime;
+                }
+                charging[seat] = false;
+                return Robot.CONTINUE;
+            }
+
+            if (charges[seat] < config.getGreedyChargeThreshold()) {
+                tryTakeChargerParts(seat);
+
+                if (gatheredCharging(seat)) {
+                    charging[seat] = true;
+                    return chargeDelayTime;
+                }
+                return Robot.BLOCKED;
+            }
+            return config.getGreedyDelayTime();
+        }
+
+        private long stepGentlemanly(int seat) {
+            if (charging[seat]) {
+                charging[seat] = false;
+                beCharged(seat);
+                return Robot.CONTINUE;
+            }
+
+            tryTakeChargerParts(seat);
+
+            if (yieldToNeighbour(seat)) {
+                return config.getGentlemanlySleepTime();
+            }
+            if (gatheredCharging(seat)) {
+                charging[seat] = true;
+                return chargeDelayTime;
+            }
+            return Robot.BLOCKED;
+        }
+
+        /**
+         * Frees charger part to one of the neighbours if robot has part and its charge is higher than charge of
+         * the active neighbour
+         * @return true if left or right part was freed
+         */
+        private boolean yieldToNeighbour(int seat) {
+            int leftNeighbour = leftNeighbour(seat);
+            int rightNeighbour = rightNeighbour(seat);
+            int charge = charges[seat];
+            if (owners[seat] == seat && charges[leftNeighbour] != 0 && charges[leftNeighbour] < charge) {
+                return tryFreeChargerPart(seat, seat);
+            }
+            else if (owners[rightPart(seat)] == seat && charges[rightNeighbour] != 0
+                    && charges[rightNeighbour] < charge) {
+                return tryFreeChargerPart(seat, rightPart(seat));
+            }
+            return false;
+        }
+
+        void beCharged(int seat) {
+            int charge = charges[seat];
+            if (charge == 0 || charge == fullCharge || !gatheredCharging(seat)) return;
+            int chargeAfter = Math.min(charge + config.getChargeAmount(), fullCharge);
+            charges[seat] = (byte) chargeAfter;
+            markChanged(seat);
+            if (chargeAfter == fullCharge) {
+                fullChargedCount++;
+                unsettledCounts[color(seat)]--;
+            }
+        }
+
+        private void beDischarged(int seat) {
+            int charge = charges[seat];
+            if (charge == 0) return;
+            int chargeAfter = Math.max(charge - config.getOneStepDischarge(), 0);
+            if (charge == fullCharge) {
+                fullChargedCount--;
+                unsettledCounts[color(seat)]++;
+            }
+            charges[seat] = (byte) chargeAfter;
+            if (chargeAfter == 0) {
+                activeCount--;
+                unsettledCounts[color(seat)]--;
+                tryFreeChargerPart(seat, seat);
+                tryFreeChargerPart(seat, rightPart(seat));
+                leaveQueue(seat, seat);
+                leaveQueue(seat, rightPart(seat));
+            }
+            markChanged(seat);
+        }
+
+        /**
+         * Takes both charger parts of the seat the way {@link Robot#tryTakeChargerParts()} does. Parts are ranked
+         * in the order of their indexes, as the table builder creates them
+         * @return true if robot gathered the charger
+         */
+        boolean tryTakeChargerParts(int seat) {
+            int rightPart = rightPart(seat);
+            int first = Math.min(seat, rightPart);
+            int second = Math.max(seat, rightPart);
+            switch (config.getPartAcquisition()) {
+                case ORDERED:
+                    if (owners[first] == seat || tryTakeChargerPart(seat, first)) tryTakeChargerPart(seat, second);
+                    else tryFreeChargerPart(seat, second);
+                    break;
+                case ALL_OR_NOTHING:
+                    if (checkChargePartsAvailability(seat)) {
+                        tryTakeChargerPart(seat, first);
+                        tryTakeChargerPart(seat, second);
+                    }
+                    if (!gatheredCharging(seat)) {
+                        tryFreeChargerPart(seat, seat);
+                        tryFreeChargerPart(seat, rightPart);
+                    }
+                    break;
+                default:
+                    tryTakeChargerPart(seat, seat);
+                    tryTakeChargerPart(seat, rightPart);
+            }
+            return gatheredCharging(seat);
+        }
+
+        /**
+         * Takes the part like {@link com.cyxoud.robots.entities.ChargerPart#tryBeTaken} does. Seat that fails
+         * to take the fair part waits for it in the queue
+         */
+        boolean tryTakeChargerPart(int seat, int part) {
+            if (charges[seat] == 0) return false;
+            if (!isFreeFor(seat, part)) {
+                if (firstInLine != null && owners[part] != seat && getTurn(seat, part) == 0) {
+                    if (firstInLine[part] == FREE) firstInLine[part] = seat;
+                    else secondInLine[part] = seat;
+                }
+                return false;
+            }
+            owners[part] = seat;
+            if (firstInLine != null && firstInLine[part] == seat) {
+                firstInLine[part] = secondInLine[part];
+                secondInLine[part] = FREE;
+            }
+            markChanged(seat);
+            return true;
+        }
+
+        private void leaveQueue(int seat, int part) {
+            if (firstInLine == null) return;
+            if (firstInLine[part] == seat) {
+                firstInLine[part] = secondInLine[part];
+                secondInLine[part] = FREE;
+            }
+            else if (secondInLine[part] == seat) {
+                secondInLine[part] = FREE;
+            }
+        }
+
+        boolean tryFreeChargerPart(int seat, int part) {
+            if (owners[part] != seat) return false;
+            owners[part] = FREE;
+            markChanged(seat);
+            return true;
+        }
+
+        private void markChanged(int seat) {
+            if (!changed[seat]) {
+                changed[seat] = true;
+                changedSeats[changedCount++] = seat;
+            }
+        }
+
+        /**
+         * Schedules next step of the blocked robots which neighbours or themselves changed the state in the next
+         * round. Seats of the other segments are of the other color and aren't processed in this batch,
+         * so they are woken up at the barrier
+         */
+        private void wakeNeighboursOfChangedSeats() {
+            for (int i = 0; i < changedCount; i++) {
+                int seat = changedSeats[i];
+                changed[seat] = false;
+                wakeOrPass(rightNeighbour(seat));
+                wake(seat);
+                wakeOrPass(leftNeighbour(seat));
+            }
+            changedCount = 0;
+        }
+
+        private void wakeOrPass(int seat) {
+            if (seat >= from && seat < to) {
+                wake(seat);
+                return;
+            }
+            if (foreignWakeUpCount == foreignWakeUps.length) {
+                int[] grown = new int[2 * foreignWakeUps.length];
+                System.arraycopy(foreignWakeUps, 0, grown, 0, foreignWakeUpCount);
+                foreignWakeUps = grown;
+            }
+            foreignWakeUps[foreignWakeUpCount++] = seat;
+        }
+
+        /**
+         * Wakes up seats of the other segments passed during the last batch
+         */
+        void flushForeignWakeUps() {
+            for (int i = 0; i < foreignWakeUpCount; i++) {
+                int seat = foreignWakeUps[i];
+                segmentOf(seat).wake(seat);
+            }
+            foreignWakeUpCount = 0;
+        }
+
+        void wake(int seat) {
+            if (blocked[seat] && charges[seat] != 0) {
+                blocked[seat] = false;
+                schedule(2 * seat + STRATEGY, clock.millis(), currentRound + 1);
+            }
+        }
+
+        private void schedule(int event, long time, int round) {
+            eventTimes[event] = time;
+            eventRounds[event] = round;
+            int index = heapSize++;
+            while (index > 0) {
+                int parent = (index - 1) >> 1;
+                if (!before(event, heap[parent])) break;
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = event;
+        }
+
+        private void poll() {
+            int last = heap[--heapSize];
+            int index = 0;
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= heapSize) break;
+                if (child + 1 < heapSize && before(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!before(heap[child], last)) break;
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = last;
+        }
+    }
+
+    /**
+     * Processes the batches of one segment chosen at the barrier until the modelling is stopped
+     */
+    private class SegmentWorker implements Runnable {
+        private final Segment segment;
+        private final CyclicBarrier barrier;
+
+        SegmentWorker(Segment segment, CyclicBarrier barrier) {
+            this.segment = segment;
+            this.barrier = barrier;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    barrier.await();
+                    if (stopped) return;
+                    segment.processBatch(false);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = new IllegalStateException("Segment of the modelling was interrupted", e);
+                barrier.reset();
+            } catch (BrokenBarrierException e) {
+                if (failure == null) {
+                    failure = new IllegalStateException("Segment of the modelling failed", e);
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+                barrier.reset();
+            }
+        }
+    }
+
+    /**
+     * Robot at the seat seen through the arrays of the modelling
+     */
+    private class SeatView implements RobotView {
+        private final int seat;
+        private final Segment segment;
+
+        SeatView(int seat) {
+            this.seat = seat;
+            segment = segmentOf(seat);
+        }
+
+        @Override
+        public int getCharge() {
+            return charges[seat];
+        }
+
+        @Override
+        public boolean isActive() {
+            return charges[seat] != 0;
+        }
+
+        @Override
+        public boolean isFullCharged() {
+            return charges[seat] == fullCharge;
+        }
+
+        @Override
+        public boolean hasLeftChargerPart() {
+            return owners[seat] == seat;
+        }
+
+        @Override
+        public boolean hasRightChargerPart() {
+            return owners[rightPart(seat)] == seat;
+        }
+
+        @Override
+        public boolean gatheredCharging() {
+            return CompactSimulation.this.gatheredCharging(seat);
+        }
+
+        @Override
+        public boolean checkChargePartsAvailability() {
+            return CompactSimulation.this.checkChargePartsAvailability(seat);
+        }
+
+        @Override
+        public void awaitChargePartsAvailability() {
+            throw new UnsupportedOperationException("Compact modelling runs only in virtual time");
+        }
+
+        @Override
+        public void backOff() {
+            throw new UnsupportedOperationException("Compact modelling runs only in virtual time");
+        }
+
+        @Override
+        public boolean tryTakeLeftChargerPart() {
+            return segment.tryTakeChargerPart(seat, seat);
+        }
+
+        @Override
+        public boolean tryTakeRightChargerPart() {
+            return segment.tryTakeChargerPart(seat, rightPart(seat));
+        }
+
+        @Override
+        public boolean tryTakeChargerParts() {
+            return segment.tryTakeChargerParts(seat);
+        }
+
+        @Override
+        public boolean tryFreeLeftChargerPart() {
+            return segment.tryFreeChargerPart(seat, seat);
+        }
+
+        @Override
+        public boolean tryFreeRightChargerPart() {
+            return segment.tryFreeChargerPart(seat, rightPart(seat));
+        }
+
+        @Override
+        public boolean yieldLeftChargerPart() {
+            return tryFreeLeftChargerPart();
+        }
+
+        @Override
+        public boolean yieldRightChargerPart() {
+            return tryFreeRightChargerPart();
+        }
+
+        @Override
+        public void beCharged() {
+            segment.beCharged(seat);
+        }
+
+        @Override
+        public boolean isCharging() {
+            return charging[seat];
+        }
+
+        @Override
+        public void setCharging(boolean charging) {
+            CompactSimulation.this.charging[seat] = charging;
+        }
+
+        @Override
+        public RobotView getLeftNeighbour() {
+            return new SeatView(leftNeighbour(seat));
+        }
+
+        @Override
+        public RobotView getRightNeighbour() {
+            return new SeatView(rightNeighbour(seat));
+        }
+
+        @Override
+        public SplittableRandom getRandom() {
+            return randoms[seat];
+        }
+
+        @Override
+        public SimulationConfig getConfig() {
+            return config;
+        }
+
+        @Override
+        public String toString() {
+            return "Robot{seat=" + seat + ", charge=" + charges[seat] + ", strategy="
+                    + Strategy.values()[strategies[seat]].getName() + '}';
+        }
+    }
+}
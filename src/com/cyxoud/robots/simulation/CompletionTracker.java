@@ -0,0 +1,242 @@
+package com.cyxoud.robots.simulation;
+
+import com.cyxoud.robots.entities.Robot;
+import com.cyxoud.robots.entities.RobotStateListener;
+import com.cyxoud.robots.entities.StateChange;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Tracks the modelling terminate condition. Tracker keeps running counts of active and full charged robots, updated
+ * on each charge transition the robots publish, so the condition is checked in O(1) and progress of the modelling
+ * may be read at any moment. Both counts are kept in one atomic long, so they are always read together
+ */
+public class CompletionTracker {
+    /** robots that participate in modelling in the order of their seats */
+    private final List<Robot> robots;
+    /** trackers of the robots in the order of their seats */
+    private final SeatTracker[] seats;
+    /** number of robots that participate in modelling */
+    private final int robotCount;
+    /** number of active robots in the high half and number of full charged active robots in the low half */
+    private final AtomicLong counts = new AtomicLong();
+    /** completed with the outcome as soon as terminate condition is met */
+    private final CompletableFuture<Outcome> completion = new CompletableFuture<>();
+    /** charges of the robots when the modelling was finished or null if it isn't finished */
+    private final AtomicReference<int[]> finalCharges = new AtomicReference<>();
+
+    /**
+     * Subscribes tracker to the state changes of all the robots
+     * @param robots list of constructed robots
+     */
+    public CompletionTracker(List<Robot> robots) {
+        this.robots = robots;
+        robotCount = robots.size();
+        seats = new SeatTracker[robotCount];
+        for (int seat = 0; seat < robotCount; seat++) {
+            seats[seat] = new SeatTracker(robots.get(seat));
+            robots.get(seat).addStateListener(seats[seat]);
+        }
+        checkCompletion(counts.get());
+    }
+
+    /**
+     * Completes the modelling if all robots are discharged or all alive robots are full charged
+     * @param counts counts of active and full charged robots at one moment
+     */
+    private void checkCompletion(long counts) {
+        if (completion.isDone()) return;
+
+        int active = activeCount(counts);
+        if (active == 0) {
+            complete(Outcome.ALL_DISCHARGED);
+        }
+        else if (fullChargedCount(counts) == active) {
+            complete(Outcome.ALL_ALIVE_FULL_CHARGED);
+        }
+    }
+
+    /**
+     * Finishes the modelling and keeps the charges of the robots. In real time robots keep being discharged until
+     * their threads are stopped, so when terminate condition is met each robot keeps the charge its tracker measured
+     * when the robot was last counted full charged or disconnected. Modelling that never terminates keeps the
+     * charges robots have right now
+     * @param outcome outcome of the modelling
+     * @return true if modelling was finished by this call and false if it was already finished
+     */
+    private boolean complete(Outcome outcome) {
+        int[] charges = new int[robotCount];
+        for (int seat = 0; seat < charges.length; seat++) {
+            int settledCharge = seats[seat].settledCharge;
+            charges[seat] = outcome == Outcome.NON_TERMINATING || settledCharge < 0
+                    ? robots.get(seat).getCharge() : settledCharge;
+        }
+        return finalCharges.compareAndSet(null, charges) && completion.complete(outcome);
+    }
+
+    /**
+     * @return counts with the changes of the numbers of active and full charged robots
+     */
+    private static long delta(int active, int fullCharged) {
+        return ((long) active << 32) + fullCharged;
+    }
+
+    private static int activeCount(long counts) {
+        return (int) (counts >>> 32);
+    }
+
+    private static int fullChargedCount(long counts) {
+        return (int) counts;
+    }
+
+    public int getRobotCount() {
+        return robotCount;
+    }
+
+    /**
+     * @return number of active robots
+     */
+    public int getActiveCount() {
+        return activeCount(counts.get());
+    }
+
+    /**
+     * @return number of active robots that are full charged
+     */
+    public int getFullChargedCount() {
+        return fullChargedCount(counts.get());
+    }
+
+    /**
+     * @return number of discharged robots
+     */
+    public int getDischargedCount() {
+        return robotCount - getActiveCount();
+    }
+
+    /**
+     * @return progress of the modelling, e.g. 412/1000 full, 38 dead
+     */
+    public String describeProgress() {
+        long current = counts.get();
+        return fullChargedCount(current) + "/" + robotCount + " full, " + (robotCount - activeCount(current))
+                + " dead";
+    }
+
+    /**
+     * Finishes the modelling that will never meet terminate condition
+     * @return true if modelling was finished by this call and false if it was already finished
+     */
+    public boolean completeNonTerminating() {
+        return !completion.isDone() && complete(Outcome.NON_TERMINATING);
+    }
+
+    /**
+     * @return charges of the robots in the order of their seats when the modelling was finished or null
+     * if it isn't finished
+     */
+    public int[] getFinalCharges() {
+        int[] charges = finalCharges.get();
+        return charges == null ? null : charges.clone();
+    }
+
+    /**
+     * @return true if terminate condition was met or modelling was finished as non terminating
+     */
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    /**
+     * @return outcome of the modelling or null if terminate condition wasn't met yet
+     */
+    public Outcome getOutcome() {
+        return completion.getNow(null);
+    }
+
+    /**
+     * Blocks until the terminate condition is met
+     * @return outcome of the modelling
+     * @throws InterruptedException if current thread was interrupted while waiting
+     */
+    public Outcome await() throws InterruptedException {
+        try {
+            return completion.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Blocks until the terminate condition is met or timeout elapses
+     * @param timeout maximum time to wait
+     * @param unit unit of the timeout
+     * @return outcome of the modelling
+     * @throws InterruptedException if current thread was interrupted while waiting
+     * @throws TimeoutException if the modelling wasn't finished in time
+     */
+    public Outcome await(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        try {
+            return completion.get(timeout, unit);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * @return future that is completed with the outcome of the modelling. Completing it doesn't affect the tracker
+     */
+    public CompletableFuture<Outcome> toFuture() {
+        return completion.thenApply(Function.<Outcome>identity());
+    }
+
+    /**
+     * Counts one robot. Robot changes its charge from its strategy and from its discharge, and their state changes
+     * may be published in any order, so the charge of the robot is read again under the lock of the seat and only
+     * the difference with the counted state is applied
+     */
+    private class SeatTracker implements RobotStateListener {
+        /** state of the robot as it is counted */
+        private boolean active;
+        private boolean fullCharged;
+        /** charge of the robot when it was last counted full charged or disconnected or -1 if it never was */
+        private volatile int settledCharge = -1;
+
+        SeatTracker(Robot robot) {
+            active = robot.isActive();
+            fullCharged = active && robot.isFullCharged();
+            if (fullCharged || !active) settledCharge = robot.getCharge();
+            counts.addAndGet(delta(active ? 1 : 0, fullCharged ? 1 : 0));
+        }
+
+        /**
+         * Full charge and disconnection are published right after the change of the charge, so only the changes
+         * of the charge are counted
+         */
+        @Override
+        public void onStateChange(Robot robot, StateChange change, int charge) {
+            if (change != StateChange.CHARGED && change != StateChange.DISCHARGED) return;
+
+            long countsAfter;
+            synchronized (this) {
+                int chargeAfter = robot.getCharge();
+                boolean activeAfter = chargeAfter != 0;
+                boolean fullChargedAfter = activeAfter && chargeAfter == robot.getConfig().getFullCharge();
+                if (activeAfter == active && fullChargedAfter == fullCharged) return;
+                if (fullChargedAfter || !activeAfter) settledCharge = chargeAfter;
+                countsAfter = counts.addAndGet(delta((activeAfter ? 1 : 0) - (active ? 1 : 0),
+                        (fullChargedAfter ? 1 : 0) - (fullCharged ? 1 : 0)));
+                active = activeAfter;
+                fullCharged = fullChargedAfter;
+            }
+            checkCompletion(countsAfter);
+        }
+    }
+}
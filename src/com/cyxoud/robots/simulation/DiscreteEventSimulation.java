@@ -0,0 +1,304 @@
+package com.cyxoud.robots.simulation;
+
+import com.cyxoud.robots.entities.Robot;
+import com.cyxoud.robots.entities.RobotStateListener;
+import com.cyxoud.robots.entities.SimulationConfig;
+import com.cyxoud.robots.entities.StateChange;
+
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Represents modelling of the robots on one thread in virtual time. Strategies and discharges of the robots are
+ * events in the priority queue ordered by virtual time, so the modelling doesn't wait for real sleeps.
+ * <p>
+ * Events that happen at the same virtual time are processed in rounds. Inside the round robots at even seats go
+ * before robots at odd seats: robots of the same parity don't share charger parts, so the order between them doesn't
+ * matter. A robot whose step is blocked sleeps until one of the robots it shares charger parts with changes its state,
+ * then it does its next step in the following round at the same virtual time. Real time backends start the robots
+ * in the same order, so both modes resolve the contention for the charger parts alike.
+ * <p>
+ * With the steady state detector the table is sampled at the start of each discharge period, and the modelling
+ * finishes as non terminating as soon as the detector recognizes the cycle
+ */
+public class DiscreteEventSimulation {
+    /** kind of the event that discharges the robot */
+    private static final int DISCHARGE = 0;
+    /** kind of the event that does a step of the robot's strategy */
+    private static final int STRATEGY = 1;
+
+    /** robots that participate in modelling in the order of their seats at the table */
+    private final List<Robot> robots;
+    /** tracks the terminate condition of the modelling */
+    private final CompletionTracker completionTracker;
+    /** period of the discharges of the robots. Robots of the table share the constants of the modelling */
+    private final long dischargeDelayTime;
+    /** virtual time of the modelling */
+    private final VirtualClock clock = new VirtualClock();
+    /** pending events ordered by virtual time */
+    private final PriorityQueue<Event> events;
+    /** strategy event of each seat. Each seat has at most one pending strategy event, so events are reused */
+    private final Event[] strategyEvents;
+    /** discharge event of each seat */
+    private final Event[] dischargeEvents;
+    /** shows if robot at seat waits for the state change of its neighbours */
+    private final boolean[] blocked;
+    /** shows if robot at seat changed its state during the current event */
+    private final boolean[] changed;
+    /** seats that changed their state during the current event */
+    private final int[] changedSeats;
+    /** number of seats in changedSeats */
+    private int changedCount;
+    /** round of the event that is being processed */
+    private int currentRound;
+    /** number of processed events. Useful for testing/benchmarking */
+    private long processedEvents;
+    /** recognizes the cycle of the table or null if modelling isn't checked for steady state */
+    private final SteadyStateDetector steadyStateDetector;
+    /** time until the next step of each seat at the moment of the sample */
+    private final long[] nextSteps;
+    /** virtual time of the next sample of the table */
+    private long nextSampleTime;
+    /** cycle the table settled into or null if it wasn't recognized */
+    private SteadyState steadyState;
+
+    /**
+     * Subscribes the modelling to the state changes of the robots and schedules first events
+     * @param robots list of constructed robots in the order of their seats at the table
+     * @param completionTracker tracker of the terminate condition subscribed to the same robots
+     */
+    public DiscreteEventSimulation(List<Robot> robots, CompletionTracker completionTracker) {
+        this(robots, completionTracker, null);
+    }
+
+    /**
+     * Subscribes the modelling to the state changes of the robots and schedules first events
+     * @param robots list of constructed robots in the order of their seats at the table
+     * @param completionTracker tracker of the terminate condition subscribed to the same robots
+     * @param steadyStateDetector detector that finishes the modelling when the table settles into a cycle,
+     *                            null if modelling may run forever
+     */
+    public DiscreteEventSimulation(List<Robot> robots, CompletionTracker completionTracker,
+                                   SteadyStateDetector steadyStateDetector) {
+        this.robots = robots;
+        this.completionTracker = completionTracker;
+        this.steadyStateDetector = steadyStateDetector;
+        int size = robots.size();
+        dischargeDelayTime = SimulationConfig.of(robots).getDischargeDelayTime();
+        nextSteps = steadyStateDetector == null ? null : new long[size];
+        events = new PriorityQueue<>(Math.max(1, 2 * size));
+        strategyEvents = new Event[size];
+        dischargeEvents = new Event[size];
+        blocked = new boolean[size];
+        changed = new boolean[size];
+        changedSeats = new int[size];
+
+        for (int seat = 0; seat < size; seat++) {
+            robots.get(seat).addStateListener(new SeatListener(seat));
+            strategyEvents[seat] = new Event(seat, color(seat, size), STRATEGY);
+            dischargeEvents[seat] = new Event(seat, color(seat, size), DISCHARGE);
+            schedule(strategyEvents[seat], 0, 0);
+            schedule(dischargeEvents[seat], dischargeDelayTime, 0);
+        }
+    }
+
+    /**
+     * Runs the modelling until terminate condition is met or steady state is recognized.
+     * Without the steady state detector it may never finish like real time modelling
+     * @return outcome of the modelling
+     */
+    public Outcome run() {
+        runUntil(Long.MAX_VALUE);
+        try {
+            return completionTracker.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while getting outcome of finished modelling", e);
+        }
+    }
+
+    /**
+     * Runs the modelling until terminate condition is met, steady state is recognized or virtual time reaches the limit
+     * @param timeLimit virtual time in milliseconds after which no events are processed
+     * @return true if modelling finished and false if it reached the time limit
+     */
+    public boolean runUntil(long timeLimit) {
+        while (!completionTracker.isDone()) {
+            Event event = events.peek();
+            if (event == null) {
+                throw new IllegalStateException("No events left but the modelling is not finished");
+            }
+            if (event.time > timeLimit) return false;
+            if (steadyStateDetector != null && event.time >= nextSampleTime && sampleSteadyState(event.time)) {
+                return true;
+            }
+
+            events.poll();
+            clock.advanceTo(event.time);
+            currentRound = event.round;
+            process(event);
+            processedEvents++;
+            wakeNeighboursOfChangedSeats();
+        }
+        return true;
+    }
+
+    /**
+     * Discharges the robot or does the step of its strategy and schedules its next event
+     * @param event event to process
+     */
+    private void process(Event event) {
+        Robot robot = robots.get(event.seat);
+        if (!robot.isActive()) return;
+
+        if (event.kind == DISCHARGE) {
+            robot.beDischarged();
+            if (robot.isActive()) {
+                schedule(event, clock.millis() + dischargeDelayTime, 0);
+            }
+            return;
+        }
+
+        long delay = robot.step();
+        if (delay > 0) {
+            schedule(event, clock.millis() + delay, 0);
+        }
+        else if (delay == Robot.CONTINUE) {
+            schedule(event, clock.millis(), currentRound + 1);
+        }
+        else {
+            blocked[event.seat] = true;
+        }
+    }
+
+    /**
+     * Samples the table at the start of the discharge period the event belongs to. All earlier events are processed
+     * and discharges of the period are not, so the sample together with the time until the next steps defines
+     * the rest of the modelling
+     * @param eventTime time of the next event
+     * @return true if modelling was finished as non terminating
+     */
+    private boolean sampleSteadyState(long eventTime) {
+        long sampleTime = eventTime - eventTime % dischargeDelayTime;
+        nextSampleTime = sampleTime + dischargeDelayTime;
+        for (int seat = 0; seat < nextSteps.length; seat++) {
+            nextSteps[seat] = blocked[seat] ? SteadyStateDetector.BLOCKED : strategyEvents[seat].time - sampleTime;
+        }
+
+        SteadyState detected = steadyStateDetector.sample(sampleTime, robots, nextSteps);
+        if (detected == null || !completionTracker.completeNonTerminating()) return false;
+        steadyState = detected;
+        clock.advanceTo(sampleTime);
+        return true;
+    }
+
+    /**
+     * Schedules next step of the blocked robots which neighbours or themselves changed the state in the next round
+     */
+    private void wakeNeighboursOfChangedSeats() {
+        int size = robots.size();
+        for (int i = 0; i < changedCount; i++) {
+            int seat = changedSeats[i];
+            changed[seat] = false;
+            wake((seat + size - 1) % size);
+            wake(seat);
+            wake((seat + 1) % size);
+        }
+        changedCount = 0;
+    }
+
+    private void wake(int seat) {
+        if (blocked[seat] && robots.get(seat).isActive()) {
+            blocked[seat] = false;
+            schedule(strategyEvents[seat], clock.millis(), currentRound + 1);
+        }
+    }
+
+    private void schedule(Event event, long time, int round) {
+        event.time = time;
+        event.round = round;
+        events.add(event);
+    }
+
+    /**
+     * @param seat seat of the robot
+     * @param size number of seats at the table
+     * @return 0 for even seats and 1 for odd seats. The last seat of the odd table shares parts with seat 0, so it gets 2
+     */
+    private static int color(int seat, int size) {
+        if (size % 2 == 1 && size > 1 && seat == size - 1) return 2;
+        return seat % 2;
+    }
+
+    /**
+     * @return result of the modelling at the current virtual time. Outcome is null if modelling isn't finished
+     */
+    public SimulationResult getResult() {
+        return SimulationResult.of(robots, completionTracker.getOutcome(), clock.millis(), steadyState);
+    }
+
+    /**
+     * @return cycle the table settled into or null if it wasn't recognized
+     */
+    public SteadyState getSteadyState() {
+        return steadyState;
+    }
+
+    /**
+     * @return virtual clock of the modelling
+     */
+    public VirtualClock getClock() {
+        return clock;
+    }
+
+    public long getProcessedEvents() {
+        return processedEvents;
+    }
+
+    /**
+     * Remembers seats of the robots which state changed. Robot that starts waiting for a charger part changes
+     * nothing its neighbours see, so it doesn't wake them up
+     */
+    private class SeatListener implements RobotStateListener {
+        private final int seat;
+
+        SeatListener(int seat) {
+            this.seat = seat;
+        }
+
+        @Override
+        public void onStateChange(Robot robot, StateChange change, int charge) {
+            if (change == StateChange.LEFT_PART_AWAITED || change == StateChange.RIGHT_PART_AWAITED) return;
+            if (!changed[seat]) {
+                changed[seat] = true;
+                changedSeats[changedCount++] = seat;
+            }
+        }
+    }
+
+    /**
+     * Represents pending discharge or strategy step of the robot
+     */
+    private static class Event implements Comparable<Event> {
+        private final int seat;
+        private final int color;
+        private final int kind;
+        private long time;
+        private int round;
+
+        Event(int seat, int color, int kind) {
+            this.seat = seat;
+            this.color = color;
+            this.kind = kind;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            if (time != other.time) return time < other.time ? -1 : 1;
+            if (round != other.round) return round < other.round ? -1 : 1;
+            if (color != other.color) return color < other.color ? -1 : 1;
+            if (seat != other.seat) return seat < other.seat ? -1 : 1;
+            return kind - other.kind;
+        }
+    }
+}
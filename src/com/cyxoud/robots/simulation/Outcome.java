@@ -0,0 +1,13 @@
+package com.cyxoud.robots.simulation;
+
+/**
+ * enum that has all the ways the modelling can finish
+ */
+public enum Outcome {
+    /** all robots were discharged and disconnected */
+    ALL_DISCHARGED,
+    /** all robots that are still active are full charged */
+    ALL_ALIVE_FULL_CHARGED,
+    /** table settled into a steady state and terminate condition will never be met */
+    NON_TERMINATING
+}
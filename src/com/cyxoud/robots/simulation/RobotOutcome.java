@@ -0,0 +1,13 @@
+package com.cyxoud.robots.simulation;
+
+/**
+ * enum that has all the ways the robot can end the modelling
+ */
+public enum RobotOutcome {
+    /** robot is full charged */
+    FULL_CHARGED,
+    /** robot was discharged and disconnected */
+    DISCHARGED,
+    /** robot is alive but not full charged, so the modelling wasn't finished or never terminates */
+    PARTLY_CHARGED
+}
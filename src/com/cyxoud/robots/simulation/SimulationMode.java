@@ -0,0 +1,11 @@
+package com.cyxoud.robots.simulation;
+
+/**
+ * enum that has all the ways the modelling can be run
+ */
+public enum SimulationMode {
+    /** each robot runs its strategy and discharge in its own threads in real time */
+    REAL_TIME,
+    /** all robots run on one thread in virtual time driven by the discrete-event engine */
+    VIRTUAL_TIME
+}
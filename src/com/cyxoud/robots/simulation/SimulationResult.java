@@ -0,0 +1,265 @@
+package com.cyxoud.robots.simulation;
+
+import com.cyxoud.robots.entities.Robot;
+import com.cyxoud.robots.entities.SimulationConfig;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents result of one modelling: its outcome, how long it took, final charges of the robots and the cycle
+ * the table settled into if modelling was non terminating. Result of the measured modelling also has the number
+ * of processed events and the contention for the charger parts
+ */
+public final class SimulationResult {
+    /** outcome of the modelling or null if it wasn't finished */
+    private final Outcome outcome;
+    /** time of the modelling in milliseconds */
+    private final long durationMillis;
+    /** charges of the robots in the order of their seats */
+    private final int[] charges;
+    /** cycle the table settled into or null if modelling isn't non terminating */
+    private final SteadyState steadyState;
+    /** amount of full charge of the modelling */
+    private final int fullCharge;
+    /** number of events processed in virtual time or -1 if they weren't counted */
+    private final long processedEvents;
+    /** number of attempts to take the charger parts or -1 if they weren't counted */
+    private final long takeAttempts;
+    /** number of failed attempts to take the charger parts or -1 if they weren't counted */
+    private final long takeFailures;
+
+    /**
+     * @param outcome outcome of the modelling or null if it wasn't finished
+     * @param durationMillis time of the modelling in milliseconds
+     * @param charges charges of the robots in the order of their seats
+     */
+    public SimulationResult(Outcome outcome, long durationMillis, int[] charges) {
+        this(outcome, durationMillis, charges, null);
+    }
+
+    /**
+     * @param outcome outcome of the modelling or null if it wasn't finished
+     * @param durationMillis time of the modelling in milliseconds
+     * @param charges charges of the robots in the order of their seats
+     * @param steadyState cycle the table settled into or null if modelling isn't non terminating
+     */
+    public SimulationResult(Outcome outcome, long durationMillis, int[] charges, SteadyState steadyState) {
+        this(outcome, durationMillis, charges, steadyState, SimulationConfig.DEFAULT.getFullCharge());
+    }
+
+    /**
+     * @param outcome outcome of the modelling or null if it wasn't finished
+     * @param durationMillis time of the modelling in milliseconds
+     * @param charges charges of the robots in the order of their seats
+     * @param steadyState cycle the table settled into or null if modelling isn't non terminating
+     * @param fullCharge amount of full charge of the modelling
+     */
+    public SimulationResult(Outcome outcome, long durationMillis, int[] charges, SteadyState steadyState,
+                            int fullCharge) {
+        this(outcome, durationMillis, charges, steadyState, fullCharge, -1, -1, -1);
+    }
+
+    private SimulationResult(Outcome outcome, long durationMillis, int[] charges, SteadyState steadyState,
+                             int fullCharge, long processedEvents, long takeAttempts, long takeFailures) {
+        this.fullCharge = fullCharge;
+        this.outcome = outcome;
+        this.durationMillis = durationMillis;
+        this.charges = charges.clone();
+        this.steadyState = steadyState;
+        this.processedEvents = processedEvents;
+        this.takeAttempts = takeAttempts;
+        this.takeFailures = takeFailures;
+    }
+
+    /**
+     * @param robots robots of the modelling in the order of their seats
+     * @param outcome outcome of the modelling or null if it wasn't finished
+     * @param durationMillis time of the modelling in milliseconds
+     * @return result with the current charges of the robots
+     */
+    public static SimulationResult of(List<Robot> robots, Outcome outcome, long durationMillis) {
+        return of(robots, outcome, durationMillis, null);
+    }
+
+    /**
+     * @param robots robots of the modelling in the order of their seats
+     * @param outcome outcome of the modelling or null if it wasn't finished
+     * @param durationMillis time of the modelling in milliseconds
+     * @param steadyState cycle the table settled into or null if modelling isn't non terminating
+     * @return result with the current charges of the robots
+     */
+    public static SimulationResult of(List<Robot> robots, Outcome outcome, long durationMillis,
+                                      SteadyState steadyState) {
+        int[] charges = new int[robots.size()];
+        for (int seat = 0; seat < charges.length; seat++) {
+            charges[seat] = robots.get(seat).getCharge();
+        }
+        return new SimulationResult(outcome, durationMillis, charges, steadyState,
+                SimulationConfig.of(robots).getFullCharge());
+    }
+
+    /**
+     * @return outcome of the modelling or null if it wasn't finished
+     */
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return true if terminate condition of the modelling was met
+     */
+    public boolean isFinished() {
+        return outcome != null && outcome != Outcome.NON_TERMINATING;
+    }
+
+    /**
+     * @return true if table settled into a steady state and terminate condition would never be met
+     */
+    public boolean isNonTerminating() {
+        return outcome == Outcome.NON_TERMINATING;
+    }
+
+    /**
+     * @return cycle the table settled into or null if modelling isn't non terminating
+     */
+    public SteadyState getSteadyState() {
+        return steadyState;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * @return charges of the robots in the order of their seats
+     */
+    public int[] getCharges() {
+        return charges.clone();
+    }
+
+    /**
+     * @param seat seat of the robot at the table
+     * @return charge of the robot
+     */
+    public int getCharge(int seat) {
+        return charges[seat];
+    }
+
+    /**
+     * @param seat seat of the robot at the table
+     * @return how the robot ended the modelling
+     */
+    public RobotOutcome getRobotOutcome(int seat) {
+        if (charges[seat] == fullCharge) return RobotOutcome.FULL_CHARGED;
+        return charges[seat] == 0 ? RobotOutcome.DISCHARGED : RobotOutcome.PARTLY_CHARGED;
+    }
+
+    /**
+     * @return amount of full charge of the modelling
+     */
+    public int getFullCharge() {
+        return fullCharge;
+    }
+
+    /**
+     * @param processedEvents number of events processed in virtual time or -1 if they weren't counted
+     * @param takeAttempts number of attempts to take the charger parts
+     * @param takeFailures number of failed attempts to take the charger parts
+     * @return the same result with the counts of the measured modelling
+     */
+    public SimulationResult withCounts(long processedEvents, long takeAttempts, long takeFailures) {
+        return new SimulationResult(outcome, durationMillis, charges, steadyState, fullCharge, processedEvents,
+                takeAttempts, takeFailures);
+    }
+
+    /**
+     * @return true if the result has the contention for the charger parts
+     */
+    public boolean isMeasured() {
+        return takeAttempts >= 0;
+    }
+
+    /**
+     * @return number of events processed in virtual time or -1 if they weren't counted
+     */
+    public long getProcessedEvents() {
+        return processedEvents;
+    }
+
+    /**
+     * @return number of attempts to take the charger parts or -1 if they weren't counted
+     */
+    public long getTakeAttempts() {
+        return takeAttempts;
+    }
+
+    /**
+     * @return number of failed attempts to take the charger parts or -1 if they weren't counted
+     */
+    public long getTakeFailures() {
+        return takeFailures;
+    }
+
+    public int getRobotCount() {
+        return charges.length;
+    }
+
+    /**
+     * @return number of full charged robots
+     */
+    public int getFullChargedCount() {
+        int count = 0;
+        for (int charge : charges) {
+            if (charge == fullCharge) count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return number of discharged robots
+     */
+    public int getDischargedCount() {
+        int count = 0;
+        for (int charge : charges) {
+            if (charge == 0) count++;
+        }
+        return count;
+    }
+
+    /**
+     * @param shift number of seats each robot is moved clockwise
+     * @return result of the same modelling where robot from seat i sits at seat (i + shift) mod number of robots
+     */
+    public SimulationResult rotate(int shift) {
+        return new SimulationResult(outcome, durationMillis, rotate(charges, shift),
+                steadyState == null ? null : steadyState.rotate(shift), fullCharge, processedEvents, takeAttempts,
+                takeFailures);
+    }
+
+    /**
+     * @param seats values of the seats
+     * @param shift number of seats each value is moved clockwise
+     * @return rotated copy of the values
+     */
+    static int[] rotate(int[] seats, int shift) {
+        int size = seats.length;
+        int[] rotated = new int[size];
+        for (int seat = 0; seat < size; seat++) {
+            rotated[Math.floorMod(seat + shift, size)] = seats[seat];
+        }
+        return rotated;
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationResult{" +
+                "outcome=" + outcome +
+                ", durationMillis=" + durationMillis +
+                ", charges=" + Arrays.toString(charges) +
+                (steadyState == null ? "" : ", steadyState=" + steadyState) +
+                (processedEvents < 0 ? "" : ", processedEvents=" + processedEvents) +
+                (isMeasured() ? ", takeFailures=" + takeFailures + "/" + takeAttempts : "") +
+                '}';
+    }
+}
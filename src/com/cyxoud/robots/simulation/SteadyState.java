@@ -0,0 +1,92 @@
+package com.cyxoud.robots.simulation;
+
+/**
+ * Describes the cycle the table has settled into: the state of the table repeats with the period and no robot
+ * is ever disconnected or full charged so that the terminate condition is met
+ */
+public final class SteadyState {
+    /** time in milliseconds when the repeating state was seen first */
+    private final long startMillis;
+    /** time in milliseconds between two last occurrences of the repeating state */
+    private final long periodMillis;
+    /** true if the cycle is proven, false if it is assumed because the state repeated several times */
+    private final boolean exact;
+    /** charges of the robots in the repeating state in the order of their seats */
+    private final int[] charges;
+    /** charger parts held by the robots in the repeating state: 1 for left part, 2 for right part */
+    private final byte[] parts;
+
+    /**
+     * @param startMillis time in milliseconds when the repeating state was seen first
+     * @param periodMillis time in milliseconds between two last occurrences of the repeating state
+     * @param exact true if the cycle is proven, false if it is assumed
+     * @param charges charges of the robots in the repeating state in the order of their seats
+     * @param parts charger parts held by the robots in the repeating state: 1 for left part, 2 for right part
+     */
+    public SteadyState(long startMillis, long periodMillis, boolean exact, int[] charges, byte[] parts) {
+        this.startMillis = startMillis;
+        this.periodMillis = periodMillis;
+        this.exact = exact;
+        this.charges = charges;
+        this.parts = parts;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getPeriodMillis() {
+        return periodMillis;
+    }
+
+    /**
+     * @return true if the table repeats the cycle forever, false if robots with random strategy may still leave it
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * @return charges of the robots in the repeating state in the order of their seats
+     */
+    public int[] getCharges() {
+        return charges.clone();
+    }
+
+    /**
+     * @param shift number of seats each robot is moved clockwise
+     * @return the same cycle where robot from seat i sits at seat (i + shift) mod number of robots
+     */
+    public SteadyState rotate(int shift) {
+        int size = parts.length;
+        byte[] rotatedParts = new byte[size];
+        for (int seat = 0; seat < size; seat++) {
+            rotatedParts[Math.floorMod(seat + shift, size)] = parts[seat];
+        }
+        return new SteadyState(startMillis, periodMillis, exact, SimulationResult.rotate(charges, shift), rotatedParts);
+    }
+
+    /**
+     * @return charger parts held by the robots in the repeating state: 1 for left part, 2 for right part
+     */
+    public byte[] getParts() {
+        return parts.clone();
+    }
+
+    /**
+     * @return e.g. "cycle of 1000 ms since 5000 ms: [0, 100LR, 0, 100LR, 0, 100LR]", where L and R are
+     * the charger parts held by the robot
+     */
+    @Override
+    public String toString() {
+        StringBuilder description = new StringBuilder(exact ? "cycle" : "assumed cycle")
+                .append(" of ").append(periodMillis).append(" ms since ").append(startMillis).append(" ms: [");
+        for (int seat = 0; seat < charges.length; seat++) {
+            if (seat > 0) description.append(", ");
+            description.append(charges[seat]);
+            if ((parts[seat] & 1) != 0) description.append('L');
+            if ((parts[seat] & 2) != 0) description.append('R');
+        }
+        return description.append(']').toString();
+    }
+}
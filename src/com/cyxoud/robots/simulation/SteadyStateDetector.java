@@ -0,0 +1,172 @@
+package com.cyxoud.robots.simulation;
+
+import com.cyxoud.robots.entities.Robot;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recognizes that the table settled into a steady state and the modelling will never meet its terminate condition.
+ * The state of the table is sampled once per discharge period: charges, charger parts held and charging flags
+ * of the robots, and when known the time left until the next step of each robot.
+ * <p>
+ * If all robots are predictable and the time until their next steps is known, the same sample seen twice proves
+ * the cycle. Otherwise the cycle is assumed when the same sample was seen the number of confirmations times more.
+ * Only the last samples are remembered, so memory doesn't grow with the modelling time
+ */
+public class SteadyStateDetector {
+    /** default number of repeats of the sample needed to assume the cycle */
+    public static final int DEFAULT_CONFIRMATIONS = 3;
+    /** default number of the different samples remembered */
+    public static final int DEFAULT_WINDOW = 4096;
+    /** time until the next step of the robot that waits for the state change of its neighbours */
+    public static final long BLOCKED = -1;
+
+    /** number of repeats of the sample needed to assume the cycle */
+    private final int confirmations;
+    /** remembered samples and their occurrences, the eldest sample is forgotten first */
+    private final Map<Sample, Occurrence> seen;
+
+    public SteadyStateDetector() {
+        this(DEFAULT_CONFIRMATIONS, DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param confirmations number of repeats of the sample needed to assume the cycle when it can't be proven
+     * @param window number of the different samples remembered
+     */
+    public SteadyStateDetector(int confirmations, final int window) {
+        if (confirmations < 1 || window < 1) {
+            throw new IllegalArgumentException("Illegal confirmations " + confirmations + " or window " + window);
+        }
+        this.confirmations = confirmations;
+        seen = new LinkedHashMap<Sample, Occurrence>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Sample, Occurrence> eldest) {
+                return size() > window;
+            }
+        };
+    }
+
+    /**
+     * Samples the state of the table
+     * @param time time of the sample in milliseconds
+     * @param robots robots in the order of their seats
+     * @param nextSteps time in milliseconds until the next step of the robot at each seat or {@link #BLOCKED},
+     *                  null if it is unknown
+     * @return steady state if the sample closes the cycle and null otherwise
+     */
+    public SteadyState sample(long time, List<Robot> robots, long[] nextSteps) {
+        int size = robots.size();
+        long[] state = new long[size];
+        boolean exact = nextSteps != null;
+        for (int seat = 0; seat < size; seat++) {
+            Robot robot = robots.get(seat);
+            if (!robot.isActive()) continue;
+            long seatState = packSeat(robot.getCharge(), robot.hasLeftChargerPart(), robot.hasRightChargerPart(),
+                    robot.isCharging(), robot.getLeftChargerPart().getTurn(robot),
+                    robot.getRightChargerPart().getTurn(robot));
+            if (nextSteps != null && robot.isPredictable()) {
+                seatState = withNextStep(seatState, nextSteps[seat]);
+            }
+            else {
+                exact = false;
+            }
+            state[seat] = seatState;
+        }
+        return sample(time, state, exact);
+    }
+
+    /**
+     * Samples the packed state of the table
+     * @param time time of the sample in milliseconds
+     * @param state state of each seat packed with {@link #packSeat}, 0 for the discharged robots.
+     *              The array is kept by the detector
+     * @param exact true if all active robots are predictable and their time until the next step is packed
+     * @return steady state if the sample closes the cycle and null otherwise
+     */
+    SteadyState sample(long time, long[] state, boolean exact) {
+        Sample sample = new Sample(state);
+        Occurrence occurrence = seen.get(sample);
+        if (occurrence == null) {
+            seen.put(sample, new Occurrence(time));
+            return null;
+        }
+        long period = time - occurrence.lastTime;
+        occurrence.lastTime = time;
+        occurrence.repeats++;
+        if (!exact && occurrence.repeats < confirmations) return null;
+
+        int size = state.length;
+        int[] charges = new int[size];
+        byte[] parts = new byte[size];
+        for (int seat = 0; seat < size; seat++) {
+            charges[seat] = (int) (state[seat] & 0x7F);
+            parts[seat] = (byte) ((state[seat] >> 7) & 3);
+        }
+        return new SteadyState(occurrence.firstTime, period, exact, charges, parts);
+    }
+
+    /**
+     * @param leftTurn turn of the robot in the queue of the fair left part, 0 if it isn't there
+     * @param rightTurn turn of the robot in the queue of the fair right part, 0 if it isn't there
+     * @return state of the active robot: its charge, charger parts it holds, its charging flag and its turns
+     */
+    static long packSeat(int charge, boolean hasLeftChargerPart, boolean hasRightChargerPart, boolean charging,
+                         int leftTurn, int rightTurn) {
+        return charge
+                | (hasLeftChargerPart ? 1 << 7 : 0)
+                | (hasRightChargerPart ? 1 << 8 : 0)
+                | (charging ? 1 << 9 : 0)
+                | leftTurn << 10
+                | rightTurn << 12;
+    }
+
+    /**
+     * @param seatState packed state of the predictable robot
+     * @param nextStep time in milliseconds until the next step of the robot or {@link #BLOCKED}
+     * @return state together with the time until the next step
+     */
+    static long withNextStep(long seatState, long nextStep) {
+        return seatState | (nextStep + 2) << 14;
+    }
+
+    /**
+     * Packed state of the table at the moment of the sample
+     */
+    private static final class Sample {
+        private final long[] state;
+        private final int hash;
+
+        Sample(long[] state) {
+            this.state = state;
+            hash = Arrays.hashCode(state);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Sample && hash == ((Sample) other).hash && Arrays.equals(state, ((Sample) other).state);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Occurrences of the sample
+     */
+    private static final class Occurrence {
+        private final long firstTime;
+        private long lastTime;
+        private int repeats;
+
+        Occurrence(long time) {
+            firstTime = time;
+            lastTime = time;
+        }
+    }
+}
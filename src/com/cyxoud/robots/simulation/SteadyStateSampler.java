@@ -0,0 +1,93 @@
+package com.cyxoud.robots.simulation;
+
+import com.cyxoud.robots.entities.Robot;
+import com.cyxoud.robots.entities.SimulationConfig;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the table of the real time modelling once per discharge period of the robots and finishes the modelling as
+ * non terminating when the detector recognizes the cycle. Time until the next steps of the robots is unknown
+ * in real time, so the cycle is always assumed after the confirmations of the detector
+ */
+public class SteadyStateSampler implements AutoCloseable {
+    private final List<Robot> robots;
+    private final CompletionTracker completionTracker;
+    private final SteadyStateDetector detector;
+    /** source of the samples time */
+    private final Clock clock;
+    /** samples the table on its own thread */
+    private final ScheduledExecutorService executor;
+    /** cycle the table settled into or null if it wasn't recognized */
+    private volatile SteadyState steadyState;
+
+    /**
+     * @param robots robots in the order of their seats
+     * @param completionTracker tracker of the terminate condition of the same robots
+     * @param detector detector that recognizes the cycle
+     * @param clock source of the samples time
+     */
+    public SteadyStateSampler(List<Robot> robots, CompletionTracker completionTracker, SteadyStateDetector detector,
+                              Clock clock) {
+        this.robots = robots;
+        this.completionTracker = completionTracker;
+        this.detector = detector;
+        this.clock = clock;
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "steady-state-sampler");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Starts sampling the table
+     * @return this sampler
+     */
+    public SteadyStateSampler start() {
+        SimulationConfig config = SimulationConfig.of(robots);
+        long period = config.toRealNanos(config.getDischargeDelayTime());
+        executor.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                sample();
+            }
+        }, period, period, TimeUnit.NANOSECONDS);
+        return this;
+    }
+
+    private void sample() {
+        if (completionTracker.isDone()) {
+            executor.shutdown();
+            return;
+        }
+        SteadyState detected = detector.sample(clock.millis(), robots, null);
+        if (detected != null) {
+            steadyState = detected;
+            completionTracker.completeNonTerminating();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return cycle the table settled into or null if it wasn't recognized
+     */
+    public SteadyState getSteadyState() {
+        return steadyState;
+    }
+
+    /**
+     * Stops sampling the table
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
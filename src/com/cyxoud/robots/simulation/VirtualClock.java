@@ -0,0 +1,28 @@
+package com.cyxoud.robots.simulation;
+
+/**
+ * Represents virtual time of the discrete-event modelling. Time only moves forward when the next event is processed
+ */
+public class VirtualClock implements Clock {
+    /** current virtual time in milliseconds since the modelling start */
+    private long now;
+
+    /**
+     * @return current virtual time in milliseconds since the modelling start
+     */
+    @Override
+    public long millis() {
+        return now;
+    }
+
+    /**
+     * Moves the clock forward to the time of the event
+     * @param time virtual time in milliseconds
+     */
+    void advanceTo(long time) {
+        if (time < now) {
+            throw new IllegalArgumentException("Virtual time can't go backwards: " + time + " < " + now);
+        }
+        now = time;
+    }
+}
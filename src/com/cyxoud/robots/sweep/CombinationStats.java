@@ -0,0 +1,118 @@
+package com.cyxoud.robots.sweep;
+
+import com.cyxoud.robots.simulation.Outcome;
+import com.cyxoud.robots.simulation.SimulationResult;
+
+/**
+ * Collects results of the repeated modellings of one combination of strategies.
+ * Results may be added concurrently from the workers of the sweep
+ */
+public class CombinationStats {
+    /** number of the combination */
+    private final int combination;
+    private int runs;
+    /** number of runs which ended with all robots discharged */
+    private int allDischarged;
+    /** number of runs which ended with all alive robots full charged */
+    private int allAliveFullCharged;
+    /** number of runs which settled into a steady state */
+    private int nonTerminating;
+    /** sum of the fractions of the full charged robots at the end of each run */
+    private double fullChargedFractionSum;
+    /** sum of the fractions of the discharged robots at the end of each run */
+    private double dischargedFractionSum;
+    /** sum of the durations of the finished runs */
+    private long durationSum;
+    /** duration of the longest finished run */
+    private long maxDuration;
+
+    public CombinationStats(int combination) {
+        this.combination = combination;
+    }
+
+    /**
+     * @param result result of one run of the combination
+     */
+    public synchronized void add(SimulationResult result) {
+        runs++;
+        fullChargedFractionSum += (double) result.getFullChargedCount() / result.getRobotCount();
+        dischargedFractionSum += (double) result.getDischargedCount() / result.getRobotCount();
+        if (result.getOutcome() == Outcome.ALL_DISCHARGED) {
+            allDischarged++;
+        }
+        else if (result.getOutcome() == Outcome.ALL_ALIVE_FULL_CHARGED) {
+            allAliveFullCharged++;
+        }
+        else if (result.getOutcome() == Outcome.NON_TERMINATING) {
+            nonTerminating++;
+        }
+        if (result.isFinished()) {
+            durationSum += result.getDurationMillis();
+            maxDuration = Math.max(maxDuration, result.getDurationMillis());
+        }
+    }
+
+    public int getCombination() {
+        return combination;
+    }
+
+    public synchronized int getRuns() {
+        return runs;
+    }
+
+    public synchronized int getFinishedRuns() {
+        return allDischarged + allAliveFullCharged;
+    }
+
+    /**
+     * @return number of runs which settled into a steady state and would never meet terminate condition
+     */
+    public synchronized int getNonTerminatingRuns() {
+        return nonTerminating;
+    }
+
+    /**
+     * @return number of runs which neither met terminate condition nor settled into a steady state
+     * within the time limit
+     */
+    public synchronized int getUnfinishedRuns() {
+        return runs - allDischarged - allAliveFullCharged - nonTerminating;
+    }
+
+    public synchronized int getAllDischargedRuns() {
+        return allDischarged;
+    }
+
+    public synchronized int getAllAliveFullChargedRuns() {
+        return allAliveFullCharged;
+    }
+
+    /**
+     * @return mean fraction of the full charged robots at the end of the runs, including unfinished ones
+     */
+    public synchronized double getMeanFullChargedFraction() {
+        return runs == 0 ? 0 : fullChargedFractionSum / runs;
+    }
+
+    /**
+     * @return mean fraction of the discharged robots at the end of the runs, including unfinished ones
+     */
+    public synchronized double getMeanDischargedFraction() {
+        return runs == 0 ? 0 : dischargedFractionSum / runs;
+    }
+
+    /**
+     * @return mean time to termination of the finished runs in milliseconds
+     */
+    public synchronized double getMeanDurationMillis() {
+        int finished = getFinishedRuns();
+        return finished == 0 ? 0 : (double) durationSum / finished;
+    }
+
+    /**
+     * @return time to termination of the longest finished run in milliseconds
+     */
+    public synchronized long getMaxDurationMillis() {
+        return maxDuration;
+    }
+}
@@ -0,0 +1,88 @@
+package com.cyxoud.robots.sweep;
+
+import com.cyxoud.robots.entities.Strategy;
+
+import java.util.Arrays;
+
+/**
+ * Numbers the combinations of strategies of the six robots. Each base 3 digit of the number, starting from the lowest
+ * one, is the strategy of the robot at the next seat
+ */
+public final class Combinations {
+    /** number of seats at the table of the original modelling */
+    public static final int SEATS = 6;
+    /** number of all the combinations of strategies of six robots */
+    public static final int COUNT = 729;
+
+    private Combinations() {}
+
+    /**
+     * @param combination number of the combination
+     * @return strategies of the robots in the order of their seats
+     */
+    public static Strategy[] toStrategies(int combination) {
+        checkCombination(combination);
+        Strategy[] strategies = new Strategy[SEATS];
+        for (int seat = 0; seat < SEATS; seat++, combination /= 3) {
+            strategies[seat] = Strategy.values()[combination % 3];
+        }
+        return strategies;
+    }
+
+    /**
+     * @param combination number of the combination
+     * @return combination written as command line arguments of the modelling, e.g. 123321
+     */
+    public static String label(int combination) {
+        StringBuilder label = new StringBuilder(SEATS);
+        for (Strategy strategy : toStrategies(combination)) {
+            label.append(strategy.ordinal() + 1);
+        }
+        return label.toString();
+    }
+
+    /**
+     * @param label combination written as command line arguments of the modelling, e.g. 123321
+     * @return number of the combination
+     */
+    public static int fromLabel(String label) {
+        if (label.length() != SEATS) {
+            throw new IllegalArgumentException("Illegal combination: " + label + ". It needs " + SEATS + " numbers(1/2/3)");
+        }
+        int combination = 0;
+        for (int seat = SEATS - 1; seat >= 0; seat--) {
+            int strategy = label.charAt(seat) - '1';
+            if (strategy < 0 || strategy > 2) {
+                throw new IllegalArgumentException("Illegal combination: " + label + ". Error in seat number: " + (seat + 1));
+            }
+            combination = combination * 3 + strategy;
+        }
+        return combination;
+    }
+
+    /**
+     * @param spec "all" or comma separated labels of the combinations, e.g. 123321,111111
+     * @return numbers of the combinations
+     */
+    public static int[] parse(String spec) {
+        if (spec.equals("all")) {
+            int[] all = new int[COUNT];
+            for (int combination = 0; combination < COUNT; combination++) {
+                all[combination] = combination;
+            }
+            return all;
+        }
+        String[] labels = spec.split(",");
+        int[] combinations = new int[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            combinations[i] = fromLabel(labels[i].trim());
+        }
+        return Arrays.stream(combinations).distinct().toArray();
+    }
+
+    private static void checkCombination(int combination) {
+        if (combination < 0 || combination >= COUNT) {
+            throw new IllegalArgumentException("Illegal combination number: " + combination);
+        }
+    }
+}
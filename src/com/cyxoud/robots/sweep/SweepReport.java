@@ -0,0 +1,81 @@
+package com.cyxoud.robots.sweep;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents results of the sweep over combinations of strategies
+ */
+public class SweepReport {
+    /** header of the CSV written by {@link #writeCsv(Writer)} */
+    static final String CSV_HEADER = "combination,strategies,runs,all_discharged,all_alive_full_charged,"
+            + "non_terminating,unfinished,mean_full_charged_fraction,mean_discharged_fraction,mean_duration_ms,"
+            + "max_duration_ms";
+
+    private final List<CombinationStats> stats;
+    /** real time the sweep took in nanoseconds */
+    private final long elapsedNanos;
+
+    SweepReport(List<CombinationStats> stats, long elapsedNanos) {
+        this.stats = Collections.unmodifiableList(stats);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return statistics of each combination in the order combinations were passed to the sweep
+     */
+    public List<CombinationStats> getStats() {
+        return stats;
+    }
+
+    /**
+     * @return number of modellings run by the sweep
+     */
+    public long getSimulationCount() {
+        long count = 0;
+        for (CombinationStats combinationStats : stats) {
+            count += combinationStats.getRuns();
+        }
+        return count;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * @return number of modellings run per second of the real time
+     */
+    public double getSimulationsPerSecond() {
+        return elapsedNanos == 0 ? 0 : getSimulationCount() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Writes one line per combination with its statistics
+     * @param writer destination of the CSV
+     * @throws IOException if CSV can't be written
+     */
+    public void writeCsv(Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write(System.lineSeparator());
+        for (CombinationStats combinationStats : stats) {
+            writer.write(String.format(Locale.ROOT, "%d,%s,%d,%d,%d,%d,%d,%.4f,%.4f,%.1f,%d%n",
+                    combinationStats.getCombination(),
+                    Combinations.label(combinationStats.getCombination()),
+                    combinationStats.getRuns(),
+                    combinationStats.getAllDischargedRuns(),
+                    combinationStats.getAllAliveFullChargedRuns(),
+                    combinationStats.getNonTerminatingRuns(),
+                    combinationStats.getUnfinishedRuns(),
+                    combinationStats.getMeanFullChargedFraction(),
+                    combinationStats.getMeanDischargedFraction(),
+                    combinationStats.getMeanDurationMillis(),
+                    combinationStats.getMaxDurationMillis()));
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,198 @@
+package com.cyxoud.robots.sweep;
+
+import com.cyxoud.robots.RobotChargeModelling;
+import com.cyxoud.robots.cache.SimulationCache;
+import com.cyxoud.robots.simulation.SimulationResult;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs each combination of strategies many times in virtual time on all cores. Runs of all combinations are split
+ * into fork-join tasks, so idle workers steal the work of the busy ones.
+ * Each run gets its own seed taken from the stream of the sweep seed in the order of runs, so the same sweep seed
+ * gives the same results whatever number of threads runs them. Sweep with a {@link SimulationCache cache} takes
+ * the results of the runs it repeats from the cache
+ */
+public class SweepRunner {
+    /** default virtual time limit of one run. Ten minutes */
+    public static final long DEFAULT_TIME_LIMIT = 10 * 60 * 1000;
+    /** number of runs done by one task without splitting it further */
+    private static final int RUNS_PER_TASK = 4;
+
+    private final int runsPerCombination;
+    /** virtual time in milliseconds after which run is counted as unfinished */
+    private final long timeLimit;
+    /** seed of the seeds of the runs */
+    private final long seed;
+    private final ForkJoinPool pool;
+    /** results of the runs or null if results aren't cached */
+    private final SimulationCache cache;
+
+    /**
+     * @param runsPerCombination number of runs of each combination
+     * @param timeLimit virtual time in milliseconds after which run is counted as unfinished
+     * @param seed seed of the seeds of the runs
+     * @param pool pool that runs the modellings
+     */
+    public SweepRunner(int runsPerCombination, long timeLimit, long seed, ForkJoinPool pool) {
+        this(runsPerCombination, timeLimit, seed, pool, null);
+    }
+
+    /**
+     * @param runsPerCombination number of runs of each combination
+     * @param timeLimit virtual time in milliseconds after which run is counted as unfinished
+     * @param seed seed of the seeds of the runs
+     * @param pool pool that runs the modellings
+     * @param cache results of the runs or null if results aren't cached
+     */
+    public SweepRunner(int runsPerCombination, long timeLimit, long seed, ForkJoinPool pool, SimulationCache cache) {
+        if (runsPerCombination < 1) {
+            throw new IllegalArgumentException("Illegal number of runs: " + runsPerCombination);
+        }
+        this.runsPerCombination = runsPerCombination;
+        this.timeLimit = timeLimit;
+        this.seed = seed;
+        this.pool = pool;
+        this.cache = cache;
+    }
+
+    /**
+     * @param combinations numbers of the combinations to run
+     * @return statistics of each combination
+     */
+    public SweepReport run(int[] combinations) {
+        List<CombinationStats> stats = new ArrayList<>(combinations.length);
+        for (int combination : combinations) {
+            stats.add(new CombinationStats(combination));
+        }
+        long[] seeds = new long[combinations.length * runsPerCombination];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int run = 0; run < seeds.length; run++) {
+            seeds[run] = random.nextLong();
+        }
+
+        long start = System.nanoTime();
+        pool.invoke(new RunsTask(stats, seeds, 0, seeds.length));
+        return new SweepReport(stats, System.nanoTime() - start);
+    }
+
+    /**
+     * Runs one modelling of the combination in virtual time. Modelling that settles into a steady state is finished
+     * early as non terminating
+     * @param combination number of the combination
+     * @param timeLimit virtual time in milliseconds after which run is stopped
+     * @param seed seed of the random streams of the robots
+     * @return result of the run
+     */
+    public static SimulationResult runOnce(int combination, long timeLimit, long seed) {
+        return RobotChargeModelling.simulate(Combinations.toStrategies(combination), seed, timeLimit);
+    }
+
+    /**
+     * Runs the range of runs. Run number i is the run of the combination i / runsPerCombination
+     */
+    private class RunsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<CombinationStats> stats;
+        /** seed of each run */
+        private final long[] seeds;
+        private final int from;
+        private final int to;
+
+        RunsTask(List<CombinationStats> stats, long[] seeds, int from, int to) {
+            this.stats = stats;
+            this.seeds = seeds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= RUNS_PER_TASK) {
+                for (int run = from; run < to; run++) {
+                    CombinationStats combinationStats = stats.get(run / runsPerCombination);
+                    int combination = combinationStats.getCombination();
+                    combinationStats.add(cache == null ? runOnce(combination, timeLimit, seeds[run])
+                            : cache.simulate(Combinations.toStrategies(combination), seeds[run], timeLimit));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RunsTask(stats, seeds, from, middle), new RunsTask(stats, seeds, middle, to));
+        }
+    }
+
+    /**
+     * @param args --runs N, --time-limit ms, --combinations all/123321,..., --threads N, --seed N,
+     *             --out file.csv and --cache-dir directory of the results kept between sweeps, all optional
+     */
+    public static void main(String[] args) throws IOException {
+        int runs = 10;
+        long timeLimit = DEFAULT_TIME_LIMIT;
+        String combinations = "all";
+        int threads = Runtime.getRuntime().availableProcessors();
+        String out = null;
+        long seed = System.nanoTime();
+        SimulationCache cache = null;
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Illegal option: " + args[i] + " needs a value");
+            }
+            switch (args[i]) {
+                case "--runs":
+                    runs = Integer.parseInt(args[++i]);
+                    break;
+                case "--time-limit":
+                    timeLimit = Long.parseLong(args[++i]);
+                    break;
+                case "--combinations":
+                    combinations = args[++i];
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--out":
+                    out = args[++i];
+                    break;
+                case "--cache-dir":
+                    cache = new SimulationCache(SimulationCache.DEFAULT_MAX_ENTRIES, Paths.get(args[++i]));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Illegal option: " + args[i]);
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        SweepReport report;
+        try {
+            report = new SweepRunner(runs, timeLimit, seed, pool, cache).run(Combinations.parse(combinations));
+        } finally {
+            pool.shutdown();
+        }
+
+        if (out == null) {
+            report.writeCsv(new OutputStreamWriter(System.out));
+        }
+        else {
+            try (Writer writer = new FileWriter(out)) {
+                report.writeCsv(writer);
+            }
+        }
+        System.err.println(String.format(Locale.ROOT, "%d simulations on %d threads in %d ms: %.1f simulations/s, seed %d",
+                report.getSimulationCount(), threads, report.getElapsedMillis(), report.getSimulationsPerSecond(), seed));
+    }
+}
@@ -0,0 +1,37 @@
+package com.cyxoud.robots.trace;
+
+/**
+ * Layout of the binary trace of the modelling. All numbers are big endian.
+ * <pre>
+ * header:  int magic, short version, short record size, int number of robots,
+ *          then for each seat: byte strategy ordinal, byte initial charge
+ * record:  long time in milliseconds, int seat, byte state change ordinal, byte charge after the change,
+ *          byte charger parts held after the change (1 for left part, 2 for right part), byte reserved
+ * </pre>
+ * Records follow the header in the order of time
+ */
+final class TraceFormat {
+    /** "RBTR" */
+    static final int MAGIC = 0x52425452;
+    static final short VERSION = 1;
+    /** size of the fixed part of the header in bytes */
+    static final int HEADER_SIZE = 12;
+    /** size of the header entry of each seat in bytes */
+    static final int SEAT_ENTRY_SIZE = 2;
+    /** size of each record in bytes */
+    static final int RECORD_SIZE = 16;
+    /** bit of the parts byte set when robot holds charger part at its left side */
+    static final int LEFT_PART = 1;
+    /** bit of the parts byte set when robot holds charger part at its right side */
+    static final int RIGHT_PART = 2;
+
+    private TraceFormat() {}
+
+    /**
+     * @param robotCount number of robots at the table
+     * @return offset of the first record in the trace
+     */
+    static long recordsOffset(int robotCount) {
+        return HEADER_SIZE + (long) SEAT_ENTRY_SIZE * robotCount;
+    }
+}
@@ -0,0 +1,239 @@
+package com.cyxoud.robots.trace;
+
+import com.cyxoud.robots.entities.StateChange;
+import com.cyxoud.robots.entities.RobotStrategy;
+import com.cyxoud.robots.entities.StrategyRegistry;
+import com.cyxoud.robots.exceptions.TraceFormatException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads binary trace of the modelling written by {@link TraceWriter}. Records are streamed through a small buffer
+ * with positional reads, so the trace is never loaded into memory as a whole
+ */
+public class TraceReader implements AutoCloseable {
+    /** number of records read from the file at once */
+    private static final int BUFFERED_RECORDS = 4096;
+    private static final StateChange[] STATE_CHANGES = StateChange.values();
+
+    private final FileChannel channel;
+    private final RobotStrategy[] strategies;
+    private final int[] initialCharges;
+    /** offset of the first record in the file */
+    private final long recordsOffset;
+    private final long recordCount;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFERED_RECORDS * TraceFormat.RECORD_SIZE);
+
+    /**
+     * Opens trace file and reads its header
+     * @param path path of the trace file
+     * @throws IOException if trace file can't be read
+     * @throws TraceFormatException if file is not a trace of the modelling
+     */
+    public TraceReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(TraceFormat.HEADER_SIZE);
+            readFully(header, 0);
+            if (header.getInt() != TraceFormat.MAGIC) {
+                throw new TraceFormatException("File is not a trace of the modelling: " + path);
+            }
+            short version = header.getShort();
+            short recordSize = header.getShort();
+            if (version != TraceFormat.VERSION || recordSize != TraceFormat.RECORD_SIZE) {
+                throw new TraceFormatException("Unsupported version of the trace: " + version);
+            }
+            int robotCount = header.getInt();
+
+            ByteBuffer seats = ByteBuffer.allocate(robotCount * TraceFormat.SEAT_ENTRY_SIZE);
+            readFully(seats, TraceFormat.HEADER_SIZE);
+            strategies = new RobotStrategy[robotCount];
+            initialCharges = new int[robotCount];
+            for (int seat = 0; seat < robotCount; seat++) {
+                strategies[seat] = strategyOf(seats.get());
+                initialCharges[seat] = seats.get();
+            }
+            recordsOffset = TraceFormat.recordsOffset(robotCount);
+            recordCount = (channel.size() - recordsOffset) / TraceFormat.RECORD_SIZE;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getRobotCount() {
+        return strategies.length;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @param seat seat of the robot at the table
+     * @return strategy of the robot
+     */
+    public RobotStrategy getStrategy(int seat) {
+        return strategies[seat];
+    }
+
+    /**
+     * @param seat seat of the robot at the table
+     * @return charge of the robot at the modelling start
+     */
+    public int getInitialCharge(int seat) {
+        return initialCharges[seat];
+    }
+
+    /**
+     * Streams all records of the trace in the order of time
+     * @param visitor receives each record
+     * @throws IOException if trace file can't be read
+     */
+    public void replay(TraceVisitor visitor) throws IOException {
+        replay(-1, visitor);
+    }
+
+    /**
+     * Streams records of one robot in the order of time
+     * @param seat seat of the robot at the table
+     * @param visitor receives each record of the robot
+     * @throws IOException if trace file can't be read
+     */
+    public void timeline(int seat, TraceVisitor visitor) throws IOException {
+        checkSeat(seat);
+        replay(seat, visitor);
+    }
+
+    /**
+     * @param seat seat of the robot or -1 for all robots
+     */
+    private void replay(int seat, TraceVisitor visitor) throws IOException {
+        for (long first = 0; first < recordCount; first += BUFFERED_RECORDS) {
+            int count = readRecords(first, (int) Math.min(BUFFERED_RECORDS, recordCount - first));
+            for (int i = 0; i < count; i++) {
+                int offset = i * TraceFormat.RECORD_SIZE;
+                int recordSeat = buffer.getInt(offset + 8);
+                if (seat < 0 || recordSeat == seat) {
+                    visit(visitor, offset);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the charge of the robot at the moment of time. Records are ordered by time, so the last record at or before
+     * the moment is found with the binary search and the last record of the robot is found scanning back from it
+     * @param seat seat of the robot at the table
+     * @param time time in milliseconds since the modelling start
+     * @return charge of the robot after all its state changes at or before the moment
+     * @throws IOException if trace file can't be read
+     */
+    public int chargeAt(int seat, long time) throws IOException {
+        checkSeat(seat);
+        long end = firstRecordAfter(time);
+        while (end > 0) {
+            long first = Math.max(0, end - BUFFERED_RECORDS);
+            int count = readRecords(first, (int) (end - first));
+            for (int i = count - 1; i >= 0; i--) {
+                int offset = i * TraceFormat.RECORD_SIZE;
+                if (buffer.getInt(offset + 8) == seat) {
+                    return buffer.get(offset + 13);
+                }
+            }
+            end = first;
+        }
+        return initialCharges[seat];
+    }
+
+    /**
+     * @return index of the first record which time is after the moment or number of records if there is no such one
+     */
+    private long firstRecordAfter(long time) throws IOException {
+        ByteBuffer timeBuffer = ByteBuffer.allocate(8);
+        long low = 0;
+        long high = recordCount;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            timeBuffer.clear();
+            readFully(timeBuffer, recordsOffset + middle * TraceFormat.RECORD_SIZE);
+            if (timeBuffer.getLong() <= time) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Reads records to the buffer
+     * @return number of read records
+     */
+    private int readRecords(long first, int count) throws IOException {
+        buffer.clear().limit(count * TraceFormat.RECORD_SIZE);
+        readFully(buffer, recordsOffset + first * TraceFormat.RECORD_SIZE);
+        return count;
+    }
+
+    private void readFully(ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position);
+            if (read < 0) {
+                throw new EOFException("Trace ended unexpectedly");
+            }
+            position += read;
+        }
+        target.flip();
+    }
+
+    private void visit(TraceVisitor visitor, int offset) {
+        int parts = buffer.get(offset + 14);
+        visitor.visit(buffer.getLong(offset),
+                buffer.getInt(offset + 8),
+                stateChangeOf(buffer.get(offset + 12)),
+                buffer.get(offset + 13),
+                (parts & TraceFormat.LEFT_PART) != 0,
+                (parts & TraceFormat.RIGHT_PART) != 0);
+    }
+
+    /**
+     * @param id id of the strategy in the registry, it is written to the trace by the writer
+     * @return registered strategy
+     */
+    private static RobotStrategy strategyOf(int id) {
+        try {
+            return StrategyRegistry.forId(id);
+        } catch (IllegalArgumentException e) {
+            throw new TraceFormatException("Trace has unknown strategy: " + id);
+        }
+    }
+
+    /**
+     * @param ordinal ordinal of the state change, it is written to the trace by the writer
+     * @return state change of the record
+     */
+    private static StateChange stateChangeOf(int ordinal) {
+        if (ordinal < 0 || ordinal >= STATE_CHANGES.length) {
+            throw new TraceFormatException("Trace has unknown state change: " + ordinal);
+        }
+        return STATE_CHANGES[ordinal];
+    }
+
+    private void checkSeat(int seat) {
+        if (seat < 0 || seat >= strategies.length) {
+            throw new IllegalArgumentException("Illegal seat: " + seat + ". Trace has " + strategies.length + " robots");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,114 @@
+package com.cyxoud.robots.trace;
+
+import com.cyxoud.robots.entities.StateChange;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+
+/**
+ * Command line tool that replays binary trace of the modelling
+ */
+public class TraceReplay {
+    private static final String ROBOT_OPTION = "--robot";
+    private static final String CHARGE_OPTION = "--charge";
+    private static final String USAGE = "Usage: TraceReplay <trace> [" + ROBOT_OPTION + " <seat> | "
+            + CHARGE_OPTION + " <seat> <time ms>]";
+
+    private TraceReplay() {}
+
+    /**
+     * @param args path of the trace, optionally followed by --robot seat to print timeline of the robot
+     *             or --charge seat time to print charge of the robot at the moment
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1 && args.length != 3 && args.length != 4) {
+            throw new IllegalArgumentException(USAGE);
+        }
+        try (TraceReader reader = new TraceReader(Paths.get(args[0]))) {
+            if (args.length == 1) {
+                printSummary(reader, System.out);
+            }
+            else if (args.length == 3 && args[1].equals(ROBOT_OPTION)) {
+                printTimeline(reader, Integer.parseInt(args[2]), System.out);
+            }
+            else if (args.length == 4 && args[1].equals(CHARGE_OPTION)) {
+                System.out.println(reader.chargeAt(Integer.parseInt(args[2]), Long.parseLong(args[3])));
+            }
+            else {
+                throw new IllegalArgumentException(USAGE);
+            }
+        }
+    }
+
+    /**
+     * Prints one line per robot: strategy, initial and final charge, number of charges and discharges,
+     * and time when robot was disconnected or full charged last time
+     */
+    static void printSummary(TraceReader reader, PrintStream out) throws IOException {
+        int robotCount = reader.getRobotCount();
+        final int[] charges = new int[robotCount];
+        final int[] chargedCount = new int[robotCount];
+        final int[] dischargedCount = new int[robotCount];
+        final long[] disconnectedAt = new long[robotCount];
+        final long[] fullChargedAt = new long[robotCount];
+        for (int seat = 0; seat < robotCount; seat++) {
+            charges[seat] = reader.getInitialCharge(seat);
+            disconnectedAt[seat] = -1;
+            fullChargedAt[seat] = -1;
+        }
+
+        reader.replay(new TraceVisitor() {
+            @Override
+            public void visit(long time, int seat, StateChange change, int charge,
+                              boolean hasLeftPart, boolean hasRightPart) {
+                charges[seat] = charge;
+                switch (change) {
+                    case CHARGED:
+                        chargedCount[seat]++;
+                        break;
+                    case DISCHARGED:
+                        dischargedCount[seat]++;
+                        break;
+                    case DISCONNECTED:
+                        disconnectedAt[seat] = time;
+                        break;
+                    case FULL_CHARGED:
+                        fullChargedAt[seat] = time;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        });
+
+        out.println(reader.getRecordCount() + " records of " + robotCount + " robots");
+        for (int seat = 0; seat < robotCount; seat++) {
+            StringBuilder line = new StringBuilder();
+            line.append("Robot at seat ").append(seat).append(" (").append(reader.getStrategy(seat)).append("): ")
+                    .append(reader.getInitialCharge(seat)).append("% -> ").append(charges[seat]).append("%, charged ")
+                    .append(chargedCount[seat]).append(" times, discharged ").append(dischargedCount[seat]).append(" times");
+            if (disconnectedAt[seat] >= 0) {
+                line.append(", disconnected at ").append(disconnectedAt[seat]).append(" ms");
+            }
+            if (fullChargedAt[seat] >= 0) {
+                line.append(", full charged at ").append(fullChargedAt[seat]).append(" ms");
+            }
+            out.println(line);
+        }
+    }
+
+    /**
+     * Prints all state changes of the robot with the charger parts it held after each of them
+     */
+    static void printTimeline(TraceReader reader, int seat, final PrintStream out) throws IOException {
+        reader.timeline(seat, new TraceVisitor() {
+            @Override
+            public void visit(long time, int seat, StateChange change, int charge,
+                              boolean hasLeftPart, boolean hasRightPart) {
+                out.println(time + " ms: " + change + ", charge = " + charge
+                        + (hasLeftPart ? ", has left part" : "") + (hasRightPart ? ", has right part" : ""));
+            }
+        });
+    }
+}
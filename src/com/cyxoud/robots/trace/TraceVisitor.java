@@ -0,0 +1,18 @@
+package com.cyxoud.robots.trace;
+
+import com.cyxoud.robots.entities.StateChange;
+
+/**
+ * Receives records of the trace while it is streamed
+ */
+public interface TraceVisitor {
+    /**
+     * @param time time of the state change in milliseconds since the modelling start
+     * @param seat seat of the robot at the table
+     * @param change kind of the state change
+     * @param charge charge of the robot right after the change
+     * @param hasLeftPart true if robot held charger part at its left side right after the change
+     * @param hasRightPart true if robot held charger part at its right side right after the change
+     */
+    void visit(long time, int seat, StateChange change, int charge, boolean hasLeftPart, boolean hasRightPart);
+}
@@ -0,0 +1,222 @@
+package com.cyxoud.robots.trace;
+
+import com.cyxoud.robots.entities.Robot;
+import com.cyxoud.robots.entities.RobotStateListener;
+import com.cyxoud.robots.entities.StateChange;
+import com.cyxoud.robots.entities.StrategyRegistry;
+import com.cyxoud.robots.simulation.Clock;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes every state change of the robots to the binary trace file as a fixed-width record.
+ * Robot threads only copy the state change into a preallocated ring buffer, without taking a lock, and a background
+ * thread writes the records to the file channel in batches. Time of the record is read after the sequence of the record
+ * is seen and before it is claimed, so a record claimed later never has an earlier time and records in the file
+ * are ordered by time. When the buffer is full the robot waits for free space, so the trace is complete
+ */
+public class TraceWriter implements AutoCloseable {
+    /** number of records in the ring buffer, power of two */
+    private static final int CAPACITY = 1 << 14;
+    private static final int MASK = CAPACITY - 1;
+    /** maximal number of records written at once */
+    private static final int BATCH_SIZE = 4096;
+    /** time the consumer sleeps when buffer is empty */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    /** time the robot sleeps waiting for free space when buffer is full */
+    private static final long BACKPRESSURE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    /** bit of the claimed sequence set when writer is closed, so no sequence can be claimed after closing */
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    /** source of the records time */
+    private final Clock clock;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BATCH_SIZE * TraceFormat.RECORD_SIZE);
+
+    /** time of each record */
+    private final long[] times = new long[CAPACITY];
+    /** seat of each record */
+    private final int[] seats = new int[CAPACITY];
+    /** kind of each record */
+    private final StateChange[] changes = new StateChange[CAPACITY];
+    /** charge after the change of each record */
+    private final byte[] charges = new byte[CAPACITY];
+    /** charger parts held after the change of each record */
+    private final byte[] parts = new byte[CAPACITY];
+    /** sequence + 1 of the record published in each slot */
+    private final AtomicLongArray published = new AtomicLongArray(CAPACITY);
+
+    /** next sequence to be claimed by robots, with {@link #CLOSED} bit set when writer is closed */
+    private final AtomicLong claimed = new AtomicLong();
+    /** next sequence to be written. Written only by the consumer */
+    private volatile long consumed;
+    /** failure of writing the trace file or null if records are written */
+    private volatile IOException failure;
+    /** writes records to the file */
+    private final Thread consumer;
+
+    /**
+     * Creates trace file, writes its header and subscribes writer to the state changes of all the robots
+     * @param path path of the trace file. Existing file is replaced
+     * @param clock source of the records time. Time must never go back
+     * @param robots list of constructed robots in the order of their seats at the table
+     * @throws IOException if trace file can't be created
+     */
+    public TraceWriter(Path path, Clock clock, List<Robot> robots) throws IOException {
+        this.clock = clock;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        ByteBuffer header = ByteBuffer.allocate((int) TraceFormat.recordsOffset(robots.size()));
+        header.putInt(TraceFormat.MAGIC)
+                .putShort(TraceFormat.VERSION)
+                .putShort((short) TraceFormat.RECORD_SIZE)
+                .putInt(robots.size());
+        for (Robot robot : robots) {
+            header.put((byte) StrategyRegistry.idOf(robot.getStrategy())).put((byte) robot.getCharge());
+        }
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+
+        consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                consume();
+            }
+        }, "trace-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+
+        for (int seat = 0; seat < robots.size(); seat++) {
+            robots.get(seat).addStateListener(new SeatListener(seat));
+        }
+    }
+
+    /**
+     * Copies record of the state change into the ring buffer
+     */
+    private void record(int seat, Robot robot, StateChange change, int charge) {
+        long sequence;
+        long time;
+        while (true) {
+            sequence = claimed.get();
+            if ((sequence & CLOSED) != 0) return;
+            if (sequence - consumed >= CAPACITY) {
+                LockSupport.parkNanos(BACKPRESSURE_PARK_NANOS);
+                continue;
+            }
+            time = clock.millis();
+            if (claimed.compareAndSet(sequence, sequence + 1)) break;
+        }
+
+        int index = (int) sequence & MASK;
+        times[index] = time;
+        seats[index] = seat;
+        changes[index] = change;
+        charges[index] = (byte) charge;
+        parts[index] = (byte) ((robot.hasLeftChargerPart() ? TraceFormat.LEFT_PART : 0)
+                | (robot.hasRightChargerPart() ? TraceFormat.RIGHT_PART : 0));
+        published.lazySet(index, sequence + 1);
+    }
+
+    /**
+     * Writes published records in batches until writer is closed and all records are written
+     */
+    private void consume() {
+        while (true) {
+            long next = consumed;
+            int count = 0;
+            while (count < BATCH_SIZE && published.get((int) next & MASK) == next + 1) {
+                int index = (int) next & MASK;
+                buffer.putLong(times[index])
+                        .putInt(seats[index])
+                        .put((byte) changes[index].ordinal())
+                        .put(charges[index])
+                        .put(parts[index])
+                        .put((byte) 0);
+                next++;
+                count++;
+            }
+
+            if (count > 0) {
+                writeBuffer();
+                consumed = next;
+            }
+            else if (claimed.get() == (next | CLOSED)) {
+                return;
+            }
+            else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void writeBuffer() {
+        buffer.flip();
+        try {
+            while (failure == null && buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+        buffer.clear();
+    }
+
+    /**
+     * @return number of records accepted so far
+     */
+    public long getRecordCount() {
+        return claimed.get() & ~CLOSED;
+    }
+
+    /**
+     * Stops accepting state changes, waits until all accepted ones are written and closes the trace file.
+     * State changes published after closing are ignored
+     * @throws IOException if trace file can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if ((sequence & CLOSED) != 0) return;
+        } while (!claimed.compareAndSet(sequence, sequence | CLOSED));
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Binds the state changes of the robot to its seat
+     */
+    private class SeatListener implements RobotStateListener {
+        private final int seat;
+
+        SeatListener(int seat) {
+            this.seat = seat;
+        }
+
+        @Override
+        public void onStateChange(Robot robot, StateChange change, int charge) {
+            record(seat, robot, change, charge);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import com.cyxoud.robots.TableBuilder;
+import com.cyxoud.robots.entities.*;
+import com.cyxoud.robots.logging.AsyncStateLogger;
+import com.cyxoud.robots.simulation.Clock;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Tests of the asynchronous logging of robots state changes
+ */
+public class AsyncStateLoggerTest {
+    private static final Clock FIXED_CLOCK = new Clock() {
+        @Override
+        public long millis() {
+            return 42;
+        }
+    };
+
+    @Test
+    public void testThatStateChangesAreWrittenInOrderOnClose() {
+        List<Robot> robots = TableBuilder.ring(new Strategy[]{Strategy.GREEDY, Strategy.GREEDY});
+        Robot robot = robots.get(0);
+        StringWriter out = new StringWriter();
+        try (AsyncStateLogger logger = new AsyncStateLogger(FIXED_CLOCK, out, 4, AsyncStateLogger.OverflowPolicy.BLOCK)
+                .attachTo(robots)) {
+            for (int i = 0; i < 10; i++) {
+                robot.tryTakeLeftChargerPart();
+                robot.tryFreeLeftChargerPart();
+            }
+        }
+
+        String[] lines = out.toString().split(System.lineSeparator());
+        assertEquals(lines.length, 20);
+        assertTrue(lines[0].startsWith("42 ms: Robot" + robot.getCurI() + " got left charger part"));
+        assertTrue(lines[19].startsWith("42 ms: Robot" + robot.getCurI() + " freed left charger part"));
+    }
+
+    @Test
+    public void testThatChargeAndDischargeAreWrittenWithAmountsOfTheConfig() {
+        SimulationConfig config = SimulationConfig.DEFAULT.withChargeAmount(7).withOneStepDischarge(3);
+        List<Robot> robots = TableBuilder.ring(new Strategy[]{Strategy.GREEDY, Strategy.GREEDY},
+                new SplittableRandom(1), config);
+        Robot robot = robots.get(0);
+        StringWriter out = new StringWriter();
+        try (AsyncStateLogger logger = new AsyncStateLogger(FIXED_CLOCK, out, 4, AsyncStateLogger.OverflowPolicy.BLOCK)
+                .attachTo(robots)) {
+            robot.tryTakeLeftChargerPart();
+            robot.tryTakeRightChargerPart();
+            robot.beCharged();
+            robot.beDischarged();
+        }
+
+        String[] lines = out.toString().split(System.lineSeparator());
+        assertEquals(lines.length, 4);
+        assertEquals(lines[2], "42 ms: Robot" + robot.getCurI() + " charged by 7. Current charge = 57");
+        assertEquals(lines[3], "42 ms: Robot" + robot.getCurI() + " was discharged by 3. Current charge = 54");
+    }
+
+    @Test
+    public void testThatStateChangesAreDroppedWhenBufferIsFull() throws InterruptedException {
+        List<Robot> robots = TableBuilder.ring(new Strategy[]{Strategy.GREEDY, Strategy.GREEDY});
+        Robot robot = robots.get(0);
+        final CountDownLatch writeAllowed = new CountDownLatch(1);
+        Writer stuckWriter = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                try {
+                    writeAllowed.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        AsyncStateLogger logger = new AsyncStateLogger(FIXED_CLOCK, stuckWriter, 1, AsyncStateLogger.OverflowPolicy.DROP)
+                .attachTo(robots);
+        for (int i = 0; i < 5; i++) {
+            robot.tryTakeLeftChargerPart();
+            robot.tryFreeLeftChargerPart();
+        }
+        writeAllowed.countDown();
+        logger.close();
+
+        assertTrue(logger.getDroppedCount() >= 8);
+    }
+}
@@ -0,0 +1,128 @@
+import com.cyxoud.robots.StrategySpec;
+import com.cyxoud.robots.TableBuilder;
+import com.cyxoud.robots.entities.PartAcquisition;
+import com.cyxoud.robots.entities.Robot;
+import com.cyxoud.robots.entities.RobotView;
+import com.cyxoud.robots.entities.SimulationConfig;
+import com.cyxoud.robots.entities.Strategy;
+import com.cyxoud.robots.simulation.CompactSimulation;
+import com.cyxoud.robots.simulation.CompletionTracker;
+import com.cyxoud.robots.simulation.DiscreteEventSimulation;
+import com.cyxoud.robots.simulation.SimulationResult;
+import com.cyxoud.robots.simulation.SteadyStateDetector;
+import com.cyxoud.robots.sweep.Combinations;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Tests of the compact modelling in virtual time
+ */
+public class CompactSimulationTest {
+    /** virtual time limit for the modellings that may never finish. Ten minutes */
+    private static final long TIME_LIMIT = 10 * 60 * 1000;
+
+    @Test
+    public void testThatCompactModellingGivesSameResultsAsModellingOfRobots() {
+        for (int combination = 0; combination < Combinations.COUNT; combination++) {
+            Strategy[] strategies = Combinations.toStrategies(combination);
+            for (long seed = 0; seed < 3; seed++) {
+                assertEquals(runCompact(strategies, seed, SimulationConfig.DEFAULT).toString(),
+                        runRobots(strategies, seed, SimulationConfig.DEFAULT).toString());
+            }
+        }
+    }
+
+    @Test
+    public void testThatCompactModellingTakesChargerPartsAsRobotsDo() {
+        for (PartAcquisition acquisition : PartAcquisition.values()) {
+            SimulationConfig config = SimulationConfig.DEFAULT.withPartAcquisition(acquisition);
+            for (int combination = 0; combination < Combinations.COUNT; combination++) {
+                Strategy[] strategies = Combinations.toStrategies(combination);
+                assertEquals(runCompact(strategies, 1, config).toString(),
+                        runRobots(strategies, 1, config).toString());
+            }
+            Strategy[] strategies = StrategySpec.parse("mix:1,1,1", 2001, new Random(1));
+            assertEquals(runCompact(strategies, 1, config, 4).toString(), runRobots(strategies, 1, config).toString());
+        }
+    }
+
+    @Test
+    public void testThatCompactModellingQueuesForFairChargerPartsAsRobotsDo() {
+        for (PartAcquisition acquisition : PartAcquisition.values()) {
+            if (acquisition == PartAcquisition.ALL_OR_NOTHING) continue;
+            SimulationConfig config = SimulationConfig.DEFAULT.withFairChargerParts(true)
+                    .withPartAcquisition(acquisition);
+            for (int combination = 0; combination < Combinations.COUNT; combination += 3) {
+                Strategy[] strategies = Combinations.toStrategies(combination);
+                assertEquals(runCompact(strategies, 2, config).toString(),
+                        runRobots(strategies, 2, config).toString());
+            }
+            Strategy[] strategies = StrategySpec.parse("mix:1,1,1", 2001, new Random(2));
+            assertEquals(runCompact(strategies, 2, config, 4).toString(), runRobots(strategies, 2, config).toString());
+        }
+    }
+
+    @Test
+    public void testThatLargeTableGivesSameResultsAsModellingOfRobots() {
+        Strategy[] strategies = StrategySpec.parse("mix:1,2,2", 1001, new Random(7));
+        SimulationConfig config = SimulationConfig.DEFAULT.withOneStepDischarge(3);
+        assertEquals(runCompact(strategies, 7, config).toString(), runRobots(strategies, 7, config).toString());
+    }
+
+    @Test
+    public void testThatPartitionedModellingGivesSameResultsAsOneSegment() {
+        for (int combination = 0; combination < Combinations.COUNT; combination += 7) {
+            Strategy[] strategies = Combinations.toStrategies(combination);
+            for (int partitions = 2; partitions <= 6; partitions += 2) {
+                assertEquals(runCompact(strategies, 5, SimulationConfig.DEFAULT, partitions).toString(),
+                        runCompact(strategies, 5, SimulationConfig.DEFAULT).toString());
+            }
+        }
+        for (String spec : new String[]{"mix:1,1,1", "mix:0,1,1", "23"}) {
+            Strategy[] strategies = StrategySpec.parse(spec, 20001, new Random(11));
+            assertEquals(runCompact(strategies, 11, SimulationConfig.DEFAULT, 4).toString(),
+                    runCompact(strategies, 11, SimulationConfig.DEFAULT).toString());
+        }
+    }
+
+    @Test
+    public void testThatRobotViewShowsStateOfTheSeat() {
+        CompactSimulation simulation = new CompactSimulation(new Strategy[]{Strategy.GREEDY, Strategy.GREEDY,
+                Strategy.GREEDY}, new SplittableRandom(1), SimulationConfig.DEFAULT);
+        RobotView robot = simulation.getRobot(0);
+        assertEquals(robot.getCharge(), SimulationConfig.DEFAULT.getInitialCharge());
+        assertTrue(robot.tryTakeLeftChargerPart());
+        assertEquals(robot.getLeftNeighbour().tryTakeRightChargerPart(), false);
+        assertTrue(robot.tryTakeRightChargerPart());
+        assertTrue(robot.gatheredCharging());
+        robot.beCharged();
+        assertEquals(robot.getCharge(), SimulationConfig.DEFAULT.getInitialCharge()
+                + SimulationConfig.DEFAULT.getChargeAmount());
+        assertEquals(robot.getRightNeighbour().checkChargePartsAvailability(), false);
+    }
+
+    private SimulationResult runCompact(Strategy[] strategies, long seed, SimulationConfig config) {
+        return runCompact(strategies, seed, config, 1);
+    }
+
+    private SimulationResult runCompact(Strategy[] strategies, long seed, SimulationConfig config, int partitions) {
+        CompactSimulation simulation = new CompactSimulation(strategies, new SplittableRandom(seed), config,
+                new SteadyStateDetector(), partitions);
+        simulation.runUntil(TIME_LIMIT);
+        return simulation.getResult();
+    }
+
+    private SimulationResult runRobots(Strategy[] strategies, long seed, SimulationConfig config) {
+        List<Robot> robots = TableBuilder.ring(strategies, new SplittableRandom(seed), config);
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(robots, new CompletionTracker(robots),
+                new SteadyStateDetector());
+        simulation.runUntil(TIME_LIMIT);
+        return simulation.getResult();
+    }
+}
@@ -0,0 +1,196 @@
+import com.cyxoud.robots.RobotChargeModelling;
+import com.cyxoud.robots.TableBuilder;
+import com.cyxoud.robots.entities.*;
+import com.cyxoud.robots.execution.ThreadPerRobotBackend;
+import com.cyxoud.robots.simulation.CompletionTracker;
+import com.cyxoud.robots.simulation.DiscreteEventSimulation;
+import com.cyxoud.robots.simulation.SimulationMode;
+import com.cyxoud.robots.simulation.SimulationResult;
+import com.cyxoud.robots.simulation.SteadyStateDetector;
+import com.cyxoud.robots.sweep.Combinations;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Tests of the modelling in virtual time
+ */
+public class DiscreteEventSimulationTest {
+    /** virtual time limit for the modellings that may never finish. Ten minutes */
+    private static final long TIME_LIMIT = 10 * 60 * 1000;
+
+    @Test
+    public void testThatVirtualTimeModellingExitsWithRightRobotCharges() {
+        RobotChargeModelling robotCharge = new RobotChargeModelling(new String[] {"1", "2" , "3", "3", "2", "1"},
+                SimulationMode.VIRTUAL_TIME);
+        for (int charge : robotCharge.getResult().getCharges()) {
+            assertTrue(charge == 0 || charge == 100);
+        }
+    }
+
+    /**
+     * Real time keeps the order the robots were started in only until the timings of their threads drift apart, so
+     * it doesn't end each table the same way every time: two runs of all the combinations in real time agree on about
+     * seven tables of eight. Virtual time must agree with real time as well as that on the whole combination set and
+     * charge about the same number of robots
+     */
+    @Test(timeout = 600000)
+    public void testThatRealAndVirtualTimeGiveSameDistributionOfCharges() {
+        SimulationConfig config = SimulationConfig.DEFAULT.withTimeScale(100).withSteadyStateSampling(true);
+        int sameTables = 0;
+        int realFullCharged = 0;
+        int virtualFullCharged = 0;
+        for (int combination = 0; combination < Combinations.COUNT; combination++) {
+            Strategy[] strategies = Combinations.toStrategies(combination);
+            SimulationResult virtualResult = RobotChargeModelling.simulate(strategies, 1, TIME_LIMIT, config);
+            SimulationResult realResult = new RobotChargeModelling(strategies, SimulationMode.REAL_TIME,
+                    new ThreadPerRobotBackend(), null, 1L, config, false, null).getResult();
+            if (realResult.getOutcome() == virtualResult.getOutcome()
+                    && sorted(realResult.getCharges()).equals(sorted(virtualResult.getCharges()))) {
+                sameTables++;
+            }
+            realFullCharged += realResult.getFullChargedCount();
+            virtualFullCharged += virtualResult.getFullChargedCount();
+        }
+        assertTrue(sameTables + " of " + Combinations.COUNT + " tables are the same",
+                sameTables * 5 >= Combinations.COUNT * 4);
+        assertTrue(realFullCharged + " robots are full charged in real time and " + virtualFullCharged
+                + " in virtual time", Math.abs(realFullCharged - virtualFullCharged) * 20 <= virtualFullCharged);
+    }
+
+    @Test
+    public void testThatFinishedModellingsOfAllCombinationsHaveRightRobotCharges() {
+        int finished = 0;
+        for (int combination = 0; combination < 729; combination++) {
+            List<Robot> robots = table(combination);
+            CompletionTracker completionTracker = new CompletionTracker(robots);
+            if (new DiscreteEventSimulation(robots, completionTracker).runUntil(TIME_LIMIT)) {
+                finished++;
+                for (Robot robot : robots) {
+                    assertTrue(robot.getCharge() == 0 || robot.getCharge() == 100);
+                }
+            }
+        }
+        assertTrue(finished > 0);
+    }
+
+    @Test
+    public void testThatModellingWithoutRandomRobotsIsRepeatable() {
+        int combination = 1 + 2 * 3 + 1 * 9 + 2 * 27 + 1 * 81 + 2 * 243;
+        int[] firstCharges = runAndGetCharges(table(combination));
+        int[] secondCharges = runAndGetCharges(table(combination));
+        for (int i = 0; i < firstCharges.length; i++) {
+            assertEquals(firstCharges[i], secondCharges[i]);
+        }
+    }
+
+    @Test
+    public void testThatSteadyStateIsRecognizedOnlyInModellingsThatNeverFinish() {
+        int nonTerminating = 0;
+        for (int combination = 0; combination < 729; combination++) {
+            List<Robot> robots = table(combination, combination);
+            boolean finished = new DiscreteEventSimulation(robots, new CompletionTracker(robots)).runUntil(TIME_LIMIT);
+
+            List<Robot> detectedRobots = table(combination, combination);
+            DiscreteEventSimulation detectedSimulation = new DiscreteEventSimulation(detectedRobots,
+                    new CompletionTracker(detectedRobots), new SteadyStateDetector());
+            assertTrue(detectedSimulation.runUntil(TIME_LIMIT));
+            SimulationResult result = detectedSimulation.getResult();
+            if (result.isNonTerminating()) {
+                nonTerminating++;
+                assertTrue(!finished);
+                assertTrue(result.getSteadyState().getPeriodMillis() > 0);
+            }
+            else {
+                assertTrue(finished);
+            }
+        }
+        assertTrue(nonTerminating > 0);
+    }
+
+    @Test
+    public void testThatModellingWithSameSeedIsRepeatable() {
+        Strategy[] strategies = {Strategy.RANDOM, Strategy.RANDOM, Strategy.GREEDY,
+                Strategy.RANDOM, Strategy.GENTLEMANLY, Strategy.RANDOM};
+        SimulationResult first = runWithSeed(strategies, 7);
+        SimulationResult second = runWithSeed(strategies, 7);
+        assertEquals(first.getDurationMillis(), second.getDurationMillis());
+        assertEquals(first.getOutcome(), second.getOutcome());
+        for (int i = 0; i < strategies.length; i++) {
+            assertEquals(first.getCharge(i), second.getCharge(i));
+        }
+    }
+
+    @Test
+    public void testThatModellingWithHalvedTimesTakesHalfTheTime() {
+        SimulationConfig halved = SimulationConfig.DEFAULT.withChargeDelayTime(250).withDischargeDelayTime(500)
+                .withGreedyDelayTime(250).withGentlemanlySleepTime(100).withTimeScale(10);
+        for (int combination = 0; combination < 729; combination++) {
+            Strategy[] strategies = strategies(combination);
+            if (Arrays.asList(strategies).contains(Strategy.RANDOM)) continue;
+            SimulationResult original = RobotChargeModelling.simulate(strategies, 1, TIME_LIMIT);
+            SimulationResult scaled = RobotChargeModelling.simulate(strategies, 1, TIME_LIMIT / 2, halved);
+            assertEquals(scaled.getOutcome(), original.getOutcome());
+            assertEquals(scaled.getDurationMillis() * 2, original.getDurationMillis());
+            assertTrue(Arrays.equals(scaled.getCharges(), original.getCharges()));
+        }
+    }
+
+    private SimulationResult runWithSeed(Strategy[] strategies, long seed) {
+        List<Robot> robots = TableBuilder.ring(strategies, new SplittableRandom(seed));
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(robots, new CompletionTracker(robots));
+        simulation.runUntil(TIME_LIMIT);
+        return simulation.getResult();
+    }
+
+    /**
+     * @return charges in ascending order, e.g. [0, 0, 100]
+     */
+    private static String sorted(int[] charges) {
+        int[] sortedCharges = charges.clone();
+        Arrays.sort(sortedCharges);
+        return Arrays.toString(sortedCharges);
+    }
+
+    private int[] runAndGetCharges(List<Robot> robots) {
+        CompletionTracker completionTracker = new CompletionTracker(robots);
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(robots, completionTracker);
+        simulation.runUntil(TIME_LIMIT);
+        assertTrue(simulation.getClock().millis() > 0);
+        int[] charges = new int[robots.size()];
+        for (int i = 0; i < charges.length; i++) {
+            charges[i] = robots.get(i).getCharge();
+        }
+        return charges;
+    }
+
+    /**
+     * @param combination number of the combination of strategies, each base 3 digit is a strategy of one robot
+     * @return robots sitting at the table of 6 seats
+     */
+    private List<Robot> table(int combination) {
+        return TableBuilder.ring(strategies(combination));
+    }
+
+    /**
+     * @param combination number of the combination of strategies
+     * @param seed seed of the random robots
+     * @return robots sitting at the table of 6 seats which random robots are repeatable
+     */
+    private List<Robot> table(int combination, long seed) {
+        return TableBuilder.ring(strategies(combination), new SplittableRandom(seed));
+    }
+
+    private Strategy[] strategies(int combination) {
+        Strategy[] strategies = new Strategy[6];
+        for (int i = 0; i < 6; i++, combination /= 3) {
+            strategies[i] = Strategy.values()[combination % 3];
+        }
+        return strategies;
+    }
+}
@@ -1,10 +1,21 @@
 import com.cyxoud.robots.RobotChargeModelling;
-import com.cyxoud.robots.entities.Robot;
+import com.cyxoud.robots.entities.SimulationConfig;
+import com.cyxoud.robots.entities.Strategy;
 import com.cyxoud.robots.exceptions.IllegalArgumentsNumberException;
+import com.cyxoud.robots.execution.SharedSchedulerBackend;
+import com.cyxoud.robots.execution.ThreadPerRobotBackend;
+import com.cyxoud.robots.simulation.Outcome;
+import com.cyxoud.robots.simulation.SimulationMode;
+import com.cyxoud.robots.simulation.SimulationResult;
 import org.junit.Test;
 
-import java.lang.reflect.Field;
-import java.util.List;
+import java.io.StringWriter;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
@@ -17,8 +28,29 @@ public class RobotChargeTest {
 
     @Test(expected = IllegalArgumentsNumberException.class)
     public void testThatExceptionThrownWhenInccorrectArgumentsNumber() {
-        RobotChargeModelling.main(new String[] {"1", "2", "3", "2", "3"});
+        RobotChargeModelling.main(new String[] {});
     }
+
+    @Test
+    public void testThatTableOfAnySizeIsModelledFromNumbers() {
+        RobotChargeModelling robotCharge = new RobotChargeModelling(new String[] {"1", "2", "3", "2", "3"},
+                SimulationMode.VIRTUAL_TIME);
+        assertEquals(robotCharge.getResult().getRobotCount(), 5);
+    }
+
+    @Test
+    public void testThatStateChangesAreLoggedToGivenWriterOnly() {
+        Strategy[] strategies = {Strategy.RANDOM, Strategy.GREEDY, Strategy.GENTLEMANLY};
+        StringWriter stateLog = new StringWriter();
+        new RobotChargeModelling(strategies, SimulationMode.VIRTUAL_TIME, new ThreadPerRobotBackend(), null, 1L,
+                SimulationConfig.DEFAULT, false, stateLog);
+        assertTrue(stateLog.toString().length() > 0);
+
+        RobotChargeModelling silentRobotCharge = new RobotChargeModelling(strategies, SimulationMode.VIRTUAL_TIME,
+                new ThreadPerRobotBackend(), null, 1L, SimulationConfig.DEFAULT, false, null);
+        assertEquals(silentRobotCharge.getResult().getRobotCount(), 3);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testThatExceptionThrownWhenIntegerNotPassed() {
         RobotChargeModelling.main(new String[] {"1", "2", "3", "ok", "3", "4"});
@@ -31,18 +63,48 @@ public class RobotChargeTest {
 
     @Test
     public void testThatModellingExitsWithRightRobotCharges(){
-        try {
-            RobotChargeModelling robotCharge = new RobotChargeModelling(new String[] {"1", "2" , "3", "3", "2", "1"});
-            Field robotsField = RobotChargeModelling.class.getDeclaredField("robots");
-            robotsField.setAccessible(true);
-            List<Robot> robots = (List<Robot>) robotsField.get(robotCharge);
-            for (Robot robot : robots) {
-                assertTrue(robot.getCharge() == 0 || robot.getCharge() == 100);
-            }
-        } catch (NoSuchFieldException e) {
-            System.out.println("Error in test");
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
+        // greedy robots never free the charger, so one of them keeps it and the modelling always terminates
+        Strategy[] strategies = {Strategy.GREEDY, Strategy.GREEDY, Strategy.GREEDY};
+        StringWriter stateLog = new StringWriter();
+        SimulationResult result = new RobotChargeModelling(strategies, SimulationMode.REAL_TIME,
+                new ThreadPerRobotBackend(), null, null, SimulationConfig.DEFAULT, false, stateLog).getResult();
+
+        // charges each robot really had, by the number of the robot
+        TreeMap<Integer, Set<Integer>> loggedCharges = new TreeMap<>();
+        Matcher line = Pattern.compile("ms: Robot(\\d+) .*Current charge = (\\d+)").matcher(stateLog.toString());
+        while (line.find()) {
+            int robot = Integer.parseInt(line.group(1));
+            if (!loggedCharges.containsKey(robot)) loggedCharges.put(robot, new HashSet<Integer>());
+            loggedCharges.get(robot).add(Integer.parseInt(line.group(2)));
+        }
+        assertEquals(loggedCharges.size(), strategies.length);
+
+        int firstRobot = loggedCharges.firstKey();
+        int[] charges = result.getCharges();
+        for (int seat = 0; seat < charges.length; seat++) {
+            assertTrue(charges[seat] == 0
+                    || charges[seat] == 100 && result.getOutcome() == Outcome.ALL_ALIVE_FULL_CHARGED);
+            assertTrue(loggedCharges.get(firstRobot + seat).contains(charges[seat]));
+        }
+    }
+
+    @Test
+    public void testThatModellingWithSharedSchedulerExitsWithRightRobotCharges() throws Exception {
+        RobotChargeModelling robotCharge = new RobotChargeModelling(new String[] {"2", "2", "2"},
+                SimulationMode.REAL_TIME, new SharedSchedulerBackend(Executors.defaultThreadFactory()));
+        for (int charge : robotCharge.getResult().getCharges()) {
+            assertTrue(charge == 0 || charge == 100);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testThatAcceleratedModellingExitsWithRightRobotCharges() throws Exception {
+        SimulationConfig config = SimulationConfig.DEFAULT.withTimeScale(100).withFullCharge(80);
+        RobotChargeModelling robotCharge = new RobotChargeModelling(new String[] {"1", "2" , "3", "3", "2", "1"},
+                SimulationMode.REAL_TIME, new ThreadPerRobotBackend(), null, 1L, config);
+        assertEquals(robotCharge.getSteadyState(), null);
+        for (int charge : robotCharge.getResult().getCharges()) {
+            assertTrue(charge == 0 || charge == 80);
         }
     }
 }
@@ -1,8 +1,16 @@
+import com.cyxoud.robots.TableBuilder;
 import com.cyxoud.robots.entities.*;
 import com.cyxoud.robots.exceptions.NeighbourIsNotSetException;
+import com.cyxoud.robots.simulation.CompletionTracker;
+import com.cyxoud.robots.simulation.Outcome;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
 
@@ -109,4 +117,198 @@ public class RobotTest {
         assertEquals(greedyRobot.tryTakeLeftChargerPart(), false);
 
     }
+
+    @Test
+    public void testThatCompletionTrackerIsDoneWhenAllRobotsDischarged() throws Exception {
+        Robot anotherRobot = new RandomRobot(cable, fork);
+        CompletionTracker completionTracker = new CompletionTracker(Arrays.asList(robot, anotherRobot));
+        while (robot.isActive()) {
+            robot.beDischarged();
+        }
+        assertEquals(completionTracker.isDone(), false);
+
+        while (anotherRobot.isActive()) {
+            anotherRobot.beDischarged();
+        }
+        assertEquals(completionTracker.await(1, TimeUnit.SECONDS), Outcome.ALL_DISCHARGED);
+    }
+
+    @Test
+    public void testThatCompletionTrackerCountsFullChargedAndDischargedRobots() {
+        Robot anotherRobot = new GreedyRobot(new Fork(), new Cable());
+        Robot thirdRobot = new GreedyRobot(new Fork(), new Cable());
+        CompletionTracker completionTracker = new CompletionTracker(Arrays.asList(robot, anotherRobot, thirdRobot));
+        robot.tryTakeLeftChargerPart();
+        robot.tryTakeRightChargerPart();
+        while (!robot.isFullCharged()) {
+            robot.beCharged();
+        }
+        assertEquals(completionTracker.getFullChargedCount(), 1);
+
+        robot.beDischarged();
+        while (thirdRobot.isActive()) {
+            thirdRobot.beDischarged();
+        }
+        assertEquals(completionTracker.getFullChargedCount(), 0);
+        assertEquals(completionTracker.getDischargedCount(), 1);
+        assertEquals(completionTracker.describeProgress(), "0/3 full, 1 dead");
+        assertEquals(completionTracker.isDone(), false);
+    }
+
+    @Test
+    public void testThatRobotTakesBothChargerPartsOrNoneOfThem() throws InterruptedException {
+        SimulationConfig config = SimulationConfig.DEFAULT.withPartAcquisition(PartAcquisition.ALL_OR_NOTHING);
+        Robot allOrNothingRobot = new Robot(Strategy.GREEDY, fork, cable, config);
+        Robot anotherRobot = new GreedyRobot(cable, new Fork());
+        anotherRobot.tryTakeLeftChargerPart();
+
+        assertEquals(allOrNothingRobot.tryTakeChargerParts(), false);
+        assertEquals(allOrNothingRobot.hasLeftChargerPart(), false);
+        assertEquals(allOrNothingRobot.takeChargerParts(50), false);
+        assertEquals(fork.isFree(), true);
+        anotherRobot.tryFreeLeftChargerPart();
+        assertTrue(allOrNothingRobot.tryTakeChargerParts());
+    }
+
+    @Test
+    public void testThatRobotTakesChargerPartOfLowerRankFirst() {
+        SimulationConfig config = SimulationConfig.DEFAULT.withPartAcquisition(PartAcquisition.ORDERED);
+        Robot orderedRobot = new Robot(Strategy.GREEDY, cable, fork, config);
+        Robot anotherRobot = new GreedyRobot(new Fork(), fork);
+        assertTrue(fork.precedes(cable));
+
+        anotherRobot.tryTakeRightChargerPart();
+        assertEquals(orderedRobot.tryTakeChargerParts(), false);
+        assertEquals(orderedRobot.hasLeftChargerPart(), false);
+        anotherRobot.tryFreeRightChargerPart();
+        robot.tryTakeRightChargerPart();
+        assertEquals(orderedRobot.tryTakeChargerParts(), false);
+        assertEquals(orderedRobot.hasRightChargerPart(), true);
+    }
+
+    @Test
+    public void testThatBlockedRobotSpinsThenYieldsThenParksLonger() throws InterruptedException {
+        RetryPolicy policy = new RetryPolicy(2, 1, 4, 16, 0);
+        assertEquals(policy.parkMillis(0, 0.7), 4);
+        assertEquals(policy.parkMillis(1, 0.7), 8);
+        assertEquals(policy.parkMillis(2, 0.7), 16);
+        assertEquals(policy.parkMillis(40, 0.7), 16);
+        assertEquals(new RetryPolicy(0, 0, 100, 100, 0.5).parkMillis(0, 1.0), 50);
+        assertEquals(RetryPolicy.parse("2,1,4,16,0"), policy);
+
+        Robot blockedRobot = new Robot(Strategy.GREEDY, fork, cable,
+                SimulationConfig.DEFAULT.withRetryPolicy(policy).withTimeScale(100));
+        for (int retry = 0; retry < 5; retry++) {
+            blockedRobot.backOff();
+        }
+        assertEquals(blockedRobot.getRetrySpins(), 2);
+        assertEquals(blockedRobot.getRetryYields(), 1);
+        assertEquals(blockedRobot.getRetryParks(), 2);
+        assertEquals(blockedRobot.getParkedMillis(), 12);
+    }
+
+    @Test
+    public void testThatSameSeedGivesSameParksOfTheRetries() throws InterruptedException {
+        SimulationConfig config = SimulationConfig.DEFAULT.withRetryPolicy(new RetryPolicy(0, 0, 4, 64, 0.5))
+                .withTimeScale(1000);
+        long[] parkedMillis = new long[2];
+        for (int run = 0; run < parkedMillis.length; run++) {
+            Robot blockedRobot = TableBuilder.ring(new Strategy[]{Strategy.GREEDY, Strategy.GREEDY},
+                    new SplittableRandom(5), config).get(0);
+            for (int retry = 0; retry < 6; retry++) {
+                blockedRobot.backOff();
+            }
+            assertEquals(blockedRobot.getRetryParks(), 6);
+            parkedMillis[run] = blockedRobot.getParkedMillis();
+        }
+        assertEquals(parkedMillis[0], parkedMillis[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatRetryPolicyWithoutParksIsRejected() {
+        RetryPolicy.parse("1,2,3");
+    }
+
+    @Test
+    public void testThatFairChargerPartIsGivenToTheRobotThatWaitsForIt() {
+        fork.setFair(true);
+        Robot anotherRobot = new GreedyRobot(new Cable(), fork);
+        robot.tryTakeLeftChargerPart();
+        assertEquals(anotherRobot.tryTakeRightChargerPart(), false);
+        assertEquals(fork.getTurn(anotherRobot), 1);
+
+        robot.tryFreeLeftChargerPart();
+        assertEquals(robot.tryTakeLeftChargerPart(), false);
+        assertEquals(robot.checkChargePartsAvailability(), false);
+        assertTrue(anotherRobot.tryTakeRightChargerPart());
+        assertEquals(fork.getTurn(robot), 1);
+        while (robot.isActive()) {
+            robot.beDischarged();
+        }
+        assertEquals(fork.getTurn(robot), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatFairChargerPartsTakenAllOrNothingAreRejected() {
+        SimulationConfig.DEFAULT.withPartAcquisition(PartAcquisition.ALL_OR_NOTHING).withFairChargerParts(true);
+    }
+
+    @Test
+    public void testThatRandomRobotWaitsForChargerPartsWithoutSpinning() throws Exception {
+        final Robot anotherRobot = new RandomRobot(new Cable(), fork);
+        anotherRobot.tryTakeRightChargerPart();
+        RandomRobot randomRobot = (RandomRobot) robot;
+        assertEquals(randomRobot.awaitChargePartsAvailability(50), false);
+
+        Thread freeingThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                }
+                anotherRobot.tryFreeRightChargerPart();
+            }
+        });
+        long wakeUpsBeforeWaiting = randomRobot.getWakeUpCount();
+        freeingThread.start();
+        assertEquals(randomRobot.awaitChargePartsAvailability(5000), true);
+        assertEquals(randomRobot.getWakeUpCount() - wakeUpsBeforeWaiting, 1);
+        freeingThread.join();
+    }
+
+    @Test
+    public void testThatConcurrentDischargesDisconnectRobotExactlyOnce() throws InterruptedException {
+        final AtomicInteger disconnects = new AtomicInteger();
+        robot.addStateListener(new RobotStateListener() {
+            @Override
+            public void onStateChange(Robot robot, StateChange change, int charge) {
+                if (change == StateChange.DISCONNECTED) disconnects.incrementAndGet();
+            }
+        });
+        robot.tryTakeLeftChargerPart();
+        robot.tryTakeRightChargerPart();
+
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10; j++) {
+                        robot.beDischarged();
+                        robot.beDischarged();
+                        robot.beCharged();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(robot.getCharge(), 0);
+        assertEquals(disconnects.get(), 1);
+        assertTrue(fork.isFree() && cable.isFree());
+    }
 }
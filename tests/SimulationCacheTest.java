@@ -0,0 +1,78 @@
+import com.cyxoud.robots.RobotChargeModelling;
+import com.cyxoud.robots.cache.SimulationCache;
+import com.cyxoud.robots.entities.Strategy;
+import com.cyxoud.robots.simulation.SimulationResult;
+import com.cyxoud.robots.sweep.Combinations;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Tests of the cache of the modelling results
+ */
+public class SimulationCacheTest {
+    private static final long TIME_LIMIT = 10 * 60 * 1000;
+
+    @Test
+    public void testThatCachedResultIsResultOfTheModellingForEachRotation() {
+        SimulationCache cache = new SimulationCache(16);
+        Strategy[] strategies = Combinations.toStrategies(Combinations.fromLabel("123321"));
+        for (int shift = 0; shift < strategies.length; shift++) {
+            Strategy[] rotated = rotate(strategies, shift);
+            SimulationResult computed = cache.simulate(rotated, 5, TIME_LIMIT);
+            SimulationResult cached = cache.simulate(rotated, 5, TIME_LIMIT);
+            assertEquals(computed.toString(), RobotChargeModelling.simulate(rotated, 5, TIME_LIMIT).toString());
+            assertEquals(cached.toString(), computed.toString());
+        }
+        assertEquals(cache.getMissCount(), strategies.length);
+        assertEquals(cache.getHitCount(), strategies.length);
+    }
+
+    @Test
+    public void testThatLeastRecentlyUsedResultIsEvicted() {
+        SimulationCache cache = new SimulationCache(2);
+        Strategy[] strategies = Combinations.toStrategies(Combinations.fromLabel("222222"));
+        cache.simulate(strategies, 1, TIME_LIMIT);
+        cache.simulate(strategies, 2, TIME_LIMIT);
+        cache.simulate(strategies, 1, TIME_LIMIT);
+        cache.simulate(strategies, 3, TIME_LIMIT);
+        assertEquals(cache.size(), 2);
+        cache.simulate(strategies, 1, TIME_LIMIT);
+        assertEquals(cache.getHitCount(), 2);
+        cache.simulate(strategies, 2, TIME_LIMIT);
+        assertEquals(cache.getMissCount(), 4);
+    }
+
+    @Test
+    public void testThatResultsOnDiskSurviveRestart() throws Exception {
+        Path directory = Files.createTempDirectory("robots-cache");
+        try {
+            Strategy[] strategies = Combinations.toStrategies(Combinations.fromLabel("333333"));
+            SimulationResult computed = new SimulationCache(16, directory).simulate(strategies, 9, TIME_LIMIT);
+
+            SimulationCache restarted = new SimulationCache(16, directory);
+            SimulationResult loaded = restarted.simulate(strategies, 9, TIME_LIMIT);
+            assertEquals(restarted.getDiskHitCount(), 1);
+            assertEquals(restarted.getMissCount(), 0);
+            assertEquals(loaded.toString(), computed.toString());
+        } finally {
+            for (File file : directory.toFile().listFiles()) {
+                assertTrue(file.delete());
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private static Strategy[] rotate(Strategy[] strategies, int shift) {
+        Strategy[] rotated = new Strategy[strategies.length];
+        for (int seat = 0; seat < strategies.length; seat++) {
+            rotated[(seat + shift) % strategies.length] = strategies[seat];
+        }
+        return rotated;
+    }
+}
@@ -0,0 +1,74 @@
+import com.cyxoud.robots.SimulationRequest;
+import com.cyxoud.robots.SimulationServer;
+import com.cyxoud.robots.Simulator;
+import com.cyxoud.robots.StrategySpec;
+import com.cyxoud.robots.entities.Strategy;
+import com.cyxoud.robots.simulation.SimulationResult;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Tests of the line protocol of the modelling server
+ */
+public class SimulationServerTest {
+    @Test
+    public void testThatEachRequestIsAnsweredWithItsResult() throws Exception {
+        StringBuilder requests = new StringBuilder();
+        for (int seed = 0; seed < 50; seed++) {
+            requests.append(seed).append(" --seed ").append(seed).append(" --strategies mix:1,1,1 --size 30\n");
+        }
+        requests.append("measured --metrics --seed 1 1 2 3 3 2 1\n");
+        Map<String, String> responses = serve(requests.toString(), 2);
+
+        assertEquals(responses.size(), 51);
+        for (int seed = 0; seed < 50; seed++) {
+            Strategy[] strategies = StrategySpec.parse("mix:1,1,1", 30, new Random(seed));
+            SimulationResult result = Simulator.run(SimulationRequest.of(strategies).withSeed(seed));
+            StringBuilder charges = new StringBuilder();
+            for (int charge : result.getCharges()) {
+                charges.append(charges.length() == 0 ? "" : ",").append(charge);
+            }
+            assertEquals(responses.get(String.valueOf(seed)), seed + " ok outcome=" + result.getOutcome()
+                    + " durationMillis=" + result.getDurationMillis() + " charges=" + charges);
+        }
+        assertTrue(responses.get("measured").startsWith("measured ok outcome="));
+        assertTrue(responses.get("measured").contains(" takeFailures="));
+    }
+
+    @Test
+    public void testThatWrongRequestIsAnsweredWithError() throws Exception {
+        Map<String, String> responses = serve("1 --seed 1 1 2 4\n\n2 --trace out.bin 1 2 3\n3 --seed 2 1 2 3\n"
+                + "4 8 12 3\n5 --seed 2 123\n6 --virtual-time 1 2 3\n7 --backend shared 1 2 3\n"
+                + "8 --time-scale 10 1 2 3\n9 --retry-policy 2,1,4,16,0 1 2 3\n10 --strategies 123 1 2 3\n", 1);
+
+        assertEquals(responses.size(), 10);
+        assertTrue(responses.get("3").startsWith("3 ok outcome="));
+        for (String id : responses.keySet()) {
+            assertTrue(id.equals("3") || responses.get(id).startsWith(id + " error "));
+        }
+    }
+
+    /**
+     * @return responses to the requests by their ids
+     */
+    private static Map<String, String> serve(String requests, int maxPending) throws Exception {
+        StringWriter out = new StringWriter();
+        try (Simulator simulator = new Simulator(2)) {
+            new SimulationServer(simulator, maxPending).serve(new BufferedReader(new StringReader(requests)), out);
+        }
+        Map<String, String> responses = new HashMap<>();
+        for (String response : out.toString().split("\n")) {
+            responses.put(response.substring(0, response.indexOf(' ')), response);
+        }
+        return responses;
+    }
+}
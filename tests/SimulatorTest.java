@@ -0,0 +1,99 @@
+import com.cyxoud.robots.RobotChargeModelling;
+import com.cyxoud.robots.SimulationRequest;
+import com.cyxoud.robots.Simulator;
+import com.cyxoud.robots.cache.SimulationCache;
+import com.cyxoud.robots.entities.SimulationConfig;
+import com.cyxoud.robots.entities.Strategy;
+import com.cyxoud.robots.exceptions.IllegalArgumentsNumberException;
+import com.cyxoud.robots.simulation.RobotOutcome;
+import com.cyxoud.robots.simulation.SimulationMode;
+import com.cyxoud.robots.simulation.SimulationResult;
+import com.cyxoud.robots.sweep.Combinations;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Tests of the headless simulator
+ */
+public class SimulatorTest {
+    @Test
+    public void testThatMeasuredModellingGivesSameChargesWithCounts() {
+        Strategy[] strategies = Combinations.toStrategies(Combinations.fromLabel("123321"));
+        SimulationRequest request = SimulationRequest.of(strategies).withSeed(3);
+        SimulationResult result = Simulator.run(request);
+        SimulationResult measuredResult = Simulator.run(request.withMeasured(true));
+
+        assertEquals(result.toString(), RobotChargeModelling.simulate(strategies, 3,
+                SimulationRequest.DEFAULT_TIME_LIMIT, SimulationConfig.DEFAULT).toString());
+        assertEquals(result.isMeasured(), false);
+        assertTrue(measuredResult.isMeasured());
+        assertEquals(measuredResult.getOutcome(), result.getOutcome());
+        assertEquals(measuredResult.getDurationMillis(), result.getDurationMillis());
+        for (int seat = 0; seat < strategies.length; seat++) {
+            assertEquals(measuredResult.getCharge(seat), result.getCharge(seat));
+            assertEquals(measuredResult.getRobotOutcome(seat), result.getCharge(seat) == 0 ? RobotOutcome.DISCHARGED
+                    : result.getCharge(seat) == 100 ? RobotOutcome.FULL_CHARGED : RobotOutcome.PARTLY_CHARGED);
+        }
+        assertTrue(measuredResult.getProcessedEvents() > 0);
+        assertTrue(measuredResult.getTakeAttempts() >= measuredResult.getTakeFailures());
+    }
+
+    @Test
+    public void testThatSimulatorWithCacheComputesRepeatedRequestOnce() throws Exception {
+        SimulationCache cache = new SimulationCache(16);
+        SimulationRequest request = SimulationRequest.of(Combinations.toStrategies(Combinations.fromLabel("312213")))
+                .withSeed(11);
+        try (Simulator simulator = new Simulator(2, cache)) {
+            SimulationResult first = simulator.submit(request).get();
+            SimulationResult repeated = simulator.submit(request).get();
+            simulator.submit(request.withMeasured(true)).get();
+
+            assertEquals(first.toString(), Simulator.run(request).toString());
+            assertEquals(repeated.toString(), first.toString());
+        }
+        assertEquals(cache.getMissCount(), 1);
+        assertEquals(cache.getHitCount(), 1);
+    }
+
+    @Test
+    public void testThatSubmittedModellingsGiveSameResultsAsRunOnes() throws Exception {
+        List<SimulationRequest> requests = new ArrayList<>();
+        for (int combination = 0; combination < Combinations.COUNT; combination += 3) {
+            requests.add(SimulationRequest.of(Combinations.toStrategies(combination)).withSeed(combination)
+                    .withMeasured(combination % 2 == 0));
+        }
+        List<CompletableFuture<SimulationResult>> futures = new ArrayList<>();
+        try (Simulator simulator = new Simulator(4)) {
+            for (SimulationRequest request : requests) {
+                futures.add(simulator.submit(request));
+            }
+            for (int i = 0; i < requests.size(); i++) {
+                assertEquals(futures.get(i).get().toString(), Simulator.run(requests.get(i)).toString());
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testThatRealTimeModellingIsMeasured() {
+        SimulationResult result = Simulator.run(SimulationRequest.of(Strategy.GREEDY, Strategy.GREEDY)
+                .withMode(SimulationMode.REAL_TIME)
+                .withConfig(SimulationConfig.DEFAULT.withTimeScale(100).withFullCharge(80)));
+        assertTrue(result.isFinished());
+        assertTrue(result.isMeasured());
+        assertEquals(result.getProcessedEvents(), -1);
+        for (int charge : result.getCharges()) {
+            assertTrue(charge == 0 || charge == 80);
+        }
+    }
+
+    @Test(expected = IllegalArgumentsNumberException.class)
+    public void testThatRequestWithoutRobotsIsRejected() {
+        SimulationRequest.of();
+    }
+}
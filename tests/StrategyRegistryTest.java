@@ -0,0 +1,82 @@
+import com.cyxoud.robots.TableBuilder;
+import com.cyxoud.robots.entities.*;
+import com.cyxoud.robots.simulation.CompletionTracker;
+import com.cyxoud.robots.simulation.DiscreteEventSimulation;
+import com.cyxoud.robots.simulation.SimulationResult;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Tests of the pluggable strategies of the robots
+ */
+public class StrategyRegistryTest {
+    /** virtual time limit of the modelling. Ten minutes */
+    private static final long TIME_LIMIT = 10 * 60 * 1000;
+
+    /**
+     * Takes the charger only when both parts are free and keeps it until robot is full charged
+     */
+    private static final RobotStrategy POLITE = new RobotStrategy() {
+        @Override
+        public String getName() {
+            return "polite";
+        }
+
+        @Override
+        public long step(RobotView robot) {
+            if (robot.isCharging()) {
+                robot.beCharged();
+                if (!robot.isFullCharged()) {
+                    return robot.getConfig().getChargeDelayTime();
+                }
+                robot.setCharging(false);
+                robot.tryFreeLeftChargerPart();
+                robot.tryFreeRightChargerPart();
+                return Robot.CONTINUE;
+            }
+            if (robot.isFullCharged() || !robot.checkChargePartsAvailability()) {
+                return Robot.BLOCKED;
+            }
+            robot.tryTakeLeftChargerPart();
+            robot.tryTakeRightChargerPart();
+            if (robot.gatheredCharging()) {
+                robot.setCharging(true);
+                return robot.getConfig().getChargeDelayTime();
+            }
+            return Robot.CONTINUE;
+        }
+    };
+
+    @Test
+    public void testThatBuiltInStrategiesAreFoundByNameAndId() {
+        assertEquals(StrategyRegistry.forName("greedy"), Strategy.GREEDY);
+        assertEquals(StrategyRegistry.forName("Gentlemanly"), Strategy.GENTLEMANLY);
+        for (Strategy strategy : Strategy.values()) {
+            assertEquals(StrategyRegistry.forId(StrategyRegistry.idOf(strategy)), strategy);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatExceptionThrownWhenStrategyIsUnknown() {
+        StrategyRegistry.forName("lazy");
+    }
+
+    @Test
+    public void testThatCustomStrategyRunsInVirtualTime() {
+        List<Robot> robots = TableBuilder.ring(new RobotStrategy[]{POLITE, Strategy.GREEDY, POLITE, Strategy.GREEDY},
+                new SplittableRandom(1));
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(robots, new CompletionTracker(robots));
+        simulation.runUntil(TIME_LIMIT);
+        SimulationResult result = simulation.getResult();
+
+        assertTrue(result.isFinished());
+        assertEquals(robots.get(0).getStrategy(), POLITE);
+        assertEquals(result.getCharge(0), robots.get(0).getConfig().getFullCharge());
+        assertEquals(result.getCharge(2), robots.get(2).getConfig().getFullCharge());
+    }
+}
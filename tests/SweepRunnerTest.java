@@ -0,0 +1,85 @@
+import com.cyxoud.robots.cache.SimulationCache;
+import com.cyxoud.robots.entities.Strategy;
+import com.cyxoud.robots.sweep.CombinationStats;
+import com.cyxoud.robots.sweep.Combinations;
+import com.cyxoud.robots.sweep.SweepReport;
+import com.cyxoud.robots.sweep.SweepRunner;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.concurrent.ForkJoinPool;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Tests of the sweep over combinations of strategies
+ */
+public class SweepRunnerTest {
+
+    @Test
+    public void testThatLabelsAndNumbersOfCombinationsMatch() {
+        for (int combination = 0; combination < Combinations.COUNT; combination++) {
+            assertEquals(Combinations.fromLabel(Combinations.label(combination)), combination);
+        }
+        Strategy[] strategies = Combinations.toStrategies(Combinations.fromLabel("123321"));
+        assertEquals(strategies[0], Strategy.RANDOM);
+        assertEquals(strategies[2], Strategy.GENTLEMANLY);
+        assertEquals(strategies[5], Strategy.RANDOM);
+    }
+
+    @Test
+    public void testThatEachCombinationIsRunGivenNumberOfTimes() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SweepReport report = new SweepRunner(5, SweepRunner.DEFAULT_TIME_LIMIT, 1, pool)
+                    .run(Combinations.parse("123321,222222,111111"));
+            assertEquals(report.getSimulationCount(), 15);
+            for (CombinationStats stats : report.getStats()) {
+                assertEquals(stats.getRuns(), 5);
+                assertEquals(stats.getFinishedRuns() + stats.getNonTerminatingRuns() + stats.getUnfinishedRuns(), 5);
+                assertEquals(stats.getUnfinishedRuns(), 0);
+                double fractions = stats.getMeanFullChargedFraction() + stats.getMeanDischargedFraction();
+                assertTrue(stats.getFinishedRuns() == 0 || fractions > 0.99);
+            }
+            CombinationStats greedy = report.getStats().get(1);
+            assertTrue(greedy.getAllDischargedRuns() == 5 || greedy.getAllAliveFullChargedRuns() == 5
+                    || greedy.getNonTerminatingRuns() == 5);
+
+            StringWriter csv = new StringWriter();
+            report.writeCsv(csv);
+            String[] lines = csv.toString().split(System.lineSeparator());
+            assertEquals(lines.length, 4);
+            assertTrue(lines[1].startsWith(Combinations.fromLabel("123321") + ",123321,5,"));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testThatSweepWithSameSeedIsRepeatableOnAnyNumberOfThreads() throws Exception {
+        int[] combinations = Combinations.parse("111111,123123,311113");
+        ForkJoinPool onePool = new ForkJoinPool(1);
+        ForkJoinPool fourPool = new ForkJoinPool(4);
+        try {
+            StringWriter first = new StringWriter();
+            new SweepRunner(8, SweepRunner.DEFAULT_TIME_LIMIT, 42, onePool).run(combinations).writeCsv(first);
+            StringWriter second = new StringWriter();
+            new SweepRunner(8, SweepRunner.DEFAULT_TIME_LIMIT, 42, fourPool).run(combinations).writeCsv(second);
+            assertEquals(first.toString(), second.toString());
+
+            SimulationCache cache = new SimulationCache(SimulationCache.DEFAULT_MAX_ENTRIES);
+            for (int sweep = 0; sweep < 2; sweep++) {
+                StringWriter cached = new StringWriter();
+                new SweepRunner(8, SweepRunner.DEFAULT_TIME_LIMIT, 42, fourPool, cache).run(combinations)
+                        .writeCsv(cached);
+                assertEquals(cached.toString(), first.toString());
+            }
+            assertEquals(cache.getMissCount(), 24);
+            assertEquals(cache.getHitCount(), 24);
+        } finally {
+            onePool.shutdown();
+            fourPool.shutdown();
+        }
+    }
+}
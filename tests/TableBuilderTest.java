@@ -0,0 +1,52 @@
+import com.cyxoud.robots.StrategySpec;
+import com.cyxoud.robots.TableBuilder;
+import com.cyxoud.robots.entities.*;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Tests of the round table layout and strategies specification
+ */
+public class TableBuilderTest {
+
+    @Test
+    public void testThatNeighboursShareChargerParts() {
+        List<Robot> robots = TableBuilder.ring(StrategySpec.parse("3", 1001, new Random()));
+        assertEquals(robots.size(), 1001);
+        for (int i = 0; i < robots.size(); i++) {
+            Robot robot = robots.get(i);
+            Robot leftNeighbour = robots.get((i + 1) % robots.size());
+            assertTrue(robot.tryTakeLeftChargerPart());
+            assertEquals(leftNeighbour.tryTakeRightChargerPart(), false);
+            assertTrue(robot.tryFreeLeftChargerPart());
+        }
+    }
+
+    @Test
+    public void testThatPatternIsRepeatedToFillTheTable() {
+        Strategy[] strategies = StrategySpec.parse("1x2,23", 9, new Random());
+        assertEquals(strategies[0], Strategy.RANDOM);
+        assertEquals(strategies[1], Strategy.RANDOM);
+        assertEquals(strategies[2], Strategy.GREEDY);
+        assertEquals(strategies[3], Strategy.GENTLEMANLY);
+        assertEquals(strategies[8], Strategy.RANDOM);
+        assertEquals(StrategySpec.parse("123321", -1, new Random()).length, 6);
+    }
+
+    @Test
+    public void testThatMixHasOnlyStrategiesWithWeights() {
+        for (Strategy strategy : StrategySpec.parse("mix:0,1,1", 100, new Random())) {
+            assertTrue(strategy != Strategy.RANDOM);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatExceptionThrownWhenSpecHasIllegalStrategy() {
+        StrategySpec.parse("1241", -1, new Random());
+    }
+}
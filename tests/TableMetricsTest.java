@@ -0,0 +1,154 @@
+import com.cyxoud.robots.StrategySpec;
+import com.cyxoud.robots.TableBuilder;
+import com.cyxoud.robots.entities.*;
+import com.cyxoud.robots.metrics.MetricsSnapshot;
+import com.cyxoud.robots.metrics.RobotMetrics;
+import com.cyxoud.robots.metrics.TableMetrics;
+import com.cyxoud.robots.simulation.Clock;
+import com.cyxoud.robots.simulation.CompletionTracker;
+import com.cyxoud.robots.simulation.DiscreteEventSimulation;
+import com.cyxoud.robots.simulation.SteadyStateDetector;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Tests of the metrics of the modelling
+ */
+public class TableMetricsTest {
+    /**
+     * Charges once, frees the charger and at once tries to take it again, so the neighbours may never get it
+     */
+    private static final RobotStrategy REGRABBING = new RobotStrategy() {
+        @Override
+        public String getName() {
+            return "regrabbing";
+        }
+
+        @Override
+        public long step(RobotView robot) {
+            if (robot.gatheredCharging()) {
+                robot.beCharged();
+                robot.tryFreeLeftChargerPart();
+                robot.tryFreeRightChargerPart();
+            }
+            if (robot.isFullCharged() || robot.tryTakeChargerParts()) {
+                return robot.getConfig().getChargeDelayTime();
+            }
+            return Robot.BLOCKED;
+        }
+    };
+
+    private long now;
+    private final Clock clock = new Clock() {
+        @Override
+        public long millis() {
+            return now;
+        }
+    };
+
+    @Test
+    public void testThatHoldAndWaitTimesAndContentionAreMeasured() throws Exception {
+        Fork fork = new Fork();
+        Cable cable = new Cable();
+        Cable anotherCable = new Cable();
+        List<Robot> robots = Arrays.<Robot>asList(new RandomRobot(fork, cable), new RandomRobot(anotherCable, fork));
+        TableMetrics metrics = new TableMetrics(clock, robots);
+
+        robots.get(0).tryTakeLeftChargerPart();
+        now = 100;
+        robots.get(1).tryTakeRightChargerPart();
+        robots.get(0).tryTakeRightChargerPart();
+        now = 300;
+        robots.get(0).tryFreeLeftChargerPart();
+        robots.get(0).tryFreeRightChargerPart();
+        robots.get(0).beDischarged();
+        now = 400;
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        RobotMetrics robot = snapshot.getRobot(0);
+        assertEquals(robot.getWaitCount(), 1);
+        assertEquals(robot.getWaitMillis(), 100);
+        assertEquals(robot.getHoldCount(), 2);
+        assertEquals(robot.getHoldMillis(), 500);
+        assertEquals(robot.getMaxHoldMillis(), 300);
+        assertEquals(robot.getChargeMillis(50), 300);
+        assertEquals(robot.getChargeMillis(40), 100);
+        assertEquals(snapshot.getTakeAttempts(0), 2);
+        assertEquals(snapshot.getTakeFailures(0), 1);
+        assertEquals(snapshot.getMostContendedPart(), 0);
+
+        metrics.register();
+        try {
+            assertEquals(ManagementFactory.getPlatformMBeanServer()
+                    .getAttribute(metrics.getObjectName(), "TakeFailures"), 1L);
+        } finally {
+            metrics.close();
+        }
+        assertTrue(metrics.getObjectName() == null);
+    }
+
+    @Test
+    public void testThatChargeHistogramCoversWholeModelling() {
+        List<Robot> robots = TableBuilder.ring(new Strategy[]{Strategy.RANDOM, Strategy.GREEDY, Strategy.GENTLEMANLY,
+                Strategy.GENTLEMANLY, Strategy.GREEDY, Strategy.RANDOM}, new SplittableRandom(3));
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(robots, new CompletionTracker(robots));
+        TableMetrics metrics = new TableMetrics(simulation.getClock(), robots);
+        simulation.runUntil(10 * 60 * 1000);
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertTrue(snapshot.getTotalTakeAttempts() >= snapshot.getTotalTakeFailures());
+        for (RobotMetrics robot : snapshot.getRobots()) {
+            long total = 0;
+            for (long millis : robot.getChargeMillis()) {
+                total += millis;
+            }
+            assertEquals(total, snapshot.getTimeMillis());
+            assertEquals(robot.getCharge(), robots.get(robot.getSeat()).getCharge());
+            assertTrue(robot.getMaxWaitMillis() <= robot.getWaitMillis());
+        }
+    }
+
+    @Test
+    public void testThatChargeThroughputComparesAcquisitionsOfChargerParts() {
+        Strategy[] strategies = StrategySpec.parse("mix:1,1,1", 50, new Random(3));
+        MetricsSnapshot oneAtATime = runWith(strategies, PartAcquisition.ONE_AT_A_TIME);
+        MetricsSnapshot allOrNothing = runWith(strategies, PartAcquisition.ALL_OR_NOTHING);
+
+        assertTrue(oneAtATime.getTotalChargedAmount() > 0);
+        assertTrue(allOrNothing.getChargeThroughput() > oneAtATime.getChargeThroughput());
+    }
+
+    @Test
+    public void testThatFairChargerPartsStopStarvationOfTheNeighbours() {
+        RobotStrategy[] strategies = new RobotStrategy[20];
+        Arrays.fill(strategies, REGRABBING);
+        MetricsSnapshot unfair = runWith(strategies, SimulationConfig.DEFAULT);
+        MetricsSnapshot fair = runWith(strategies, SimulationConfig.DEFAULT.withFairChargerParts(true));
+
+        assertEquals(unfair.getDisconnectedCount(), 10);
+        assertEquals(fair.getDisconnectedCount(), 0);
+        assertTrue(fair.getTimeToChargePercentile(99) < unfair.getTimeToChargePercentile(99));
+        assertTrue(fair.getPartWaitPercentile(0, 99) <= SimulationConfig.DEFAULT.getChargeDelayTime());
+    }
+
+    private MetricsSnapshot runWith(Strategy[] strategies, PartAcquisition acquisition) {
+        return runWith(strategies, SimulationConfig.DEFAULT.withPartAcquisition(acquisition));
+    }
+
+    private MetricsSnapshot runWith(RobotStrategy[] strategies, SimulationConfig config) {
+        List<Robot> robots = TableBuilder.ring(strategies, new SplittableRandom(3), config);
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(robots, new CompletionTracker(robots),
+                new SteadyStateDetector());
+        TableMetrics metrics = new TableMetrics(simulation.getClock(), robots);
+        simulation.runUntil(10 * 60 * 1000);
+        return metrics.snapshot();
+    }
+}
@@ -1,12 +1,9 @@
 import com.cyxoud.robots.RobotChargeModelling;
-import com.cyxoud.robots.entities.Robot;
 import org.junit.Ignore;
 import org.junit.Test;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Random;
 
 import static junit.framework.TestCase.assertTrue;
@@ -30,19 +27,10 @@ public class TestInputCombinations {
                     Integer.toString(r.nextInt(3) + 1), Integer.toString(r.nextInt(3) + 1)});
         }
         for (String[] input : list) {
-            try {
-                System.out.println(Arrays.toString(input));
-                RobotChargeModelling robotCharge = new RobotChargeModelling(input);
-                Field robotsField = RobotChargeModelling.class.getDeclaredField("robots");
-                robotsField.setAccessible(true);
-                List<Robot> robots = (List<Robot>) robotsField.get(robotCharge);
-                for (Robot robot : robots) {
-                    assertTrue(robot.getCharge() == 0 || robot.getCharge() == 100);
-                }
-            } catch (NoSuchFieldException e) {
-                System.out.println("Error in test");
-            } catch (IllegalAccessException e) {
-                e.printStackTrace();
+            System.out.println(Arrays.toString(input));
+            RobotChargeModelling robotCharge = new RobotChargeModelling(input);
+            for (int charge : robotCharge.getResult().getCharges()) {
+                assertTrue(charge == 0 || charge == 100);
             }
         }
     }
@@ -0,0 +1,159 @@
+import com.cyxoud.robots.TableBuilder;
+import com.cyxoud.robots.entities.*;
+import com.cyxoud.robots.exceptions.TraceFormatException;
+import com.cyxoud.robots.simulation.Clock;
+import com.cyxoud.robots.simulation.CompletionTracker;
+import com.cyxoud.robots.simulation.DiscreteEventSimulation;
+import com.cyxoud.robots.trace.TraceReader;
+import com.cyxoud.robots.trace.TraceVisitor;
+import com.cyxoud.robots.trace.TraceWriter;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Tests of the binary trace of the modelling
+ */
+public class TraceTest {
+
+    @Test
+    public void testThatTraceReplaysChargesOfTheModelling() throws Exception {
+        Path path = Files.createTempFile("robots", ".trace");
+        try {
+            List<Robot> robots = TableBuilder.ring(new Strategy[]{Strategy.GREEDY, Strategy.GENTLEMANLY,
+                    Strategy.GREEDY, Strategy.GENTLEMANLY, Strategy.GREEDY});
+            DiscreteEventSimulation simulation = new DiscreteEventSimulation(robots, new CompletionTracker(robots));
+            long recordCount;
+            try (TraceWriter traceWriter = new TraceWriter(path, simulation.getClock(), robots)) {
+                simulation.run();
+                recordCount = traceWriter.getRecordCount();
+            }
+            long endTime = simulation.getClock().millis();
+
+            try (TraceReader reader = new TraceReader(path)) {
+                assertEquals(reader.getRobotCount(), 5);
+                assertEquals(reader.getRecordCount(), recordCount);
+                assertEquals(reader.getStrategy(1), Strategy.GENTLEMANLY);
+                final int[] charges = new int[robots.size()];
+                for (int seat = 0; seat < robots.size(); seat++) {
+                    assertEquals(reader.chargeAt(seat, -1), 50);
+                    assertEquals(reader.chargeAt(seat, endTime), robots.get(seat).getCharge());
+                    charges[seat] = reader.getInitialCharge(seat);
+                }
+
+                reader.replay(new TraceVisitor() {
+                    @Override
+                    public void visit(long time, int seat, StateChange change, int charge,
+                                      boolean hasLeftPart, boolean hasRightPart) {
+                        charges[seat] = charge;
+                    }
+                });
+                for (int seat = 0; seat < robots.size(); seat++) {
+                    assertEquals(charges[seat], robots.get(seat).getCharge());
+                }
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testThatStateChangesOfConcurrentRobotsAreWrittenInOrderOfTime() throws Exception {
+        Path path = Files.createTempFile("robots", ".trace");
+        try {
+            final List<Robot> robots = TableBuilder.ring(new Strategy[]{Strategy.GREEDY, Strategy.GREEDY,
+                    Strategy.GREEDY, Strategy.GREEDY});
+            Thread[] threads = new Thread[robots.size()];
+            final long start = System.nanoTime();
+            Clock clock = new Clock() {
+                @Override
+                public long millis() {
+                    return (System.nanoTime() - start) / 1000000;
+                }
+            };
+            // robots take only their left parts, so no part is taken by two robots and every take succeeds
+            try (TraceWriter traceWriter = new TraceWriter(path, clock, robots)) {
+                for (int i = 0; i < threads.length; i++) {
+                    final Robot robot = robots.get(i);
+                    threads[i] = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            for (int j = 0; j < 10000; j++) {
+                                robot.tryTakeLeftChargerPart();
+                                robot.tryFreeLeftChargerPart();
+                            }
+                        }
+                    });
+                    threads[i].start();
+                }
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+                assertEquals(traceWriter.getRecordCount(), 4 * 2 * 10000);
+            }
+
+            try (TraceReader reader = new TraceReader(path)) {
+                final long[] lastTime = {0};
+                final int[] records = {0};
+                reader.replay(new TraceVisitor() {
+                    @Override
+                    public void visit(long time, int seat, StateChange change, int charge,
+                                      boolean hasLeftPart, boolean hasRightPart) {
+                        assertTrue(time >= lastTime[0]);
+                        lastTime[0] = time;
+                        records[0]++;
+                    }
+                });
+                assertEquals(reader.getRecordCount(), records[0]);
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test(expected = TraceFormatException.class)
+    public void testThatExceptionThrownWhenTraceHasUnknownStateChange() throws Exception {
+        Path path = Files.createTempFile("robots", ".trace");
+        try {
+            List<Robot> robots = TableBuilder.ring(new Strategy[]{Strategy.GREEDY, Strategy.GREEDY});
+            DiscreteEventSimulation simulation = new DiscreteEventSimulation(robots, new CompletionTracker(robots));
+            try (TraceWriter traceWriter = new TraceWriter(path, simulation.getClock(), robots)) {
+                simulation.run();
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                // state change of the last record, which is followed by charge, charger parts and reserved byte
+                channel.write(ByteBuffer.wrap(new byte[] {(byte) 0x80}), channel.size() - 4);
+            }
+
+            try (TraceReader reader = new TraceReader(path)) {
+                reader.replay(new TraceVisitor() {
+                    @Override
+                    public void visit(long time, int seat, StateChange change, int charge,
+                                      boolean hasLeftPart, boolean hasRightPart) {
+                    }
+                });
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test(expected = TraceFormatException.class)
+    public void testThatExceptionThrownWhenFileIsNotTrace() throws Exception {
+        Path path = Files.createTempFile("robots", ".trace");
+        try {
+            Files.write(path, "not a trace of the modelling".getBytes("UTF-8"));
+            new TraceReader(path).close();
+        } finally {
+            Files.delete(path);
+        }
+    }
+}